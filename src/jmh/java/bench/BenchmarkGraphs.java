@@ -0,0 +1,36 @@
+package bench;
+
+import graph.gen.GeneratorConfig;
+import graph.gen.SyntheticGraphGenerator;
+import graph.io.GraphData;
+import graph.io.GraphLoader;
+
+import java.io.IOException;
+
+/**
+ * Resolves benchmark dataset parameters to graphs.
+ * A parameter is either a dataset path such as {@code data/large1.json} (relative to the
+ * project root) or {@code synthetic:<vertices>} for a seeded clustered graph with four
+ * edges per vertex from {@link SyntheticGraphGenerator}.
+ */
+final class BenchmarkGraphs {
+
+    static final String SYNTHETIC_PREFIX = "synthetic:";
+
+    private BenchmarkGraphs() {
+    }
+
+    static GraphData load(String dataset) throws IOException {
+        if (dataset.startsWith(SYNTHETIC_PREFIX)) {
+            return synthetic(Integer.parseInt(dataset.substring(SYNTHETIC_PREFIX.length())));
+        }
+        return GraphLoader.load(dataset);
+    }
+
+    static GraphData synthetic(int n) {
+        return SyntheticGraphGenerator.generate(new GeneratorConfig()
+            .setVertices(n)
+            .setEdges(4 * n)
+            .setDagDepth(Math.max(1, (int) Math.sqrt(n) / 4)));
+    }
+}
@@ -0,0 +1,82 @@
+package bench;
+
+import graph.csr.CSRGraph;
+import graph.dagsp.CorridorQuery;
+import graph.dagsp.DistanceEngine;
+import graph.dagsp.PathDistances;
+import graph.dagsp.PathMode;
+import graph.io.GraphData;
+import graph.scc.SCCFinder;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks single-pair longest path queries on the condensation DAG: the corridor
+ * query versus a full single-source pass followed by a parent walk. Pairs are random
+ * sources with a random target the source reaches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+public class CorridorQueryBenchmark {
+    private static final int PAIRS = 64;
+
+    @Param({"synthetic:100000", "synthetic:1000000"})
+    public String dataset;
+
+    private CSRGraph condensationGraph;
+    private int[] topoOrder;
+    private CorridorQuery corridor;
+    private final int[] sources = new int[PAIRS];
+    private final int[] targets = new int[PAIRS];
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        GraphData data = BenchmarkGraphs.load(dataset);
+        SCCFinder sccFinder = new SCCFinder(data.getGraph());
+        condensationGraph = sccFinder.buildCondensation().getGraph();
+        topoOrder = sccFinder.getTopologicalOrder();
+        corridor = new CorridorQuery(condensationGraph, topoOrder);
+
+        SplittableRandom random = new SplittableRandom(1);
+        int n = condensationGraph.vertexCount();
+        for (int i = 0; i < PAIRS; ) {
+            int source = random.nextInt(n);
+            PathDistances distances = DistanceEngine.compute(condensationGraph, source, topoOrder, PathMode.LONGEST);
+            if (distances.farthestVertex() == source) {
+                continue;
+            }
+            int target;
+            do {
+                target = random.nextInt(n);
+            } while (!distances.isReachable(target) || target == source);
+            sources[i] = source;
+            targets[i++] = target;
+        }
+    }
+
+    @Benchmark
+    public CorridorQuery.PairPath corridor() {
+        int i = next++ & (PAIRS - 1);
+        return corridor.query(sources[i], targets[i], PathMode.LONGEST);
+    }
+
+    @Benchmark
+    public int fullPassThenWalk() {
+        int i = next++ & (PAIRS - 1);
+        PathDistances distances = DistanceEngine.compute(condensationGraph, sources[i], topoOrder, PathMode.LONGEST);
+        int[] parents = distances.getParents();
+        int hops = 0;
+        for (int v = targets[i]; v != -1; v = parents[v]) {
+            hops++;
+        }
+        return hops;
+    }
+}
@@ -0,0 +1,50 @@
+package bench;
+
+import graph.io.BinaryGraphFormat;
+import graph.io.GraphData;
+import graph.io.JsonGraphLoader;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks loading the bundled datasets: streaming JSON parse versus mapping the
+ * equivalent binary graph file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoadBenchmark {
+
+    @Param({"data/small1.json", "data/medium1.json", "data/large1.json", "data/large3.json"})
+    public String dataset;
+
+    private Path binaryFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        binaryFile = Files.createTempFile("bench", BinaryGraphFormat.EXTENSION);
+        BinaryGraphFormat.write(JsonGraphLoader.load(dataset), binaryFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(binaryFile);
+    }
+
+    @Benchmark
+    public GraphData jsonLoad() throws IOException {
+        return JsonGraphLoader.load(dataset);
+    }
+
+    @Benchmark
+    public GraphData binaryMap() throws IOException {
+        return BinaryGraphFormat.map(binaryFile);
+    }
+}
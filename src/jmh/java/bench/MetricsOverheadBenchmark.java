@@ -0,0 +1,58 @@
+package bench;
+
+import graph.dagsp.DAGShortestPaths;
+import graph.metrics.ConcurrentMetrics;
+import graph.metrics.Metrics;
+import graph.metrics.NoOpMetrics;
+import graph.metrics.SimpleMetrics;
+import graph.scc.SCCFinder;
+import graph.topo.TopoSort;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of instrumentation on the hot stages: no metrics ({@code null}), the no-op
+ * singleton, single-threaded {@link SimpleMetrics} and striped {@link ConcurrentMetrics}.
+ * With counts flushed once per run, all four should be within noise of each other.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+public class MetricsOverheadBenchmark {
+
+    @Param({"none", "noop", "simple", "concurrent"})
+    public String metrics;
+
+    private Metrics collector;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        switch (metrics) {
+            case "none" -> collector = null;
+            case "noop" -> collector = NoOpMetrics.INSTANCE;
+            case "simple" -> collector = new SimpleMetrics();
+            case "concurrent" -> collector = new ConcurrentMetrics("bench");
+            default -> throw new IllegalArgumentException("Unknown metrics " + metrics);
+        }
+    }
+
+    @Benchmark
+    public SCCFinder scc(PipelineState state) {
+        return new SCCFinder(state.data.getGraph(), collector);
+    }
+
+    @Benchmark
+    public int[] topoOrder(PipelineState state) {
+        return TopoSort.order(state.condensationGraph, collector);
+    }
+
+    @Benchmark
+    public DAGShortestPaths.PathResult longestPathWithParent(PipelineState state) {
+        return DAGShortestPaths.longestPathWithParent(state.condensationGraph, state.sourceComponent,
+            state.topoOrder, collector);
+    }
+}
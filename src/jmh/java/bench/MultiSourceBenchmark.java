@@ -0,0 +1,87 @@
+package bench;
+
+import graph.csr.CSRGraph;
+import graph.dagsp.DistanceEngine;
+import graph.dagsp.DistanceMatrix;
+import graph.dagsp.MultiSourcePaths;
+import graph.dagsp.PathMode;
+import graph.scc.SCCFinder;
+import graph.topo.TopoSort;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks shortest paths from many depots over one condensation DAG: one
+ * topological pass per source versus batched blocks of sources, with the Vector API
+ * kernel and with the scalar fallback ({@code -Dgraph.vector=false}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 3, jvmArgsAppend = {"-Xmx8g", "--add-modules", "jdk.incubator.vector"})
+public class MultiSourceBenchmark {
+
+    @Param({"synthetic:100000", "synthetic:1000000"})
+    public String dataset;
+
+    @Param({"16", "256"})
+    public int sourceCount;
+
+    private CSRGraph condensationGraph;
+    private int[] topoOrder;
+    private int[] sources;
+    private boolean compact;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        condensationGraph = new SCCFinder(BenchmarkGraphs.load(dataset).getGraph()).buildCondensation().getGraph();
+        topoOrder = TopoSort.order(condensationGraph);
+        compact = DistanceEngine.fitsInt(condensationGraph);
+        SplittableRandom random = new SplittableRandom(1);
+        sources = new int[sourceCount];
+        for (int i = 0; i < sourceCount; i++) {
+            sources[i] = random.nextInt(condensationGraph.vertexCount());
+        }
+    }
+
+    @Benchmark
+    public void singleSourceLoop(Blackhole blackhole) {
+        for (int source : sources) {
+            blackhole.consume(DistanceEngine.compute(condensationGraph, source, topoOrder, PathMode.SHORTEST,
+                compact, null));
+        }
+    }
+
+    @Benchmark
+    public DistanceMatrix batched() {
+        return MultiSourcePaths.compute(condensationGraph, sources, topoOrder, PathMode.SHORTEST);
+    }
+
+    @Benchmark
+    @Fork(value = 3, jvmArgsAppend = {"-Xmx8g", "-Dgraph.vector=false"})
+    public DistanceMatrix batchedScalar() {
+        return MultiSourcePaths.compute(condensationGraph, sources, topoOrder, PathMode.SHORTEST);
+    }
+
+    @Benchmark
+    public DistanceMatrix batchedLongest() {
+        return MultiSourcePaths.compute(condensationGraph, sources, topoOrder, PathMode.LONGEST);
+    }
+
+    @Benchmark
+    @Fork(value = 3, jvmArgsAppend = {"-Xmx8g", "-Dgraph.vector=false"})
+    public DistanceMatrix batchedLongestScalar() {
+        return MultiSourcePaths.compute(condensationGraph, sources, topoOrder, PathMode.LONGEST);
+    }
+
+    @Benchmark
+    public DistanceMatrix batchedParallel() {
+        return MultiSourcePaths.computeParallel(condensationGraph, sources, topoOrder, PathMode.SHORTEST);
+    }
+}
@@ -0,0 +1,64 @@
+package bench;
+
+import graph.csr.CSRGraph;
+import graph.dagsp.DistanceEngine;
+import graph.dagsp.PathDistances;
+import graph.dagsp.PathMode;
+import graph.dagsp.PathRepair;
+import graph.io.GraphData;
+import graph.scc.SCCFinder;
+import graph.topo.TopoSort;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks one traffic update (a single edge weight change) on the condensation DAG:
+ * incremental repair versus relaxing the whole DAG again.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+public class PathRepairBenchmark {
+
+    @Param({"synthetic:100000", "synthetic:1000000"})
+    public String dataset;
+
+    private CSRGraph condensationGraph;
+    private int[] topoOrder;
+    private int sourceComponent;
+    private PathRepair repair;
+    private final SplittableRandom random = new SplittableRandom(1);
+    private final int[] edge = new int[1];
+    private final int[] delta = new int[1];
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        GraphData data = BenchmarkGraphs.load(dataset);
+        SCCFinder sccFinder = new SCCFinder(data.getGraph());
+        condensationGraph = sccFinder.buildCondensation().getGraph();
+        topoOrder = TopoSort.order(condensationGraph);
+        sourceComponent = sccFinder.getComponentId(data.getSource());
+        repair = new PathRepair(condensationGraph, sourceComponent, topoOrder, PathMode.SHORTEST);
+    }
+
+    @Benchmark
+    public int repairOneEdge() {
+        // Alternate between slowing down and restoring a random edge so weights stay bounded
+        edge[0] = random.nextInt(condensationGraph.edgeCount());
+        delta[0] = 5;
+        repair.applyDeltas(edge, delta);
+        delta[0] = -5;
+        return repair.applyDeltas(edge, delta);
+    }
+
+    @Benchmark
+    public PathDistances fullRecompute() {
+        return DistanceEngine.compute(condensationGraph, sourceComponent, topoOrder, PathMode.SHORTEST, false, null);
+    }
+}
@@ -0,0 +1,121 @@
+package bench;
+
+import graph.csr.CSRGraph;
+import graph.dagsp.DAGShortestPaths;
+import graph.dagsp.DistanceEngine;
+import graph.dagsp.PathDistances;
+import graph.dagsp.PathMode;
+import graph.scc.Condensation;
+import graph.scc.SCCAlgorithm;
+import graph.scc.SCCFinder;
+import graph.topo.LevelOrder;
+import graph.topo.TopoSort;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks each stage of the SCC -> condensation -> topo -> DAG path pipeline
+ * separately and end to end.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+public class PipelineBenchmark {
+
+    @Benchmark
+    public SCCFinder scc(PipelineState state) {
+        return new SCCFinder(state.data.getGraph());
+    }
+
+    @Benchmark
+    public SCCFinder sccParallel(PipelineState state) {
+        return new SCCFinder(state.data.getGraph(), null, SCCAlgorithm.PARALLEL_FORWARD_BACKWARD);
+    }
+
+    @Benchmark
+    public Condensation condensation(PipelineState state) {
+        return state.sccFinder.buildCondensation();
+    }
+
+    @Benchmark
+    public List<Integer> topoSort(PipelineState state) {
+        return TopoSort.sort(state.condensationGraph);
+    }
+
+    @Benchmark
+    public int[] topoOrder(PipelineState state) {
+        return TopoSort.order(state.condensationGraph);
+    }
+
+    @Benchmark
+    public LevelOrder topoSortParallelLevels(PipelineState state) {
+        return TopoSort.parallelLevelSort(state.condensationGraph);
+    }
+
+    @Benchmark
+    public int[] shortestPath(PipelineState state) {
+        return DAGShortestPaths.shortestPath(state.condensationGraph, state.sourceComponent, state.topoOrder);
+    }
+
+    @Benchmark
+    public PathDistances longestPathCompact(PipelineState state) {
+        return DistanceEngine.compute(state.condensationGraph, state.sourceComponent, state.topoOrder,
+            PathMode.LONGEST, state.compactDistances, null);
+    }
+
+    @Benchmark
+    public PathDistances longestPathLong(PipelineState state) {
+        return DistanceEngine.compute(state.condensationGraph, state.sourceComponent, state.topoOrder,
+            PathMode.LONGEST, false, null);
+    }
+
+    @Benchmark
+    public DAGShortestPaths.PathResult longestPathWithParent(PipelineState state) {
+        return DAGShortestPaths.longestPathWithParent(state.condensationGraph, state.sourceComponent,
+            state.topoOrder, null);
+    }
+
+    @Benchmark
+    public DAGShortestPaths.PathResult shortestThenLongest(PipelineState state) {
+        DAGShortestPaths.shortestPathWithParent(state.condensationGraph, state.sourceComponent,
+            state.topoOrder, null);
+        return DAGShortestPaths.longestPathWithParent(state.condensationGraph, state.sourceComponent,
+            state.topoOrder, null);
+    }
+
+    @Benchmark
+    public DAGShortestPaths.SweepResult shortestAndLongest(PipelineState state) {
+        return DAGShortestPaths.shortestAndLongest(state.condensationGraph, state.sourceComponent,
+            state.topoOrder);
+    }
+
+    @Benchmark
+    public DAGShortestPaths.SweepResult shortestAndLongestWithCounts(PipelineState state) {
+        return DAGShortestPaths.shortestAndLongest(state.condensationGraph, state.sourceComponent,
+            state.topoOrder, true, null);
+    }
+
+    @Benchmark
+    public DAGShortestPaths.PathResult endToEnd(PipelineState state) {
+        SCCFinder sccFinder = new SCCFinder(state.data.getGraph());
+        CSRGraph condensationGraph = sccFinder.buildCondensation().getGraph();
+        int[] topo = TopoSort.order(condensationGraph);
+        int source = sccFinder.getComponentId(state.data.getSource());
+        DAGShortestPaths.shortestPath(condensationGraph, source, topo);
+        return DAGShortestPaths.longestPathWithParent(condensationGraph, source, topo, null);
+    }
+
+    @Benchmark
+    public DAGShortestPaths.PathResult endToEndFused(PipelineState state) {
+        // Component ids are topological, so neither a sort nor an order array is needed
+        SCCFinder sccFinder = new SCCFinder(state.data.getGraph());
+        CSRGraph condensationGraph = sccFinder.buildCondensation().getGraph();
+        int source = sccFinder.getComponentId(state.data.getSource());
+        DAGShortestPaths.shortestPathInIdOrder(condensationGraph, source, null);
+        return DAGShortestPaths.longestPathInIdOrder(condensationGraph, source, null);
+    }
+}
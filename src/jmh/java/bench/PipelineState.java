@@ -0,0 +1,43 @@
+package bench;
+
+import graph.csr.CSRGraph;
+import graph.dagsp.DistanceEngine;
+import graph.io.GraphData;
+import graph.scc.Condensation;
+import graph.scc.SCCFinder;
+import graph.topo.TopoSort;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+
+/**
+ * Pre-computed pipeline stages for one dataset, so each benchmark measures only its own stage.
+ */
+@State(Scope.Benchmark)
+public class PipelineState {
+
+    @Param({
+        "data/small1.json", "data/medium1.json", "data/large1.json",
+        "synthetic:1000", "synthetic:100000", "synthetic:1000000", "synthetic:10000000"
+    })
+    public String dataset;
+
+    GraphData data;
+    SCCFinder sccFinder;
+    Condensation condensation;
+    CSRGraph condensationGraph;
+    int[] topoOrder;
+    int sourceComponent;
+    boolean compactDistances;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        data = BenchmarkGraphs.load(dataset);
+        sccFinder = new SCCFinder(data.getGraph());
+        condensation = sccFinder.buildCondensation();
+        condensationGraph = condensation.getGraph();
+        topoOrder = TopoSort.order(condensationGraph);
+        sourceComponent = sccFinder.getComponentId(data.getSource());
+        compactDistances = DistanceEngine.fitsInt(condensationGraph);
+    }
+}
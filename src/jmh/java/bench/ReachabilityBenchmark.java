@@ -0,0 +1,120 @@
+package bench;
+
+import graph.csr.CSRGraph;
+import graph.io.GraphData;
+import graph.scc.SCCFinder;
+import graph.topo.ReachabilityIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks "can X reach Y" on condensation DAGs of up to about a million components:
+ * building the interval index, indexed queries on random pairs (mostly unreachable) and
+ * on reachable pairs, and an unindexed depth-first search on the same reachable pairs.
+ * Index size and build time are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+public class ReachabilityBenchmark {
+    private static final int PAIRS = 1024;
+
+    @Param({"synthetic:1000000", "synthetic:2000000"})
+    public String dataset;
+
+    private CSRGraph dag;
+    private int[] topoOrder;
+    private ReachabilityIndex index;
+    private final int[] randomFrom = new int[PAIRS];
+    private final int[] randomTo = new int[PAIRS];
+    private final int[] reachableFrom = new int[PAIRS];
+    private final int[] reachableTo = new int[PAIRS];
+    private int[] stamp;
+    private int[] stack;
+    private int generation;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        GraphData data = BenchmarkGraphs.load(dataset);
+        SCCFinder sccFinder = new SCCFinder(data.getGraph());
+        dag = sccFinder.buildCondensation().getGraph();
+        topoOrder = sccFinder.getTopologicalOrder();
+        index = ReachabilityIndex.build(dag, topoOrder);
+        System.out.printf("%n%d components, %d edges: %s index, %.1f ms, %d bytes (%.1f B/component)%n",
+            dag.vertexCount(), dag.edgeCount(), index.getStrategy(), index.getBuildTimeNs() / 1e6,
+            index.sizeInBytes(), (double) index.sizeInBytes() / dag.vertexCount());
+
+        SplittableRandom random = new SplittableRandom(1);
+        int n = dag.vertexCount();
+        for (int i = 0; i < PAIRS; i++) {
+            randomFrom[i] = random.nextInt(n);
+            randomTo[i] = random.nextInt(n);
+        }
+        // Reachable pairs: the end of a random walk of up to 32 steps
+        for (int i = 0; i < PAIRS; ) {
+            int from = random.nextInt(n);
+            int to = from;
+            for (int step = random.nextInt(32) + 1; step > 0 && dag.outDegree(to) > 0; step--) {
+                to = dag.target(dag.edgeStart(to) + random.nextInt(dag.outDegree(to)));
+            }
+            if (to != from) {
+                reachableFrom[i] = from;
+                reachableTo[i++] = to;
+            }
+        }
+        stamp = new int[n];
+        stack = new int[n];
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ReachabilityIndex build() {
+        return ReachabilityIndex.build(dag, topoOrder);
+    }
+
+    @Benchmark
+    public boolean queryRandomPairs() {
+        int i = next++ & (PAIRS - 1);
+        return index.reaches(randomFrom[i], randomTo[i]);
+    }
+
+    @Benchmark
+    public boolean queryReachablePairs() {
+        int i = next++ & (PAIRS - 1);
+        return index.reaches(reachableFrom[i], reachableTo[i]);
+    }
+
+    @Benchmark
+    public boolean searchReachablePairs() {
+        int i = next++ & (PAIRS - 1);
+        int to = reachableTo[i];
+        if (++generation == Integer.MAX_VALUE) {
+            Arrays.fill(stamp, 0);
+            generation = 1;
+        }
+        int top = 0;
+        stack[top++] = reachableFrom[i];
+        while (top > 0) {
+            int u = stack[--top];
+            for (int e = dag.edgeStart(u), end = dag.edgeEnd(u); e < end; e++) {
+                int v = dag.target(e);
+                if (v == to) {
+                    return true;
+                }
+                if (stamp[v] != generation) {
+                    stamp[v] = generation;
+                    stack[top++] = v;
+                }
+            }
+        }
+        return false;
+    }
+}
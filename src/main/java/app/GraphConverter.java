@@ -0,0 +1,72 @@
+package app;
+
+import graph.io.BinaryGraphFormat;
+import graph.io.GraphData;
+import graph.io.JsonGraphLoader;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Converts JSON datasets into the memory-mappable binary graph format.
+ * <p>
+ * Usage: {@code GraphConverter [input.json [output.sccg]]}. Without arguments every
+ * {@code data/*.json} file is converted next to its source.
+ */
+public class GraphConverter {
+
+    public static void main(String[] args) {
+        List<Path> inputs = new ArrayList<>();
+        Path explicitOutput = null;
+        if (args.length == 0) {
+            try (DirectoryStream<Path> dir = Files.newDirectoryStream(Path.of("data"), "*.json")) {
+                dir.forEach(inputs::add);
+            } catch (IOException e) {
+                System.err.println("Cannot list data directory: " + e.getMessage());
+                System.exit(1);
+            }
+            Collections.sort(inputs);
+        } else {
+            inputs.add(Path.of(args[0]));
+            if (args.length > 1) {
+                explicitOutput = Path.of(args[1]);
+            }
+        }
+
+        boolean failed = false;
+        for (Path input : inputs) {
+            Path output = explicitOutput != null ? explicitOutput : toBinaryPath(input);
+            try {
+                convert(input, output);
+            } catch (IOException e) {
+                System.err.println("Error converting " + input + ": " + e.getMessage());
+                failed = true;
+            }
+        }
+        if (failed) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Converts one JSON dataset to a binary graph file.
+     *
+     * @param input JSON dataset
+     * @param output binary graph file to create
+     * @throws IOException if reading or writing fails
+     */
+    public static void convert(Path input, Path output) throws IOException {
+        GraphData data = JsonGraphLoader.load(input.toString());
+        BinaryGraphFormat.write(data, output);
+        System.out.printf("%s -> %s (%d vertices, %d edges, %d bytes)%n",
+            input, output, data.getN(), data.getGraph().edgeCount(), Files.size(output));
+    }
+
+    private static Path toBinaryPath(Path input) {
+        String name = input.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        return input.resolveSibling(base + BinaryGraphFormat.EXTENSION);
+    }
+}
@@ -0,0 +1,98 @@
+package app;
+
+import graph.gen.GeneratorConfig;
+import graph.gen.SyntheticGraphGenerator;
+import graph.io.BinaryGraphFormat;
+import graph.io.GraphData;
+import graph.io.JsonGraphWriter;
+import org.apache.commons.cli.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Command line generator of seeded synthetic graphs for scale testing.
+ * Writes the JSON dataset format, or the binary format when the output ends in {@code .sccg}.
+ * <p>
+ * Example: {@code GraphGenerator -n 1000000 -m 4000000 --depth 50 -o data/synthetic-1m.sccg}
+ */
+public class GraphGenerator {
+
+    public static void main(String[] args) {
+        Options options = new Options();
+        options.addOption(Option.builder("n").longOpt("vertices").hasArg().argName("count")
+            .desc("number of vertices (default 1000)").build());
+        options.addOption(Option.builder("m").longOpt("edges").hasArg().argName("count")
+            .desc("target number of edges (default 4 per vertex)").build());
+        options.addOption(Option.builder("s").longOpt("seed").hasArg().argName("seed")
+            .desc("random seed (default 42)").build());
+        options.addOption(Option.builder("t").longOpt("topology").hasArg().argName("clustered|grid")
+            .desc("graph shape (default clustered)").build());
+        options.addOption(Option.builder().longOpt("scc-sizes").hasArg().argName("fixed|uniform|power_law")
+            .desc("SCC size distribution (default power_law)").build());
+        options.addOption(Option.builder().longOpt("max-scc").hasArg().argName("size")
+            .desc("largest SCC size (default 16)").build());
+        options.addOption(Option.builder().longOpt("depth").hasArg().argName("layers")
+            .desc("condensation DAG depth (default 10)").build());
+        options.addOption(Option.builder("w").longOpt("weights").hasArg().argName("uniform|power_law")
+            .desc("weight distribution (default uniform)").build());
+        options.addOption(Option.builder().longOpt("min-weight").hasArg().argName("w")
+            .desc("smallest weight (default 1)").build());
+        options.addOption(Option.builder().longOpt("max-weight").hasArg().argName("w")
+            .desc("largest weight (default 10)").build());
+        options.addOption(Option.builder().longOpt("one-way").hasArg().argName("fraction")
+            .desc("fraction of one-way grid streets (default 0.3)").build());
+        options.addOption(Option.builder().longOpt("no-shuffle")
+            .desc("keep generated vertex ids instead of permuting them").build());
+        options.addOption(Option.builder("o").longOpt("output").hasArg().argName("file").required()
+            .desc("output file (.json or " + BinaryGraphFormat.EXTENSION + ")").build());
+
+        try {
+            CommandLine cmd = new DefaultParser().parse(options, args);
+            GeneratorConfig config = toConfig(cmd);
+            Path output = Path.of(cmd.getOptionValue("o"));
+
+            long start = System.nanoTime();
+            GraphData data = SyntheticGraphGenerator.generate(config);
+            if (output.toString().endsWith(BinaryGraphFormat.EXTENSION)) {
+                BinaryGraphFormat.write(data, output);
+            } else {
+                JsonGraphWriter.write(data, output);
+            }
+            System.out.printf("Wrote %s: %d vertices, %d edges, source %d (%.1f ms)%n", output,
+                data.getN(), data.getGraph().edgeCount(), data.getSource(),
+                (System.nanoTime() - start) / 1_000_000.0);
+        } catch (ParseException | IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            new HelpFormatter().printHelp("GraphGenerator", options, true);
+            System.exit(2);
+        } catch (IOException e) {
+            System.err.println("Error writing graph: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static GeneratorConfig toConfig(CommandLine cmd) {
+        GeneratorConfig config = new GeneratorConfig();
+        int vertices = Integer.parseInt(cmd.getOptionValue("n", "1000"));
+        config.setVertices(vertices)
+            .setEdges(Integer.parseInt(cmd.getOptionValue("m", String.valueOf(4L * vertices > Integer.MAX_VALUE
+                ? Integer.MAX_VALUE : 4 * vertices))))
+            .setSeed(Long.parseLong(cmd.getOptionValue("s", "42")))
+            .setTopology(GeneratorConfig.Topology.valueOf(upper(cmd.getOptionValue("t", "clustered"))))
+            .setSccSizes(GeneratorConfig.SizeDistribution.valueOf(upper(cmd.getOptionValue("scc-sizes", "power_law"))))
+            .setMaxSccSize(Integer.parseInt(cmd.getOptionValue("max-scc", "16")))
+            .setDagDepth(Integer.parseInt(cmd.getOptionValue("depth", "10")))
+            .setWeights(GeneratorConfig.WeightDistribution.valueOf(upper(cmd.getOptionValue("w", "uniform"))))
+            .setWeightRange(Integer.parseInt(cmd.getOptionValue("min-weight", "1")),
+                Integer.parseInt(cmd.getOptionValue("max-weight", "10")))
+            .setOneWayFraction(Double.parseDouble(cmd.getOptionValue("one-way", "0.3")))
+            .setShuffleIds(!cmd.hasOption("no-shuffle"));
+        return config;
+    }
+
+    private static String upper(String value) {
+        return value.toUpperCase(Locale.ROOT);
+    }
+}
@@ -1,19 +1,32 @@
 package app;
 
-import com.google.gson.*;
+import graph.csr.CSRGraph;
+import graph.csr.ReachableSubgraph;
+import graph.io.GraphData;
+import graph.io.GraphLoader;
+import graph.scc.Condensation;
 import graph.scc.SCCFinder;
-import graph.topo.TopoSort;
-import graph.dagsp.DAGShortestPaths;
-import graph.dagsp.DAGShortestPaths.PathResult;
-import graph.metrics.Metrics;
-import graph.metrics.SimpleMetrics;
+import graph.dagsp.DistanceEngine;
+import graph.dagsp.PathDistances;
+import graph.dagsp.PathMode;
+import graph.metrics.ConcurrentMetrics;
+import graph.metrics.MetricsRegistry;
+import graph.metrics.PipelineTracer;
 
-import java.io.*;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
 
 /**
  * Main application for Smart City / Smart Campus Scheduling.
  * Processes graph datasets to find SCCs, topological order, and shortest/longest paths.
+ * <p>
+ * {@code --metrics-json <file>} and {@code --metrics-prometheus <file>} write the metrics
+ * of all processed datasets, per phase, when the run ends. {@code --trace <file>} writes
+ * every stage as a Chrome trace event, and {@code --quiet} replaces the per-vertex result
+ * dumps with a per-stage profile. {@code --prune} first cuts each graph down to the vertices
+ * reachable from its source, runs the pipeline on that subgraph and reports SCC members by
+ * their original ids.
  */
 public class Main {
     
@@ -22,240 +35,273 @@ public class Main {
         "medium1.json", "medium2.json", "medium3.json",
         "large1.json", "large2.json", "large3.json"
     };
+
+    private static final String USAGE = "Main [--metrics-json file] [--metrics-prometheus file] [--trace file]"
+        + " [--quiet] [--prune] [--single | dataset...]";
+
+    private static final MetricsRegistry METRICS = new MetricsRegistry();
+    private static final PipelineTracer TRACER = new PipelineTracer();
     
     public static void main(String[] args) {
+        String jsonOut = null;
+        String prometheusOut = null;
+        String traceOut = null;
+        boolean quiet = false;
+        boolean prune = false;
+        List<String> rest = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--metrics-json")) {
+                jsonOut = optionValue(args, i++);
+            } else if (args[i].equals("--metrics-prometheus")) {
+                prometheusOut = optionValue(args, i++);
+            } else if (args[i].equals("--trace")) {
+                traceOut = optionValue(args, i++);
+            } else if (args[i].equals("--quiet")) {
+                quiet = true;
+            } else if (args[i].equals("--prune")) {
+                prune = true;
+            } else {
+                rest.add(args[i]);
+            }
+        }
+        args = rest.toArray(new String[0]);
+
         if (args.length > 0 && args[0].equals("--single")) {
             // Process single dataset (tasks.json for backward compatibility)
-            processDataset("data/tasks.json");
+            processDataset("data/tasks.json", quiet, prune);
+        } else if (args.length > 0) {
+            // Process the given dataset files (.json or binary .sccg)
+            for (String dataset : args) {
+                processDataset(dataset, quiet, prune);
+                System.out.println("\n" + "=".repeat(80) + "\n");
+            }
         } else {
             // Process all 9 datasets
             System.out.println("=== Processing all datasets ===\n");
             for (String dataset : DATASETS) {
-                processDataset("data/" + dataset);
+                processDataset("data/" + dataset, quiet, prune);
                 System.out.println("\n" + "=".repeat(80) + "\n");
             }
         }
+
+        try {
+            if (jsonOut != null) {
+                METRICS.writeJson(Path.of(jsonOut));
+            }
+            if (prometheusOut != null) {
+                METRICS.writePrometheus(Path.of(prometheusOut));
+            }
+            if (traceOut != null) {
+                TRACER.writeChromeTrace(Path.of(traceOut));
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing metrics: " + e.getMessage());
+        }
     }
     
+    /**
+     * Returns the value following the option at {@code args[i]}, or exits with a usage
+     * error if it is missing, so the option is never mistaken for a dataset file.
+     */
+    private static String optionValue(String[] args, int i) {
+        if (i + 1 >= args.length || args[i + 1].startsWith("--")) {
+            System.err.println("Missing file name after " + args[i]);
+            System.err.println("usage: " + USAGE);
+            System.exit(2);
+        }
+        return args[i + 1];
+    }
+
     /**
      * Processes a single dataset file.
      * 
-     * @param filename path to JSON dataset file
+     * @param filename path to JSON or binary dataset file
+     * @param quiet skip printing per-vertex results (SCC lists, orders, distance arrays)
+     * @param prune run the pipeline only on the subgraph reachable from the source
      */
-    private static void processDataset(String filename) {
+    private static void processDataset(String filename, boolean quiet, boolean prune) {
+        PipelineTracer.Span datasetSpan = TRACER.start("dataset", filename);
         try {
             System.out.println("Processing: " + filename);
             
-            // Load graph from JSON
-            GraphData graphData = loadGraphFromJson(filename);
+            // Load graph from JSON, or map it if it is a binary graph file
+            PipelineTracer.Span loadSpan = TRACER.start("load", filename);
+            GraphData graphData = GraphLoader.load(filename);
+            loadSpan.end();
+            System.out.printf("Loaded %d edges in %.3f ms (%.0f edges/sec)%n",
+                graphData.getGraph().edgeCount(), graphData.getLoadTimeNs() / 1_000_000.0,
+                graphData.getEdgesPerSecond());
+            
+            // Optionally drop everything the source cannot reach; ids become local to the subgraph
+            CSRGraph graph = graphData.getGraph();
+            int originalSource = graphData.getSource();
+            ReachableSubgraph pruned = null;
+            PipelineTracer.Span pruneSpan = null;
+            if (prune) {
+                pruneSpan = TRACER.start("prune", filename);
+                pruned = ReachableSubgraph.of(graph, originalSource);
+                pruneSpan.end();
+                graph = pruned.getGraph();
+                System.out.printf("Pruned to %d of %d vertices (%d edges) reachable from source in %.3f ms%n",
+                    pruned.vertexCount(), pruned.getOriginalVertexCount(), graph.edgeCount(),
+                    pruneSpan.getWallNs() / 1_000_000.0);
+            }
+            int source = pruned == null ? originalSource : pruned.toLocal(originalSource);
             
             // Step 1: Find SCCs with metrics
-            Metrics sccMetrics = new SimpleMetrics();
-            SCCFinder sccFinder = new SCCFinder(graphData.graph, sccMetrics);
-            List<List<Integer>> sccs = sccFinder.getSCCs();
-            int[] componentSizes = sccFinder.getComponentSizes();
+            ConcurrentMetrics sccMetrics = new ConcurrentMetrics("scc");
+            PipelineTracer.Span sccSpan = TRACER.start("scc", filename);
+            SCCFinder sccFinder = new SCCFinder(graph, sccMetrics);
+            sccSpan.end();
             
             System.out.println("\n--- SCC Analysis ---");
-            System.out.println("Number of SCCs: " + sccs.size());
-            System.out.println("Component sizes: " + Arrays.toString(componentSizes));
-            System.out.println("SCCs: " + sccs);
+            System.out.println("Number of SCCs: " + sccFinder.getComponentCount());
+            if (!quiet) {
+                System.out.println("Component sizes: " + Arrays.toString(sccFinder.getComponentSizes()));
+                System.out.println("SCCs: " + (pruned == null ? sccFinder.getSCCs()
+                    : toOriginalIds(sccFinder.getSCCs(), pruned)));
+            }
             sccMetrics.printMetrics();
+            METRICS.phase("scc").add(sccMetrics);
             
-            // Step 2: Build condensation graph
-            long condStart = System.nanoTime();
-            List<List<Integer>> condensationGraph = sccFinder.buildCondensationGraph();
-            long condTime = System.nanoTime() - condStart;
+            // Step 2: Build weighted condensation graph (min weight between components)
+            PipelineTracer.Span condensationSpan = TRACER.start("condensation", filename);
+            Condensation condensation = sccFinder.buildCondensation();
+            CSRGraph condensationGraph = condensation.getGraph();
+            condensationSpan.end();
             
             System.out.println("\n--- Condensation Graph ---");
-            System.out.println("Number of components (nodes in condensation): " + condensationGraph.size());
-            System.out.println("Condensation graph edges: " + countEdges(condensationGraph));
-            System.out.println("Condensation build time: " + condTime / 1_000_000.0 + " ms");
+            System.out.println("Number of components (nodes in condensation): " + condensation.getComponentCount());
+            System.out.println("Condensation graph edges: " + condensation.getEdgeCount());
+            System.out.println("Condensation build time: " + condensationSpan.getWallNs() / 1_000_000.0 + " ms");
             
-            // Step 3: Topological sort of condensation graph with metrics
-            Metrics topoMetrics = new SimpleMetrics();
-            List<Integer> topoOrder = TopoSort.sort(condensationGraph, topoMetrics);
+            // Step 3: Topological order of the condensation, read off the SCC numbering
+            PipelineTracer.Span topoSpan = TRACER.start("topo", filename);
+            int[] topoOrder = sccFinder.getTopologicalOrder();
+            topoSpan.end();
             
             System.out.println("\n--- Topological Sort (Condensation) ---");
-            System.out.println("Topological order: " + topoOrder);
-            topoMetrics.printMetrics();
+            if (!quiet) {
+                System.out.println("Topological order: " + Arrays.toString(topoOrder));
+            }
+            System.out.println(sccFinder.isTopologicallyNumbered()
+                ? "Order taken from SCC numbering (no separate sort)"
+                : "Order computed by Kahn's algorithm");
             
             // Map original source vertex to its component
-            int originalSource = graphData.source;
-            int sourceComponent = sccFinder.getComponentId(originalSource);
+            int sourceComponent = sccFinder.getComponentId(source);
             System.out.println("Source vertex: " + originalSource + " -> Component: " + sourceComponent);
             
-            // Step 4: Build weighted condensation graph for shortest/longest paths
-            List<List<int[]>> weightedCondensation = buildWeightedCondensation(
-                graphData.weightedGraph, sccFinder, condensationGraph
-            );
-            
-            // Step 5: Shortest paths in condensation DAG with metrics
-            Metrics shortestMetrics = new SimpleMetrics();
-            int[] shortestDist = DAGShortestPaths.shortestPath(
-                weightedCondensation, sourceComponent, topoOrder, shortestMetrics
+            // Step 4: Shortest paths in condensation DAG with metrics
+            ConcurrentMetrics shortestMetrics = new ConcurrentMetrics("shortest");
+            PipelineTracer.Span shortestSpan = TRACER.start("shortest", filename);
+            // One weight scan decides the distance width for both passes
+            boolean compact = DistanceEngine.fitsInt(condensationGraph);
+            PathDistances shortest = DistanceEngine.compute(
+                condensationGraph, sourceComponent, topoOrder, PathMode.SHORTEST, compact, shortestMetrics
             );
+            shortestSpan.end();
             
             System.out.println("\n--- Shortest Paths (Condensation DAG) ---");
-            System.out.println("Shortest distances from component " + sourceComponent + ": " 
-                + Arrays.toString(shortestDist));
+            if (!quiet) {
+                System.out.println("Shortest distances from component " + sourceComponent + ": " 
+                    + formatDistances(shortest));
+            }
             shortestMetrics.printMetrics();
+            METRICS.phase("shortest").add(shortestMetrics);
             
-            // Step 6: Longest paths (critical path) in condensation DAG with metrics
-            Metrics longestMetrics = new SimpleMetrics();
-            PathResult longestResult = DAGShortestPaths.longestPathWithParent(
-                weightedCondensation, sourceComponent, topoOrder, longestMetrics
+            // Step 5: Longest paths (critical path) in condensation DAG with metrics
+            ConcurrentMetrics longestMetrics = new ConcurrentMetrics("longest");
+            PipelineTracer.Span longestSpan = TRACER.start("longest", filename);
+            PathDistances longest = DistanceEngine.compute(
+                condensationGraph, sourceComponent, topoOrder, PathMode.LONGEST, compact, longestMetrics
             );
             
-            int[] longestDist = longestResult.getDistances();
-            int criticalPathLength = DAGShortestPaths.findCriticalPathLength(longestDist);
+            // Find target component with maximum distance
+            int targetComponent = longest.farthestVertex();
+            List<Integer> criticalPath = longest.pathTo(targetComponent);
+            longestSpan.end();
             
             System.out.println("\n--- Longest Paths (Critical Path) ---");
-            System.out.println("Longest distances from component " + sourceComponent + ": " 
-                + Arrays.toString(longestDist));
-            System.out.println("Critical path length: " + criticalPathLength);
-            
-            // Find target component with maximum distance
-            int targetComponent = -1;
-            for (int i = 0; i < longestDist.length; i++) {
-                if (longestDist[i] == criticalPathLength) {
-                    targetComponent = i;
-                    break;
-                }
+            if (!quiet) {
+                System.out.println("Longest distances from component " + sourceComponent + ": " 
+                    + formatDistances(longest));
             }
-            
-            if (targetComponent != -1 && criticalPathLength > Integer.MIN_VALUE + 1000000) {
-                List<Integer> criticalPath = DAGShortestPaths.reconstructPath(
-                    longestResult.getParents(), targetComponent
-                );
+            System.out.println("Critical path length: " + longest.get(targetComponent));
+            if (quiet) {
+                System.out.println("Critical path components: " + criticalPath.size());
+            } else {
                 System.out.println("Critical path (components): " + criticalPath);
             }
             
             longestMetrics.printMetrics();
+            METRICS.phase("longest").add(longestMetrics);
             
             // Summary metrics
             System.out.println("\n--- Summary Metrics ---");
-            System.out.println("Total vertices: " + graphData.n);
-            System.out.println("Total edges: " + graphData.weightedGraph.stream()
-                .mapToInt(List::size).sum());
-            System.out.println("Weight model: " + graphData.weightModel);
+            System.out.println("Total vertices: " + graphData.getN());
+            if (pruned != null) {
+                System.out.println("Reachable vertices: " + pruned.vertexCount());
+            }
+            System.out.println("Total edges: " + graphData.getGraph().edgeCount());
+            System.out.println("Weight model: " + graphData.getWeightModel());
+
+            if (quiet) {
+                List<PipelineTracer.Span> stages = new ArrayList<>(List.of(loadSpan));
+                if (pruneSpan != null) {
+                    stages.add(pruneSpan);
+                }
+                stages.addAll(List.of(sccSpan, condensationSpan, topoSpan, shortestSpan, longestSpan));
+                printStageProfile(stages);
+            }
             
         } catch (Exception e) {
             System.err.println("Error processing " + filename + ": " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            // A failed stage leaves its span open inside the dataset span
+            TRACER.unwind(datasetSpan);
         }
     }
-    
+
     /**
-     * Loads graph data from JSON file.
-     * 
-     * @param filename JSON file path
-     * @return GraphData object containing graph structures
-     * @throws IOException if file cannot be read
+     * Prints one line per stage with the tracer's wall, CPU, allocation and heap figures.
      */
-    private static GraphData loadGraphFromJson(String filename) throws IOException {
-        JsonObject obj = JsonParser.parseReader(new FileReader(filename)).getAsJsonObject();
-        int n = obj.get("n").getAsInt();
-        JsonArray edges = obj.getAsJsonArray("edges");
-        int source = obj.get("source").getAsInt();
-        String weightModel = obj.has("weight_model") 
-            ? obj.get("weight_model").getAsString() 
-            : "edge";
-
-        List<List<Integer>> graph = new ArrayList<>();
-        List<List<int[]>> weighted = new ArrayList<>();
-        for (int i = 0; i < n; i++) {
-            graph.add(new ArrayList<>());
-            weighted.add(new ArrayList<>());
+    private static void printStageProfile(List<PipelineTracer.Span> spans) {
+        System.out.println("\n--- Stage Profile ---");
+        for (PipelineTracer.Span span : spans) {
+            System.out.printf("%-13s wall %10.3f ms  cpu %10.3f ms  alloc %12d B  peak heap %12d B%n",
+                span.getName(), span.getWallNs() / 1_000_000.0, span.getCpuNs() / 1_000_000.0,
+                span.getAllocatedBytes(), span.getPeakHeapBytes());
         }
-
-        for (JsonElement e : edges) {
-            JsonObject ed = e.getAsJsonObject();
-            int u = ed.get("u").getAsInt();
-            int v = ed.get("v").getAsInt();
-            int w = ed.get("w").getAsInt();
-            graph.get(u).add(v);
-            weighted.get(u).add(new int[]{v, w});
-        }
-
-        return new GraphData(n, graph, weighted, source, weightModel);
     }
     
     /**
-     * Builds weighted condensation graph from original weighted graph.
-     * Aggregates edge weights between components.
-     * 
-     * @param originalWeighted original weighted adjacency list
-     * @param sccFinder SCC finder with component mappings
-     * @param condensationGraph condensation graph structure
-     * @return weighted condensation graph
+     * Maps SCC member lists from subgraph ids back to the original vertex ids.
      */
-    private static List<List<int[]>> buildWeightedCondensation(
-            List<List<int[]>> originalWeighted,
-            SCCFinder sccFinder,
-            List<List<Integer>> condensationGraph) {
-        
-        int numComponents = condensationGraph.size();
-        List<List<int[]>> weightedCondensation = new ArrayList<>();
-        Map<String, Integer> minWeight = new HashMap<>(); // Track minimum weight between components
-        
-        for (int i = 0; i < numComponents; i++) {
-            weightedCondensation.add(new ArrayList<>());
-        }
-        
-        // Build edges between components with minimum weight
-        for (int u = 0; u < originalWeighted.size(); u++) {
-            int compU = sccFinder.getComponentId(u);
-            for (int[] edge : originalWeighted.get(u)) {
-                int v = edge[0];
-                int w = edge[1];
-                int compV = sccFinder.getComponentId(v);
-                
-                if (compU != compV) {
-                    String key = compU + "," + compV;
-                    minWeight.put(key, Math.min(minWeight.getOrDefault(key, Integer.MAX_VALUE), w));
-                }
+    private static List<List<Integer>> toOriginalIds(List<List<Integer>> sccs, ReachableSubgraph pruned) {
+        List<List<Integer>> result = new ArrayList<>(sccs.size());
+        for (List<Integer> scc : sccs) {
+            List<Integer> members = new ArrayList<>(scc.size());
+            for (int v : scc) {
+                members.add(pruned.toOriginal(v));
             }
+            result.add(members);
         }
-        
-        // Build adjacency list from min weights
-        for (Map.Entry<String, Integer> entry : minWeight.entrySet()) {
-            String[] parts = entry.getKey().split(",");
-            int compU = Integer.parseInt(parts[0]);
-            int compV = Integer.parseInt(parts[1]);
-            int weight = entry.getValue();
-            weightedCondensation.get(compU).add(new int[]{compV, weight});
-        }
-        
-        return weightedCondensation;
+        return result;
     }
     
     /**
-     * Counts total number of edges in a graph.
-     * 
-     * @param graph adjacency list
-     * @return total edge count
-     */
-    private static int countEdges(List<List<Integer>> graph) {
-        return graph.stream().mapToInt(List::size).sum();
-    }
-    
-    /**
-     * Container class for graph data.
+     * Formats distances like {@link Arrays#toString(long[])}, printing unreachable vertices as INF.
      */
-    private static class GraphData {
-        final int n;
-        final List<List<Integer>> graph;
-        final List<List<int[]>> weightedGraph;
-        final int source;
-        final String weightModel;
-        
-        GraphData(int n, List<List<Integer>> graph, List<List<int[]>> weightedGraph, 
-                  int source, String weightModel) {
-            this.n = n;
-            this.graph = graph;
-            this.weightedGraph = weightedGraph;
-            this.source = source;
-            this.weightModel = weightModel;
+    private static String formatDistances(PathDistances distances) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int v = 0; v < distances.size(); v++) {
+            if (v > 0) {
+                sb.append(", ");
+            }
+            sb.append(distances.isReachable(v) ? String.valueOf(distances.get(v)) : "INF");
         }
+        return sb.append(']').toString();
     }
 }
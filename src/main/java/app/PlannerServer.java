@@ -0,0 +1,75 @@
+package app;
+
+import graph.service.GraphCache;
+import graph.service.PlannerGraph;
+import graph.service.PlannerHttpServer;
+import org.apache.commons.cli.*;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Long-running planner: loads datasets once, keeps their SCCs, condensation and
+ * topological order in memory, and answers path queries over HTTP until stopped.
+ * See {@link PlannerHttpServer} for the endpoints.
+ * <p>
+ * Graphs can only be loaded at runtime from the directory given with {@code --data-dir};
+ * without it the server only serves the datasets loaded at startup.
+ * <p>
+ * Example: {@code PlannerServer -p 8080 -d data data/large1.json data/large2.json}
+ */
+public class PlannerServer {
+
+    private static final String[] DATASETS = {
+        "small1.json", "small2.json", "small3.json",
+        "medium1.json", "medium2.json", "medium3.json",
+        "large1.json", "large2.json", "large3.json"
+    };
+
+    public static void main(String[] args) {
+        Options options = new Options();
+        options.addOption(Option.builder("p").longOpt("port").hasArg().argName("port")
+            .desc("port to listen on (default 8080, 0 for any free port)").build());
+        options.addOption(Option.builder("b").longOpt("bind").hasArg().argName("address")
+            .desc("address to bind (default 127.0.0.1)").build());
+        options.addOption(Option.builder("d").longOpt("data-dir").hasArg().argName("dir")
+            .desc("directory POST /graphs may load from (default: runtime loading disabled)").build());
+
+        try {
+            CommandLine cmd = new DefaultParser().parse(options, args);
+            int port = Integer.parseInt(cmd.getOptionValue("p", "8080"));
+            String bind = cmd.getOptionValue("b", "127.0.0.1");
+            Path dataDir = cmd.hasOption("d") ? Path.of(cmd.getOptionValue("d")) : null;
+
+            GraphCache cache = new GraphCache();
+            List<String> files = cmd.getArgList();
+            if (files.isEmpty()) {
+                files = new ArrayList<>();
+                for (String dataset : DATASETS) {
+                    files.add("data/" + dataset);
+                }
+            }
+            for (String file : files) {
+                PlannerGraph graph = cache.load(file);
+                System.out.printf("Loaded %s: %d vertices, %d components (%.1f ms)%n", graph.getName(),
+                    graph.getData().getN(), graph.getCondensation().getComponentCount(),
+                    graph.getPrepareTimeNs() / 1_000_000.0);
+            }
+
+            PlannerHttpServer server = new PlannerHttpServer(cache, new InetSocketAddress(bind, port), dataDir);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(1)));
+            server.start();
+            System.out.println("Planner listening on http://" + bind + ":" + server.getAddress().getPort());
+        } catch (ParseException | IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            new HelpFormatter().printHelp("PlannerServer [options] [dataset...]", options, true);
+            System.exit(2);
+        } catch (IOException e) {
+            System.err.println("Error starting planner: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
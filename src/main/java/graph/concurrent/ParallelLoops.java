@@ -0,0 +1,62 @@
+package graph.concurrent;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Index-range loops shared by the parallel graph algorithms.
+ */
+public final class ParallelLoops {
+
+    /** Loops shorter than this run on the calling thread. */
+    public static final int SEQUENTIAL_THRESHOLD = 2048;
+
+    private ParallelLoops() {
+    }
+
+    /**
+     * Picks the pool parallel work should run in: the caller's pool when invoked
+     * from a ForkJoin task, otherwise the common pool.
+     *
+     * @return pool for parallel loops
+     */
+    public static ForkJoinPool currentPool() {
+        return ForkJoinTask.inForkJoinPool() ? ForkJoinTask.getPool() : ForkJoinPool.commonPool();
+    }
+
+    /**
+     * Runs {@code body} for every index in [0, count), splitting the range across
+     * {@code pool} unless it is short. Returns after all iterations complete, so
+     * their writes are visible to the caller.
+     *
+     * @param pool pool to run in
+     * @param count number of iterations
+     * @param body loop body, called with each index
+     */
+    public static void parallelFor(ForkJoinPool pool, int count, IntConsumer body) {
+        parallelFor(pool, count, SEQUENTIAL_THRESHOLD, body);
+    }
+
+    /**
+     * Runs {@code body} for every index in [0, count) with a custom cut-off, for loops
+     * whose iterations are coarse tasks rather than single vertices.
+     *
+     * @param pool pool to run in
+     * @param count number of iterations
+     * @param sequentialThreshold loops shorter than this run on the calling thread
+     * @param body loop body, called with each index
+     */
+    public static void parallelFor(ForkJoinPool pool, int count, int sequentialThreshold, IntConsumer body) {
+        if (count < sequentialThreshold) {
+            for (int i = 0; i < count; i++) {
+                body.accept(i);
+            }
+        } else if (ForkJoinTask.inForkJoinPool() && ForkJoinTask.getPool() == pool) {
+            IntStream.range(0, count).parallel().forEach(body);
+        } else {
+            pool.submit(() -> IntStream.range(0, count).parallel().forEach(body)).join();
+        }
+    }
+}
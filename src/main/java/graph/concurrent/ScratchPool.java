@@ -0,0 +1,79 @@
+package graph.concurrent;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * Small lock-free pool of per-query scratch objects, for query structures that are shared
+ * between request threads.
+ * <p>
+ * {@code ThreadLocal} scratch does not fit a server that runs each request on a new
+ * virtual thread: every request would allocate its own. A lock around one shared scratch
+ * serializes the queries and pins the carrier thread of a blocked virtual thread. Instead,
+ * {@link #acquire()} takes any idle object from a fixed set of slots, or creates a new one
+ * if all are busy, and {@link #release(Object)} puts it back if a slot is free, so at most
+ * {@link #getCapacity()} idle objects are retained.
+ *
+ * @param <T> scratch type
+ */
+public final class ScratchPool<T> {
+    private final AtomicReferenceArray<T> slots;
+    private final Supplier<T> factory;
+
+    /**
+     * Creates a pool retaining up to one idle object per available processor.
+     *
+     * @param factory creates scratch when no idle one is available
+     */
+    public ScratchPool(Supplier<T> factory) {
+        this(Runtime.getRuntime().availableProcessors(), factory);
+    }
+
+    /**
+     * Creates a pool retaining up to {@code capacity} idle objects.
+     *
+     * @param capacity maximum number of idle objects kept
+     * @param factory creates scratch when no idle one is available
+     */
+    public ScratchPool(int capacity, Supplier<T> factory) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.factory = factory;
+    }
+
+    /**
+     * Takes an idle object, or creates one if none is idle.
+     *
+     * @return scratch owned by the caller until {@link #release(Object)}
+     */
+    public T acquire() {
+        for (int i = 0, n = slots.length(); i < n; i++) {
+            if (slots.get(i) != null) {
+                T scratch = slots.getAndSet(i, null);
+                if (scratch != null) {
+                    return scratch;
+                }
+            }
+        }
+        return factory.get();
+    }
+
+    /**
+     * Returns an object to the pool; it is dropped if every slot is taken.
+     *
+     * @param scratch object obtained from {@link #acquire()}
+     */
+    public void release(T scratch) {
+        for (int i = 0, n = slots.length(); i < n; i++) {
+            if (slots.get(i) == null && slots.compareAndSet(i, null, scratch)) {
+                return;
+            }
+        }
+    }
+
+    public int getCapacity() {
+        return slots.length();
+    }
+}
@@ -0,0 +1,221 @@
+package graph.csr;
+
+import java.util.*;
+
+/**
+ * Heap-backed CSR graph stored in three primitive int arrays.
+ * Builders convert from the adjacency list forms used by the rest of the project.
+ */
+public final class ArrayCSRGraph implements CSRGraph {
+    private final int n;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+
+    /**
+     * Wraps existing CSR arrays without copying.
+     *
+     * @param offsets edge offsets, length n + 1, non-decreasing
+     * @param targets edge targets, length offsets[n]
+     * @param weights edge weights parallel to targets, or null for an unweighted graph
+     */
+    public ArrayCSRGraph(int[] offsets, int[] targets, int[] weights) {
+        if (offsets.length == 0 || offsets[offsets.length - 1] != targets.length) {
+            throw new IllegalArgumentException("offsets must have n + 1 entries ending at targets.length");
+        }
+        if (weights != null && weights.length != targets.length) {
+            throw new IllegalArgumentException("weights must be parallel to targets");
+        }
+        this.n = offsets.length - 1;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Builds an unweighted CSR graph from an adjacency list.
+     *
+     * @param graph adjacency list representation of the directed graph
+     * @return CSR graph with the same edges in the same order
+     */
+    public static ArrayCSRGraph fromAdjacencyList(List<List<Integer>> graph) {
+        int n = graph.size();
+        int[] offsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] = offsets[u] + graph.get(u).size();
+        }
+        int[] targets = new int[offsets[n]];
+        for (int u = 0; u < n; u++) {
+            int pos = offsets[u];
+            for (int v : graph.get(u)) {
+                targets[pos++] = v;
+            }
+        }
+        return new ArrayCSRGraph(offsets, targets, null);
+    }
+
+    /**
+     * Builds a weighted CSR graph from a weighted adjacency list.
+     *
+     * @param graph weighted adjacency list (each edge is [destination, weight])
+     * @return CSR graph with the same edges in the same order
+     */
+    public static ArrayCSRGraph fromWeightedAdjacencyList(List<List<int[]>> graph) {
+        int n = graph.size();
+        int[] offsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] = offsets[u] + graph.get(u).size();
+        }
+        int[] targets = new int[offsets[n]];
+        int[] weights = new int[offsets[n]];
+        for (int u = 0; u < n; u++) {
+            int pos = offsets[u];
+            for (int[] edge : graph.get(u)) {
+                targets[pos] = edge[0];
+                weights[pos] = edge[1];
+                pos++;
+            }
+        }
+        return new ArrayCSRGraph(offsets, targets, weights);
+    }
+
+    /**
+     * Builds a CSR graph from parallel edge arrays with a stable counting sort,
+     * so edges of each vertex keep their input order.
+     *
+     * @param n number of vertices
+     * @param sources edge source vertices
+     * @param destinations edge destination vertices
+     * @param edgeWeights edge weights, or null for an unweighted graph
+     * @param m number of edges to take from the arrays
+     * @return CSR graph containing the first {@code m} edges
+     */
+    public static ArrayCSRGraph fromEdges(int n, int[] sources, int[] destinations, int[] edgeWeights, int m) {
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < m; i++) {
+            int u = sources[i];
+            int v = destinations[i];
+            if (u < 0 || u >= n || v < 0 || v >= n) {
+                throw new IllegalArgumentException("Edge " + u + "->" + v + " out of range for n=" + n);
+            }
+            offsets[u + 1]++;
+        }
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] += offsets[u];
+        }
+
+        int[] next = Arrays.copyOf(offsets, n);
+        int[] targets = new int[m];
+        int[] weights = edgeWeights == null ? null : new int[m];
+        for (int i = 0; i < m; i++) {
+            int pos = next[sources[i]]++;
+            targets[pos] = destinations[i];
+            if (weights != null) {
+                weights[pos] = edgeWeights[i];
+            }
+        }
+        return new ArrayCSRGraph(offsets, targets, weights);
+    }
+
+    /**
+     * Builds the transpose (every edge reversed) of a graph, keeping weights.
+     * Reversed edges of each vertex are ordered by their original source.
+     *
+     * @param graph graph to reverse
+     * @return reversed CSR graph
+     */
+    public static ArrayCSRGraph transpose(CSRGraph graph) {
+        int n = graph.vertexCount();
+        int m = graph.edgeCount();
+        int[] offsets = new int[n + 1];
+        for (int e = 0; e < m; e++) {
+            offsets[graph.target(e) + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+
+        int[] next = Arrays.copyOf(offsets, n);
+        int[] targets = new int[m];
+        int[] weights = graph.isWeighted() ? new int[m] : null;
+        for (int u = 0; u < n; u++) {
+            for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+                int pos = next[graph.target(e)]++;
+                targets[pos] = u;
+                if (weights != null) {
+                    weights[pos] = graph.weight(e);
+                }
+            }
+        }
+        return new ArrayCSRGraph(offsets, targets, weights);
+    }
+
+    @Override
+    public int vertexCount() {
+        return n;
+    }
+
+    @Override
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    @Override
+    public int edgeStart(int u) {
+        return offsets[u];
+    }
+
+    @Override
+    public int edgeEnd(int u) {
+        return offsets[u + 1];
+    }
+
+    @Override
+    public int target(int edge) {
+        return targets[edge];
+    }
+
+    @Override
+    public int weight(int edge) {
+        return weights == null ? 1 : weights[edge];
+    }
+
+    @Override
+    public boolean isWeighted() {
+        return weights != null;
+    }
+
+    /**
+     * Converts back to an unweighted adjacency list.
+     *
+     * @return adjacency list with the same edges in the same order
+     */
+    public List<List<Integer>> toAdjacencyList() {
+        List<List<Integer>> graph = new ArrayList<>(n);
+        for (int u = 0; u < n; u++) {
+            List<Integer> out = new ArrayList<>(offsets[u + 1] - offsets[u]);
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                out.add(targets[e]);
+            }
+            graph.add(out);
+        }
+        return graph;
+    }
+
+    /**
+     * Converts back to a weighted adjacency list.
+     *
+     * @return weighted adjacency list (each edge is [destination, weight])
+     */
+    public List<List<int[]>> toWeightedAdjacencyList() {
+        List<List<int[]>> graph = new ArrayList<>(n);
+        for (int u = 0; u < n; u++) {
+            List<int[]> out = new ArrayList<>(offsets[u + 1] - offsets[u]);
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                out.add(new int[]{targets[e], weight(e)});
+            }
+            graph.add(out);
+        }
+        return graph;
+    }
+}
@@ -0,0 +1,72 @@
+package graph.csr;
+
+/**
+ * Directed graph in compressed sparse row (CSR) form.
+ * The outgoing edges of vertex {@code u} occupy the contiguous edge index range
+ * {@code [edgeStart(u), edgeEnd(u))}; each edge index maps to a target vertex and,
+ * for weighted graphs, a weight.
+ */
+public interface CSRGraph {
+    /**
+     * Gets the number of vertices.
+     *
+     * @return vertex count
+     */
+    int vertexCount();
+
+    /**
+     * Gets the number of edges.
+     *
+     * @return edge count
+     */
+    int edgeCount();
+
+    /**
+     * Gets the index of the first outgoing edge of a vertex.
+     *
+     * @param u the vertex
+     * @return first edge index of {@code u}
+     */
+    int edgeStart(int u);
+
+    /**
+     * Gets the index one past the last outgoing edge of a vertex.
+     *
+     * @param u the vertex
+     * @return end (exclusive) edge index of {@code u}
+     */
+    int edgeEnd(int u);
+
+    /**
+     * Gets the destination vertex of an edge.
+     *
+     * @param edge edge index
+     * @return target vertex
+     */
+    int target(int edge);
+
+    /**
+     * Gets the weight of an edge. Unweighted graphs report unit weights.
+     *
+     * @param edge edge index
+     * @return edge weight
+     */
+    int weight(int edge);
+
+    /**
+     * Checks whether the graph carries edge weights.
+     *
+     * @return true if weights are stored
+     */
+    boolean isWeighted();
+
+    /**
+     * Gets the out-degree of a vertex.
+     *
+     * @param u the vertex
+     * @return number of outgoing edges
+     */
+    default int outDegree(int u) {
+        return edgeEnd(u) - edgeStart(u);
+    }
+}
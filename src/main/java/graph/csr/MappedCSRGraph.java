@@ -0,0 +1,72 @@
+package graph.csr;
+
+import java.nio.IntBuffer;
+
+/**
+ * CSR graph whose arrays live in {@link IntBuffer}s, typically views over a
+ * memory-mapped file. Reads go straight to the buffers, so the graph is used
+ * without copying it onto the Java heap.
+ */
+public final class MappedCSRGraph implements CSRGraph {
+    private final int n;
+    private final int m;
+    private final IntBuffer offsets;
+    private final IntBuffer targets;
+    private final IntBuffer weights;
+
+    /**
+     * Wraps CSR buffers without copying.
+     *
+     * @param offsets edge offsets, n + 1 entries
+     * @param targets edge targets, one entry per edge
+     * @param weights edge weights parallel to targets, or null for an unweighted graph
+     */
+    public MappedCSRGraph(IntBuffer offsets, IntBuffer targets, IntBuffer weights) {
+        if (offsets.limit() == 0 || offsets.get(offsets.limit() - 1) != targets.limit()) {
+            throw new IllegalArgumentException("offsets must have n + 1 entries ending at the edge count");
+        }
+        if (weights != null && weights.limit() != targets.limit()) {
+            throw new IllegalArgumentException("weights must be parallel to targets");
+        }
+        this.n = offsets.limit() - 1;
+        this.m = targets.limit();
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    @Override
+    public int vertexCount() {
+        return n;
+    }
+
+    @Override
+    public int edgeCount() {
+        return m;
+    }
+
+    @Override
+    public int edgeStart(int u) {
+        return offsets.get(u);
+    }
+
+    @Override
+    public int edgeEnd(int u) {
+        return offsets.get(u + 1);
+    }
+
+    @Override
+    public int target(int edge) {
+        return targets.get(edge);
+    }
+
+    @Override
+    public int weight(int edge) {
+        return weights == null ? 1 : weights.get(edge);
+    }
+
+    @Override
+    public boolean isWeighted() {
+        return weights != null;
+    }
+}
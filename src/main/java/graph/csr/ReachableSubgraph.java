@@ -0,0 +1,171 @@
+package graph.csr;
+
+import java.util.Arrays;
+
+/**
+ * The part of a graph reachable from one source vertex, as a compact CSR graph of its own.
+ * <p>
+ * Reachability is a forward breadth-first sweep that marks visited vertices in a bitset
+ * ({@code n / 64} longs). Reachable vertices keep their relative order: local id {@code i}
+ * is the {@code i}-th set bit, so the source is not necessarily local id 0. Since every
+ * out-edge of a reachable vertex leads to a reachable vertex, the subgraph keeps all of
+ * their edges, in the same order and with the same weights.
+ * <p>
+ * Original ids map to local ids through a per-word rank table (one int per 64 vertices)
+ * and a popcount, so no {@code int[n]} remapping array is kept.
+ */
+public final class ReachableSubgraph {
+    private final int originalVertexCount;
+    private final long[] reached;
+    private final int[] wordRank;
+    private final int[] originalIds;
+    private final CSRGraph graph;
+
+    private ReachableSubgraph(int originalVertexCount, long[] reached, int[] wordRank, int[] originalIds,
+                              CSRGraph graph) {
+        this.originalVertexCount = originalVertexCount;
+        this.reached = reached;
+        this.wordRank = wordRank;
+        this.originalIds = originalIds;
+        this.graph = graph;
+    }
+
+    /**
+     * Extracts the subgraph reachable from {@code source}.
+     *
+     * @param graph original graph
+     * @param source start vertex
+     * @return reachable subgraph with its id mapping
+     * @throws IllegalArgumentException if source is out of range
+     */
+    public static ReachableSubgraph of(CSRGraph graph, int source) {
+        int n = graph.vertexCount();
+        if (source < 0 || source >= n) {
+            throw new IllegalArgumentException("Source " + source + " out of range [0, " + n + ")");
+        }
+        long[] reached = sweep(graph, source);
+
+        int[] wordRank = new int[reached.length];
+        int count = 0;
+        for (int w = 0; w < reached.length; w++) {
+            wordRank[w] = count;
+            count += Long.bitCount(reached[w]);
+        }
+
+        int[] originalIds = new int[count];
+        int[] offsets = new int[count + 1];
+        int edges = 0;
+        int local = 0;
+        for (int w = 0; w < reached.length; w++) {
+            for (long bits = reached[w]; bits != 0; bits &= bits - 1) {
+                int u = (w << 6) + Long.numberOfTrailingZeros(bits);
+                originalIds[local++] = u;
+                edges += graph.outDegree(u);
+                offsets[local] = edges;
+            }
+        }
+
+        int[] targets = new int[edges];
+        int[] weights = graph.isWeighted() ? new int[edges] : null;
+        int e = 0;
+        for (int u : originalIds) {
+            for (int k = graph.edgeStart(u), end = graph.edgeEnd(u); k < end; k++, e++) {
+                targets[e] = rank(reached, wordRank, graph.target(k));
+                if (weights != null) {
+                    weights[e] = graph.weight(k);
+                }
+            }
+        }
+        return new ReachableSubgraph(n, reached, wordRank, originalIds,
+            new ArrayCSRGraph(offsets, targets, weights));
+    }
+
+    /**
+     * Marks every vertex reachable from {@code source}. The queue grows on demand, so
+     * it stays proportional to the reachable part rather than the whole graph.
+     */
+    private static long[] sweep(CSRGraph graph, int source) {
+        long[] reached = new long[(graph.vertexCount() + 63) >>> 6];
+        int[] queue = new int[64];
+        int head = 0;
+        int tail = 0;
+        reached[source >>> 6] |= 1L << source;
+        queue[tail++] = source;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                int v = graph.target(e);
+                long bit = 1L << v;
+                if ((reached[v >>> 6] & bit) == 0) {
+                    reached[v >>> 6] |= bit;
+                    if (tail == queue.length) {
+                        queue = Arrays.copyOf(queue, queue.length * 2);
+                    }
+                    queue[tail++] = v;
+                }
+            }
+        }
+        return reached;
+    }
+
+    private static int rank(long[] reached, int[] wordRank, int v) {
+        return wordRank[v >>> 6] + Long.bitCount(reached[v >>> 6] & ((1L << v) - 1));
+    }
+
+    /**
+     * Returns the reachable subgraph, indexed by local ids.
+     *
+     * @return CSR graph over the reachable vertices
+     */
+    public CSRGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Returns the number of vertices in the original graph.
+     *
+     * @return original vertex count
+     */
+    public int getOriginalVertexCount() {
+        return originalVertexCount;
+    }
+
+    /**
+     * Returns the number of reachable vertices, including the source.
+     *
+     * @return subgraph vertex count
+     */
+    public int vertexCount() {
+        return originalIds.length;
+    }
+
+    /**
+     * Returns whether an original vertex is reachable from the source.
+     *
+     * @param original original vertex id
+     * @return true if the vertex is part of the subgraph
+     */
+    public boolean contains(int original) {
+        return (reached[original >>> 6] & (1L << original)) != 0;
+    }
+
+    /**
+     * Maps an original vertex id to its local id.
+     *
+     * @param original original vertex id
+     * @return local id, or -1 if the vertex is not reachable
+     */
+    public int toLocal(int original) {
+        return contains(original) ? rank(reached, wordRank, original) : -1;
+    }
+
+    /**
+     * Maps a local vertex id back to the original graph.
+     *
+     * @param local local vertex id
+     * @return original vertex id
+     */
+    public int toOriginal(int local) {
+        return originalIds[local];
+    }
+}
@@ -0,0 +1,331 @@
+package graph.dagsp;
+
+import graph.concurrent.ScratchPool;
+import graph.csr.ArrayCSRGraph;
+import graph.csr.CSRGraph;
+import graph.metrics.Metrics;
+
+import java.util.Arrays;
+
+/**
+ * Point-to-point shortest or longest path queries over a DAG that only touch the
+ * part of it between the two endpoints.
+ * <p>
+ * A vertex can only lie on a source-to-target path if its topological position is
+ * within the slice between the endpoints' positions, the source reaches it and it
+ * reaches the target. A query first walks backwards from the target over the reversed
+ * edges, never stepping before the source's position, and marks the target's ancestors
+ * in a bitset indexed by position: that is the corridor. It then relaxes from the source
+ * over just the marked vertices, in position order, and only into marked vertices,
+ * which intersects the corridor with what the source reaches.
+ * <p>
+ * The backward walk jumps around memory while a forward pass over a slice is a
+ * sequential scan, so a wide corridor costs more than it saves. The walk gives up once
+ * it has marked more than {@link #CORRIDOR_FRACTION} of the slice, and the query then
+ * relaxes the whole slice instead. Either way the query never scans beyond the target's
+ * position, and every predecessor of a relaxed vertex that the source reaches is relaxed
+ * first, so distances and parents match a full single-source pass ({@link DistanceEngine},
+ * ties going to the earliest predecessor in topological order).
+ * <p>
+ * The reverse graph and positions are built once per DAG and shared by all queries.
+ * Each query borrows its bitset, distance, parent and queue arrays from a
+ * {@link ScratchPool}, so concurrent queries neither lock nor allocate once the pool is
+ * warm. Distances are {@code long}, as in {@link DistanceEngine}.
+ */
+public class CorridorQuery {
+    /**
+     * Largest corridor, as a fraction of the slice between the endpoints, that is
+     * relaxed on its own rather than falling back to the whole slice.
+     */
+    public static final double CORRIDOR_FRACTION = 1.0 / 8;
+
+    private final CSRGraph graph;
+    private final CSRGraph reverse;
+    private final int[] topo;
+    private final int[] position;
+    private final ScratchPool<Scratch> scratch;
+
+    /**
+     * Prepares queries over a DAG.
+     *
+     * @param graph weighted CSR DAG
+     * @param topo topological order of the DAG
+     */
+    public CorridorQuery(CSRGraph graph, int[] topo) {
+        int n = graph.vertexCount();
+        this.graph = graph;
+        this.reverse = ArrayCSRGraph.transpose(graph);
+        this.topo = topo;
+        this.position = new int[n];
+        for (int i = 0; i < topo.length; i++) {
+            position[topo[i]] = i;
+        }
+        this.scratch = new ScratchPool<>(() -> new Scratch(n));
+    }
+
+    /**
+     * Finds the best path from {@code source} to {@code target}.
+     *
+     * @param source source vertex
+     * @param target target vertex
+     * @param mode shortest or longest path
+     * @return the path, or an unreachable result if there is none
+     */
+    public PairPath query(int source, int target, PathMode mode) {
+        return query(source, target, mode, null);
+    }
+
+    /**
+     * Finds the best path from {@code source} to {@code target} with metrics tracking:
+     * queue pushes and edges processed for the backward sweep, relaxations for the
+     * forward pass.
+     *
+     * @param source source vertex
+     * @param target target vertex
+     * @param mode shortest or longest path
+     * @param metrics metrics collector for operation counting
+     * @return the path, or an unreachable result if there is none
+     * @throws IllegalArgumentException if either vertex is out of range
+     */
+    public PairPath query(int source, int target, PathMode mode, Metrics metrics) {
+        long startTime = System.nanoTime();
+        checkVertex(source);
+        checkVertex(target);
+        Scratch s = scratch.acquire();
+        try {
+            return query(s, source, target, mode, metrics, startTime);
+        } finally {
+            scratch.release(s);
+        }
+    }
+
+    private PairPath query(Scratch s, int source, int target, PathMode mode, Metrics metrics, long startTime) {
+        long[] marked = s.marked;
+        long[] dist = s.dist;
+        int[] parent = s.parent;
+        int[] queue = s.queue;
+        int from = position[source];
+        int to = position[target];
+        long unreachable = mode.getUnreachableLong();
+        if (to < from) {
+            record(metrics, 0, 0, 0, startTime);
+            return new PairPath(mode, source, target, unreachable, new int[0], 0, false);
+        }
+        Arrays.fill(marked, from >>> 6, (to >>> 6) + 1, 0L);
+
+        // Backward walk: ancestors of the target at or after the source's position
+        int budget = Math.max(64, (int) ((to - from + 1) * CORRIDOR_FRACTION));
+        int size = 0;
+        long edgesProcessed = 0;
+        mark(marked, to);
+        queue[size++] = target;
+        for (int head = 0; head < size && size <= budget; head++) {
+            int w = queue[head];
+            int start = reverse.edgeStart(w);
+            int end = reverse.edgeEnd(w);
+            edgesProcessed += end - start;
+            for (int e = start; e < end; e++) {
+                int u = reverse.target(e);
+                int p = position[u];
+                if (p >= from && !isMarked(marked, p)) {
+                    mark(marked, p);
+                    if (size == queue.length) {
+                        queue = Arrays.copyOf(queue, size * 2);
+                        s.queue = queue;
+                    }
+                    queue[size++] = u;
+                }
+            }
+        }
+        boolean pruned = size <= budget;
+        if (pruned && !isMarked(marked, from)) {
+            record(metrics, size, edgesProcessed, 0, startTime);
+            return new PairPath(mode, source, target, unreachable, new int[0], size, true);
+        }
+        if (!pruned) {
+            // Corridor too wide to pay off: relax every vertex of the slice
+            Arrays.fill(marked, from >>> 6, (to >>> 6) + 1, -1L);
+            size = to - from + 1;
+        }
+
+        // Forward pass over the marked positions, in order; the source comes first
+        for (int w = from >>> 6; w <= to >>> 6; w++) {
+            for (long bits = marked[w]; bits != 0; bits &= bits - 1) {
+                int p = (w << 6) + Long.numberOfTrailingZeros(bits);
+                if (p >= from && p <= to) {
+                    dist[topo[p]] = unreachable;
+                    parent[topo[p]] = -1;
+                }
+            }
+        }
+        dist[source] = 0;
+        boolean longest = mode == PathMode.LONGEST;
+        long relaxations = 0;
+        for (int w = from >>> 6; w <= to >>> 6; w++) {
+            for (long bits = marked[w]; bits != 0; bits &= bits - 1) {
+                int p = (w << 6) + Long.numberOfTrailingZeros(bits);
+                if (p < from || p > to) {
+                    continue;
+                }
+                int u = topo[p];
+                long du = dist[u];
+                if (du == unreachable) {
+                    continue;
+                }
+                int start = graph.edgeStart(u);
+                int end = graph.edgeEnd(u);
+                relaxations += end - start;
+                for (int e = start; e < end; e++) {
+                    int v = graph.target(e);
+                    int q = position[v];
+                    if (q > to || !isMarked(marked, q)) {
+                        continue;
+                    }
+                    long candidate = du + graph.weight(e);
+                    if (longest ? candidate > dist[v] : candidate < dist[v]) {
+                        dist[v] = candidate;
+                        parent[v] = u;
+                    }
+                }
+            }
+        }
+
+        if (dist[target] == unreachable) {
+            record(metrics, size, edgesProcessed, relaxations, startTime);
+            return new PairPath(mode, source, target, unreachable, new int[0], size, pruned);
+        }
+        int length = 1;
+        for (int v = target; v != source; v = parent[v]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int v = target, i = length - 1; i >= 0; v = parent[v], i--) {
+            path[i] = v;
+        }
+        record(metrics, size, edgesProcessed, relaxations, startTime);
+        return new PairPath(mode, source, target, dist[target], path, size, pruned);
+    }
+
+    private static void mark(long[] marked, int p) {
+        marked[p >>> 6] |= 1L << p;
+    }
+
+    private static boolean isMarked(long[] marked, int p) {
+        return (marked[p >>> 6] & (1L << p)) != 0;
+    }
+
+    private void checkVertex(int v) {
+        if (v < 0 || v >= position.length) {
+            throw new IllegalArgumentException("Vertex " + v + " out of range [0, " + position.length + ")");
+        }
+    }
+
+    private static void record(Metrics metrics, int pushes, long edgesProcessed, long relaxations, long startTime) {
+        if (metrics != null) {
+            metrics.addQueuePushes(pushes);
+            metrics.addEdgesProcessed(edgesProcessed);
+            metrics.addRelaxations(relaxations);
+            long endTime = System.nanoTime();
+            metrics.recordTime(endTime - startTime);
+        }
+    }
+
+    /**
+     * Per-query working arrays; the queue grows on demand and keeps its size.
+     */
+    private static final class Scratch {
+        final long[] marked;
+        final long[] dist;
+        final int[] parent;
+        int[] queue = new int[64];
+
+        Scratch(int n) {
+            this.marked = new long[(n + 63) >>> 6];
+            this.dist = new long[n];
+            this.parent = new int[n];
+        }
+    }
+
+    /**
+     * Result of a single-pair query.
+     */
+    public static final class PairPath {
+        private final PathMode mode;
+        private final int source;
+        private final int target;
+        private final long length;
+        private final int[] path;
+        private final int corridorSize;
+        private final boolean pruned;
+
+        PairPath(PathMode mode, int source, int target, long length, int[] path, int corridorSize,
+                 boolean pruned) {
+            this.mode = mode;
+            this.source = source;
+            this.target = target;
+            this.length = length;
+            this.path = path;
+            this.corridorSize = corridorSize;
+            this.pruned = pruned;
+        }
+
+        public PathMode getMode() {
+            return mode;
+        }
+
+        public int getSource() {
+            return source;
+        }
+
+        public int getTarget() {
+            return target;
+        }
+
+        /**
+         * Returns whether the target is reachable from the source.
+         *
+         * @return true if a path exists
+         */
+        public boolean isReachable() {
+            return path.length > 0;
+        }
+
+        /**
+         * Returns the path length.
+         *
+         * @return length, or {@link PathMode#getUnreachableLong()} if there is no path
+         */
+        public long getLength() {
+            return length;
+        }
+
+        /**
+         * Returns the vertices of the path from source to target.
+         *
+         * @return path vertices, empty if there is no path
+         */
+        public int[] getPath() {
+            return path.clone();
+        }
+
+        /**
+         * Returns how many vertices the query was confined to: the corridor, or the whole
+         * slice between the endpoints if the corridor was too wide.
+         *
+         * @return vertices considered, 0 if the target comes before the source
+         */
+        public int getCorridorSize() {
+            return corridorSize;
+        }
+
+        /**
+         * Returns whether the query was confined to the backward corridor rather than
+         * the whole slice.
+         *
+         * @return true if the backward walk finished within its budget
+         */
+        public boolean isPruned() {
+            return pruned;
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package graph.dagsp;
 
+import graph.csr.CSRGraph;
 import graph.metrics.Metrics;
 import java.util.*;
 
 /**
  * Algorithms for finding shortest and longest paths in a Directed Acyclic Graph (DAG).
  * Uses dynamic programming over topological order for efficient computation.
+ * Distances are {@code int} with {@code ±1_000_000} meaning unreachable, so path lengths
+ * beyond that range are ambiguous; {@link DistanceEngine} has overflow-safe long distances.
  */
 public class DAGShortestPaths {
 
@@ -34,37 +37,7 @@ public class DAGShortestPaths {
      * @return array of shortest distances (INF if unreachable)
      */
     public static int[] shortestPath(List<List<int[]>> graph, int src, List<Integer> topo, Metrics metrics) {
-        long startTime = System.nanoTime();
-        int n = graph.size();
-        int[] dist = new int[n];
-        int[] parent = new int[n];
-        Arrays.fill(dist, INF);
-        Arrays.fill(parent, -1);
-
-        dist[src] = 0;
-
-        for (int u : topo) {
-            if (dist[u] != INF) {
-                for (int[] edge : graph.get(u)) {
-                    int v = edge[0];
-                    int weight = edge[1];
-                    if (metrics != null) {
-                        metrics.incrementRelaxations();
-                    }
-                    if (dist[v] > dist[u] + weight) {
-                        dist[v] = dist[u] + weight;
-                        parent[v] = u;
-                    }
-                }
-            }
-        }
-
-        if (metrics != null) {
-            long endTime = System.nanoTime();
-            metrics.recordTime(endTime - startTime);
-        }
-
-        return dist;
+        return relax(graph, src, topo, false, metrics).getDistances();
     }
 
     /**
@@ -89,37 +62,7 @@ public class DAGShortestPaths {
      * @return pair containing distances array and parent array
      */
     public static PathResult shortestPathWithParent(List<List<int[]>> graph, int src, List<Integer> topo, Metrics metrics) {
-        long startTime = System.nanoTime();
-        int n = graph.size();
-        int[] dist = new int[n];
-        int[] parent = new int[n];
-        Arrays.fill(dist, INF);
-        Arrays.fill(parent, -1);
-
-        dist[src] = 0;
-
-        for (int u : topo) {
-            if (dist[u] != INF) {
-                for (int[] edge : graph.get(u)) {
-                    int v = edge[0];
-                    int weight = edge[1];
-                    if (metrics != null) {
-                        metrics.incrementRelaxations();
-                    }
-                    if (dist[v] > dist[u] + weight) {
-                        dist[v] = dist[u] + weight;
-                        parent[v] = u;
-                    }
-                }
-            }
-        }
-
-        if (metrics != null) {
-            long endTime = System.nanoTime();
-            metrics.recordTime(endTime - startTime);
-        }
-
-        return new PathResult(dist, parent);
+        return relax(graph, src, topo, false, metrics);
     }
 
     /**
@@ -144,37 +87,7 @@ public class DAGShortestPaths {
      * @return array of longest distances (NEG_INF if unreachable)
      */
     public static int[] longestPath(List<List<int[]>> graph, int src, List<Integer> topo, Metrics metrics) {
-        long startTime = System.nanoTime();
-        int n = graph.size();
-        int[] dist = new int[n];
-        int[] parent = new int[n];
-        Arrays.fill(dist, NEG_INF);
-        Arrays.fill(parent, -1);
-
-        dist[src] = 0;
-
-        for (int u : topo) {
-            if (dist[u] != NEG_INF) {
-                for (int[] edge : graph.get(u)) {
-                    int v = edge[0];
-                    int weight = edge[1];
-                    if (metrics != null) {
-                        metrics.incrementRelaxations();
-                    }
-                    if (dist[v] < dist[u] + weight) {
-                        dist[v] = dist[u] + weight;
-                        parent[v] = u;
-                    }
-                }
-            }
-        }
-
-        if (metrics != null) {
-            long endTime = System.nanoTime();
-            metrics.recordTime(endTime - startTime);
-        }
-
-        return dist;
+        return relax(graph, src, topo, true, metrics).getDistances();
     }
 
     /**
@@ -199,32 +112,281 @@ public class DAGShortestPaths {
      * @return pair containing distances array and parent array
      */
     public static PathResult longestPathWithParent(List<List<int[]>> graph, int src, List<Integer> topo, Metrics metrics) {
+        return relax(graph, src, topo, true, metrics);
+    }
+
+    /**
+     * Computes shortest paths from source to all vertices of a CSR DAG.
+     * 
+     * @param graph weighted CSR graph
+     * @param src source vertex
+     * @param topo topological order of vertices
+     * @return array of shortest distances (INF if unreachable)
+     */
+    public static int[] shortestPath(CSRGraph graph, int src, List<Integer> topo) {
+        return shortestPath(graph, src, topo, null);
+    }
+
+    /**
+     * Computes shortest paths from source to all vertices of a CSR DAG with metrics tracking.
+     * 
+     * @param graph weighted CSR graph
+     * @param src source vertex
+     * @param topo topological order of vertices
+     * @param metrics metrics collector for operation counting
+     * @return array of shortest distances (INF if unreachable)
+     */
+    public static int[] shortestPath(CSRGraph graph, int src, List<Integer> topo, Metrics metrics) {
+        return shortestPath(graph, src, toArray(topo), metrics);
+    }
+
+    /**
+     * Computes longest paths (critical path) from source to all vertices of a CSR DAG.
+     * 
+     * @param graph weighted CSR graph
+     * @param src source vertex
+     * @param topo topological order
+     * @return array of longest distances (NEG_INF if unreachable)
+     */
+    public static int[] longestPath(CSRGraph graph, int src, List<Integer> topo) {
+        return longestPath(graph, src, topo, null);
+    }
+
+    /**
+     * Computes longest paths (critical path) from source to all vertices of a CSR DAG with metrics.
+     * 
+     * @param graph weighted CSR graph
+     * @param src source vertex
+     * @param topo topological order
+     * @param metrics metrics collector for operation counting
+     * @return array of longest distances (NEG_INF if unreachable)
+     */
+    public static int[] longestPath(CSRGraph graph, int src, List<Integer> topo, Metrics metrics) {
+        return longestPath(graph, src, toArray(topo), metrics);
+    }
+
+    /**
+     * Computes shortest paths over a CSR DAG with parent tracking and metrics.
+     * 
+     * @param graph weighted CSR graph
+     * @param src source vertex
+     * @param topo topological order
+     * @param metrics metrics collector for operation counting
+     * @return pair containing distances array and parent array
+     */
+    public static PathResult shortestPathWithParent(CSRGraph graph, int src, List<Integer> topo, Metrics metrics) {
+        return shortestPathWithParent(graph, src, toArray(topo), metrics);
+    }
+
+    /**
+     * Computes longest paths over a CSR DAG with parent tracking and metrics.
+     * 
+     * @param graph weighted CSR graph
+     * @param src source vertex
+     * @param topo topological order
+     * @param metrics metrics collector for operation counting
+     * @return pair containing distances array and parent array
+     */
+    public static PathResult longestPathWithParent(CSRGraph graph, int src, List<Integer> topo, Metrics metrics) {
+        return longestPathWithParent(graph, src, toArray(topo), metrics);
+    }
+
+    /**
+     * Computes shortest paths from source to all vertices of a CSR DAG, taking the
+     * topological order as a primitive array (see {@code TopoSort.order}).
+     * 
+     * @param graph weighted CSR graph
+     * @param src source vertex
+     * @param topo topological order of vertices
+     * @return array of shortest distances (INF if unreachable)
+     */
+    public static int[] shortestPath(CSRGraph graph, int src, int[] topo) {
+        return shortestPath(graph, src, topo, null);
+    }
+
+    /**
+     * Computes shortest paths from source to all vertices of a CSR DAG with metrics tracking.
+     * 
+     * @param graph weighted CSR graph
+     * @param src source vertex
+     * @param topo topological order of vertices
+     * @param metrics metrics collector for operation counting
+     * @return array of shortest distances (INF if unreachable)
+     */
+    public static int[] shortestPath(CSRGraph graph, int src, int[] topo, Metrics metrics) {
+        return relax(graph, src, topo, false, metrics).getDistances();
+    }
+
+    /**
+     * Computes longest paths (critical path) from source to all vertices of a CSR DAG,
+     * taking the topological order as a primitive array.
+     * 
+     * @param graph weighted CSR graph
+     * @param src source vertex
+     * @param topo topological order
+     * @return array of longest distances (NEG_INF if unreachable)
+     */
+    public static int[] longestPath(CSRGraph graph, int src, int[] topo) {
+        return longestPath(graph, src, topo, null);
+    }
+
+    /**
+     * Computes longest paths (critical path) from source to all vertices of a CSR DAG with metrics.
+     * 
+     * @param graph weighted CSR graph
+     * @param src source vertex
+     * @param topo topological order
+     * @param metrics metrics collector for operation counting
+     * @return array of longest distances (NEG_INF if unreachable)
+     */
+    public static int[] longestPath(CSRGraph graph, int src, int[] topo, Metrics metrics) {
+        return relax(graph, src, topo, true, metrics).getDistances();
+    }
+
+    /**
+     * Computes shortest paths over a CSR DAG with parent tracking and metrics.
+     * 
+     * @param graph weighted CSR graph
+     * @param src source vertex
+     * @param topo topological order
+     * @param metrics metrics collector for operation counting
+     * @return pair containing distances array and parent array
+     */
+    public static PathResult shortestPathWithParent(CSRGraph graph, int src, int[] topo, Metrics metrics) {
+        return relax(graph, src, topo, false, metrics);
+    }
+
+    /**
+     * Computes longest paths over a CSR DAG with parent tracking and metrics.
+     * 
+     * @param graph weighted CSR graph
+     * @param src source vertex
+     * @param topo topological order
+     * @param metrics metrics collector for operation counting
+     * @return pair containing distances array and parent array
+     */
+    public static PathResult longestPathWithParent(CSRGraph graph, int src, int[] topo, Metrics metrics) {
+        return relax(graph, src, topo, true, metrics);
+    }
+
+    /**
+     * Computes shortest paths over a DAG whose vertex ids are already a topological
+     * order, such as the condensation of a topologically numbered
+     * {@link graph.scc.SCCFinder}. No order array is needed: the scan walks ids
+     * sequentially from {@code src}, since no lower id is reachable from it.
+     *
+     * @param graph weighted CSR DAG with every edge going from a lower to a higher id
+     * @param src source vertex
+     * @param metrics metrics collector for operation counting
+     * @return pair containing distances array and parent array
+     * @throws IllegalArgumentException if an edge reached from src goes against id order
+     */
+    public static PathResult shortestPathInIdOrder(CSRGraph graph, int src, Metrics metrics) {
+        return relax(graph, src, null, false, metrics);
+    }
+
+    /**
+     * Computes longest paths over a DAG whose vertex ids are already a topological order.
+     *
+     * @param graph weighted CSR DAG with every edge going from a lower to a higher id
+     * @param src source vertex
+     * @param metrics metrics collector for operation counting
+     * @return pair containing distances array and parent array
+     * @throws IllegalArgumentException if an edge reached from src goes against id order
+     * @see #shortestPathInIdOrder(CSRGraph, int, Metrics)
+     */
+    public static PathResult longestPathInIdOrder(CSRGraph graph, int src, Metrics metrics) {
+        return relax(graph, src, null, true, metrics);
+    }
+
+    /**
+     * Computes shortest and longest paths from {@code src} in a single sweep, loading
+     * every edge once instead of once per objective.
+     *
+     * @param graph weighted CSR graph
+     * @param src source vertex
+     * @param topo topological order
+     * @return shortest and longest distances with parents
+     */
+    public static SweepResult shortestAndLongest(CSRGraph graph, int src, int[] topo) {
+        return shortestAndLongest(graph, src, topo, false, null);
+    }
+
+    /**
+     * Computes shortest and longest paths, and optionally the number of distinct paths
+     * from {@code src} to every vertex, in a single sweep over the edges.
+     *
+     * @param graph weighted CSR graph
+     * @param src source vertex
+     * @param topo topological order
+     * @param countPaths whether to also count paths
+     * @param metrics metrics collector; each edge counts as one relaxation
+     * @return shortest and longest distances with parents, plus path counts if requested
+     */
+    public static SweepResult shortestAndLongest(CSRGraph graph, int src, int[] topo, boolean countPaths,
+                                                 Metrics metrics) {
+        long startTime = System.nanoTime();
+        int n = graph.vertexCount();
+        int[] minDist = filled(n, INF);
+        int[] minParent = filled(n, -1);
+        int[] maxDist = filled(n, NEG_INF);
+        int[] maxParent = filled(n, -1);
+        long[] counts = countPaths ? new long[n] : null;
+
+        long relaxations = sweep(graph, src, topo, minDist, minParent, maxDist, maxParent, counts);
+
+        if (metrics != null) {
+            metrics.addRelaxations(relaxations);
+            long endTime = System.nanoTime();
+            metrics.recordTime(endTime - startTime);
+        }
+
+        return new SweepResult(new PathResult(minDist, minParent), new PathResult(maxDist, maxParent), counts);
+    }
+
+    private static int[] toArray(List<Integer> topo) {
+        int[] order = new int[topo.size()];
+        int i = 0;
+        for (int u : topo) {
+            order[i++] = u;
+        }
+        return order;
+    }
+
+    /**
+     * Relaxes an adjacency-list DAG in topological order, minimizing or maximizing
+     * the distance from {@code src}.
+     */
+    private static PathResult relax(List<List<int[]>> graph, int src, List<Integer> topo, boolean longest,
+                                    Metrics metrics) {
         long startTime = System.nanoTime();
         int n = graph.size();
-        int[] dist = new int[n];
-        int[] parent = new int[n];
-        Arrays.fill(dist, NEG_INF);
-        Arrays.fill(parent, -1);
+        int unreachable = longest ? NEG_INF : INF;
+        int[] dist = filled(n, unreachable);
+        int[] parent = filled(n, -1);
 
         dist[src] = 0;
 
+        long relaxations = 0;
         for (int u : topo) {
-            if (dist[u] != NEG_INF) {
-                for (int[] edge : graph.get(u)) {
-                    int v = edge[0];
-                    int weight = edge[1];
-                    if (metrics != null) {
-                        metrics.incrementRelaxations();
-                    }
-                    if (dist[v] < dist[u] + weight) {
-                        dist[v] = dist[u] + weight;
-                        parent[v] = u;
-                    }
+            int du = dist[u];
+            if (du == unreachable) {
+                continue;
+            }
+            List<int[]> edges = graph.get(u);
+            relaxations += edges.size();
+            for (int[] edge : edges) {
+                int v = edge[0];
+                int candidate = du + edge[1];
+                if (longest ? candidate > dist[v] : candidate < dist[v]) {
+                    dist[v] = candidate;
+                    parent[v] = u;
                 }
             }
         }
 
         if (metrics != null) {
+            metrics.addRelaxations(relaxations);
             long endTime = System.nanoTime();
             metrics.recordTime(endTime - startTime);
         }
@@ -232,6 +394,98 @@ public class DAGShortestPaths {
         return new PathResult(dist, parent);
     }
 
+    /**
+     * Relaxes a CSR DAG for one objective through {@link #sweep}; a null {@code topo}
+     * means the ids are the order.
+     */
+    private static PathResult relax(CSRGraph graph, int src, int[] topo, boolean longest, Metrics metrics) {
+        long startTime = System.nanoTime();
+        int n = graph.vertexCount();
+        int[] dist = filled(n, longest ? NEG_INF : INF);
+        int[] parent = filled(n, -1);
+
+        long relaxations = longest
+            ? sweep(graph, src, topo, null, null, dist, parent, null)
+            : sweep(graph, src, topo, dist, parent, null, null, null);
+
+        if (metrics != null) {
+            metrics.addRelaxations(relaxations);
+            long endTime = System.nanoTime();
+            metrics.recordTime(endTime - startTime);
+        }
+
+        return new PathResult(dist, parent);
+    }
+
+    /**
+     * The CSR kernel shared by all single-source methods. Visits the vertices reachable
+     * from {@code src} in topological order (ids from {@code src} upwards when
+     * {@code topo} is null) and loads each out-edge once, relaxing it into every
+     * objective whose arrays are non-null: minimum distances, maximum distances and
+     * path counts. The null checks are loop-invariant, so the JIT unswitches them
+     * out of the edge loop. Distance arrays must come pre-filled with their
+     * unreachable marker, parents with -1 and counts with 0.
+     *
+     * @return number of edges relaxed
+     */
+    private static long sweep(CSRGraph graph, int src, int[] topo, int[] minDist, int[] minParent,
+                              int[] maxDist, int[] maxParent, long[] counts) {
+        boolean idOrder = topo == null;
+        int[] reached = minDist != null ? minDist : maxDist;
+        int unreachable = minDist != null ? INF : NEG_INF;
+        if (minDist != null) {
+            minDist[src] = 0;
+        }
+        if (maxDist != null) {
+            maxDist[src] = 0;
+        }
+        if (counts != null) {
+            counts[src] = 1;
+        }
+
+        long relaxations = 0;
+        int first = idOrder ? src : 0;
+        int last = idOrder ? graph.vertexCount() : topo.length;
+        for (int i = first; i < last; i++) {
+            int u = idOrder ? i : topo[i];
+            if (reached[u] == unreachable) {
+                continue;
+            }
+            int minU = minDist != null ? minDist[u] : 0;
+            int maxU = maxDist != null ? maxDist[u] : 0;
+            long countU = counts != null ? counts[u] : 0;
+            int start = graph.edgeStart(u);
+            int end = graph.edgeEnd(u);
+            relaxations += end - start;
+            for (int e = start; e < end; e++) {
+                int v = graph.target(e);
+                int weight = graph.weight(e);
+                if (idOrder && v <= u) {
+                    throw new IllegalArgumentException("Edge " + u + " -> " + v + " goes against id order");
+                }
+                if (minDist != null && minU + weight < minDist[v]) {
+                    minDist[v] = minU + weight;
+                    minParent[v] = u;
+                }
+                if (maxDist != null && maxU + weight > maxDist[v]) {
+                    maxDist[v] = maxU + weight;
+                    maxParent[v] = u;
+                }
+                if (counts != null) {
+                    long total = counts[v] + countU;
+                    counts[v] = total < 0 ? Long.MAX_VALUE : total;
+                }
+            }
+        }
+        return relaxations;
+    }
+
+    private static int[] filled(int n, int value) {
+        int[] array = new int[n];
+        Arrays.fill(array, value);
+        return array;
+    }
+
     /**
      * Reconstructs path from source to target using parent array.
      * 
@@ -288,4 +542,37 @@ public class DAGShortestPaths {
             return parents;
         }
     }
+
+    /**
+     * Result of {@link #shortestAndLongest(CSRGraph, int, int[], boolean, Metrics)}.
+     */
+    public static class SweepResult {
+        private final PathResult shortest;
+        private final PathResult longest;
+        private final long[] pathCounts;
+
+        public SweepResult(PathResult shortest, PathResult longest, long[] pathCounts) {
+            this.shortest = shortest;
+            this.longest = longest;
+            this.pathCounts = pathCounts;
+        }
+
+        public PathResult getShortest() {
+            return shortest;
+        }
+
+        public PathResult getLongest() {
+            return longest;
+        }
+
+        /**
+         * Returns the number of distinct paths from the source to every vertex,
+         * saturating at {@link Long#MAX_VALUE}.
+         *
+         * @return path counts (1 for the source, 0 if unreachable), or null if not requested
+         */
+        public long[] getPathCounts() {
+            return pathCounts;
+        }
+    }
 }
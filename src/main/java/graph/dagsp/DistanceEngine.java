@@ -0,0 +1,174 @@
+package graph.dagsp;
+
+import graph.csr.CSRGraph;
+import graph.metrics.Metrics;
+
+import java.util.Arrays;
+
+/**
+ * Overflow-safe single-source shortest and longest paths over a CSR DAG.
+ * <p>
+ * Unlike {@link DAGShortestPaths}, whose {@code int} distances use {@code ±1_000_000}
+ * as "unreachable" and can collide with or overflow past real path lengths, distances
+ * here are {@code long} with unreachable markers outside the range of any path: a
+ * simple path has fewer than 2^31 edges of at most 2^31 each, so its length fits in
+ * 2^62 and {@code long} arithmetic cannot overflow.
+ * <p>
+ * When {@link #pathLengthBound(CSRGraph)} shows every path length fits in an
+ * {@code int}, the relaxation runs on a compact {@code int[]} with
+ * {@link Integer#MAX_VALUE}/{@link Integer#MIN_VALUE} as markers, halving the memory
+ * traffic of the hot loop.
+ */
+public class DistanceEngine {
+
+    /**
+     * Computes distances from {@code src}, using the compact int form when it is safe.
+     * This scans every edge weight to decide; callers that query the same graph
+     * repeatedly should call {@link #fitsInt(CSRGraph)} once and pass the answer to
+     * {@link #compute(CSRGraph, int, int[], PathMode, boolean, Metrics)}.
+     *
+     * @param graph weighted CSR DAG
+     * @param src source vertex
+     * @param topo topological order of the DAG
+     * @param mode shortest or longest paths
+     * @return distances and parents
+     */
+    public static PathDistances compute(CSRGraph graph, int src, int[] topo, PathMode mode) {
+        return compute(graph, src, topo, mode, fitsInt(graph), null);
+    }
+
+    /**
+     * Computes distances from {@code src} with metrics tracking, in the form the caller
+     * chose. Passing {@code true} for {@code compact} is only safe if
+     * {@link #fitsInt(CSRGraph)} holds for the graph; nothing is rechecked here.
+     *
+     * @param graph weighted CSR DAG
+     * @param src source vertex
+     * @param topo topological order of the DAG
+     * @param mode shortest or longest paths
+     * @param compact whether to relax over int distances, i.e. the cached result of {@link #fitsInt(CSRGraph)}
+     * @param metrics metrics collector for operation counting
+     * @return distances and parents
+     */
+    public static PathDistances compute(CSRGraph graph, int src, int[] topo, PathMode mode,
+                                        boolean compact, Metrics metrics) {
+        long startTime = System.nanoTime();
+        int n = graph.vertexCount();
+        if (src < 0 || src >= n) {
+            throw new IllegalArgumentException("Source " + src + " out of range [0, " + n + ")");
+        }
+        int[] parent = new int[n];
+        Arrays.fill(parent, -1);
+
+        PathDistances result;
+        if (compact) {
+            result = new PathDistances(mode, null, relaxCompact(graph, src, topo, mode, parent, metrics), parent);
+        } else {
+            result = new PathDistances(mode, relaxWide(graph, src, topo, mode, parent, metrics), null, parent);
+        }
+
+        if (metrics != null) {
+            long endTime = System.nanoTime();
+            metrics.recordTime(endTime - startTime);
+        }
+        return result;
+    }
+
+    /**
+     * Bounds the absolute length of any path in the graph by the sum over vertices of
+     * their largest absolute out-edge weight, since a path leaves each vertex at most once.
+     *
+     * @param graph weighted CSR graph
+     * @return upper bound on |path length|
+     */
+    public static long pathLengthBound(CSRGraph graph) {
+        long bound = 0;
+        for (int u = 0, n = graph.vertexCount(); u < n; u++) {
+            long heaviest = 0;
+            for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                heaviest = Math.max(heaviest, Math.abs((long) graph.weight(e)));
+            }
+            bound += heaviest;
+        }
+        return bound;
+    }
+
+    /**
+     * Returns whether every path length, and every partial sum on the way, stays
+     * strictly inside the int range, so the compact form cannot overflow or hit a marker.
+     *
+     * @param graph weighted CSR graph
+     * @return true if int distances are safe
+     */
+    public static boolean fitsInt(CSRGraph graph) {
+        return pathLengthBound(graph) < Integer.MAX_VALUE;
+    }
+
+    static int compactUnreachable(PathMode mode) {
+        return mode == PathMode.SHORTEST ? Integer.MAX_VALUE : Integer.MIN_VALUE;
+    }
+
+    private static long[] relaxWide(CSRGraph graph, int src, int[] topo, PathMode mode, int[] parent,
+                                    Metrics metrics) {
+        boolean longest = mode == PathMode.LONGEST;
+        long unreachable = mode.getUnreachableLong();
+        long[] dist = new long[graph.vertexCount()];
+        Arrays.fill(dist, unreachable);
+        dist[src] = 0;
+
+        long relaxations = 0;
+        for (int u : topo) {
+            long du = dist[u];
+            if (du == unreachable) {
+                continue;
+            }
+            int start = graph.edgeStart(u);
+            int end = graph.edgeEnd(u);
+            relaxations += end - start;
+            for (int e = start; e < end; e++) {
+                int v = graph.target(e);
+                long candidate = du + graph.weight(e);
+                if (longest ? candidate > dist[v] : candidate < dist[v]) {
+                    dist[v] = candidate;
+                    parent[v] = u;
+                }
+            }
+        }
+        if (metrics != null) {
+            metrics.addRelaxations(relaxations);
+        }
+        return dist;
+    }
+
+    private static int[] relaxCompact(CSRGraph graph, int src, int[] topo, PathMode mode, int[] parent,
+                                      Metrics metrics) {
+        boolean longest = mode == PathMode.LONGEST;
+        int unreachable = compactUnreachable(mode);
+        int[] dist = new int[graph.vertexCount()];
+        Arrays.fill(dist, unreachable);
+        dist[src] = 0;
+
+        long relaxations = 0;
+        for (int u : topo) {
+            int du = dist[u];
+            if (du == unreachable) {
+                continue;
+            }
+            int start = graph.edgeStart(u);
+            int end = graph.edgeEnd(u);
+            relaxations += end - start;
+            for (int e = start; e < end; e++) {
+                int v = graph.target(e);
+                int candidate = du + graph.weight(e);
+                if (longest ? candidate > dist[v] : candidate < dist[v]) {
+                    dist[v] = candidate;
+                    parent[v] = u;
+                }
+            }
+        }
+        if (metrics != null) {
+            metrics.addRelaxations(relaxations);
+        }
+        return dist;
+    }
+}
@@ -0,0 +1,126 @@
+package graph.dagsp;
+
+/**
+ * Distances from several sources to every vertex of a DAG, as produced by
+ * {@link MultiSourcePaths}. Sources are stored in blocks of up to {@code batchSize};
+ * within a block the distances of one vertex to all block sources are adjacent
+ * ({@code block[v * width + k]}), which is the layout the batched relaxation works on.
+ * <p>
+ * Like {@link PathDistances}, blocks are compact {@code int[]}s when the graph's path
+ * length bound fits and {@code long[]}s otherwise; both read back as {@code long}, with
+ * {@link PathMode#getUnreachableLong()} for vertices a source cannot reach.
+ */
+public class DistanceMatrix {
+    private final int[] sources;
+    private final int vertexCount;
+    private final int batchSize;
+    private final int[][] compact;
+    private final long[][] wide;
+    private final PathMode mode;
+
+    DistanceMatrix(int[] sources, int vertexCount, int batchSize, int[][] compact, long[][] wide, PathMode mode) {
+        this.sources = sources;
+        this.vertexCount = vertexCount;
+        this.batchSize = batchSize;
+        this.compact = compact;
+        this.wide = wide;
+        this.mode = mode;
+    }
+
+    /**
+     * Returns the number of sources (rows).
+     *
+     * @return source count
+     */
+    public int getSourceCount() {
+        return sources.length;
+    }
+
+    /**
+     * Returns the number of vertices (columns).
+     *
+     * @return vertex count
+     */
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * Returns the source vertex of a row.
+     *
+     * @param row row index in [0, getSourceCount())
+     * @return source vertex
+     */
+    public int getSource(int row) {
+        return sources[row];
+    }
+
+    /**
+     * Returns the objective the distances were computed for.
+     *
+     * @return path mode
+     */
+    public PathMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Returns whether the distances are stored as ints.
+     *
+     * @return true for the compact int representation
+     */
+    public boolean isCompact() {
+        return compact != null;
+    }
+
+    /**
+     * Returns whether the source of {@code row} reaches {@code v}.
+     *
+     * @param row row index in [0, getSourceCount())
+     * @param v target vertex
+     * @return true if v has a finite distance
+     */
+    public boolean isReachable(int row, int v) {
+        int block = row / batchSize;
+        int index = v * width(block) + row % batchSize;
+        if (compact != null) {
+            return compact[block][index] != DistanceEngine.compactUnreachable(mode);
+        }
+        return wide[block][index] != mode.getUnreachableLong();
+    }
+
+    /**
+     * Returns the distance from the source of {@code row} to {@code v}.
+     *
+     * @param row row index in [0, getSourceCount())
+     * @param v target vertex
+     * @return distance, or {@link PathMode#getUnreachableLong()} if v is unreachable
+     */
+    public long getDistance(int row, int v) {
+        int block = row / batchSize;
+        int index = v * width(block) + row % batchSize;
+        if (compact != null) {
+            return isReachable(row, v) ? compact[block][index] : mode.getUnreachableLong();
+        }
+        return wide[block][index];
+    }
+
+    /**
+     * Copies out the distances of one source, in the same form
+     * {@link PathDistances#toLongArray()} returns.
+     *
+     * @param row row index in [0, getSourceCount())
+     * @return distances to every vertex, unreachable ones holding {@link PathMode#getUnreachableLong()}
+     */
+    public long[] getDistances(int row) {
+        long[] result = new long[vertexCount];
+        for (int v = 0; v < vertexCount; v++) {
+            result[v] = getDistance(row, v);
+        }
+        return result;
+    }
+
+    private int width(int block) {
+        return Math.min(batchSize, sources.length - block * batchSize);
+    }
+}
@@ -0,0 +1,256 @@
+package graph.dagsp;
+
+import graph.concurrent.ParallelLoops;
+import graph.csr.CSRGraph;
+import graph.metrics.Metrics;
+
+import java.util.Arrays;
+
+/**
+ * Shortest or longest paths from many sources over the same DAG.
+ * <p>
+ * Instead of one topological walk per source, sources are relaxed together in blocks of
+ * {@code batchSize}: every vertex owns {@code batchSize} adjacent distance slots, and each
+ * edge is relaxed for the whole block at once, with explicit SIMD lanes when the Vector
+ * API is available (see {@link #isVectorized()}) and a branch-free scalar loop otherwise.
+ * Vertices unreachable from every source of the block are skipped.
+ * <p>
+ * Like {@link DistanceEngine}, blocks hold {@code int} distances with
+ * {@link Integer#MAX_VALUE}/{@link Integer#MIN_VALUE} markers only when
+ * {@link DistanceEngine#fitsInt(CSRGraph)} shows no path length can reach them, and
+ * {@code long} distances otherwise, so real lengths never overflow or read as unreachable.
+ * Parent pointers are not tracked; use {@link DAGShortestPaths} for path reconstruction.
+ */
+public class MultiSourcePaths {
+
+    /** Sources relaxed together in one topological pass. */
+    public static final int DEFAULT_BATCH_SIZE = 16;
+
+    /** Largest DAG {@link #allPairs(CSRGraph, int[], PathMode)} accepts by default. */
+    public static final int DEFAULT_ALL_PAIRS_LIMIT = 8192;
+
+    private static final RelaxKernel KERNEL = RelaxKernel.select();
+
+    /**
+     * Returns whether the SIMD kernel is in use. It needs the incubating Vector API
+     * ({@code --add-modules jdk.incubator.vector}) and can be turned off with
+     * {@code -Dgraph.vector=false}; otherwise the scalar loops are used.
+     *
+     * @return true if block relaxation runs on the Vector API
+     */
+    public static boolean isVectorized() {
+        return KERNEL != RelaxKernel.SCALAR;
+    }
+
+    /**
+     * Computes distances from every source in {@code sources}.
+     *
+     * @param graph weighted CSR DAG
+     * @param sources source vertices (duplicates allowed)
+     * @param topo topological order of the DAG
+     * @param mode shortest or longest paths
+     * @return distance matrix with one row per source, in the order given
+     */
+    public static DistanceMatrix compute(CSRGraph graph, int[] sources, int[] topo, PathMode mode) {
+        return compute(graph, sources, topo, mode, DEFAULT_BATCH_SIZE, null);
+    }
+
+    /**
+     * Computes distances from every source in {@code sources} on the calling thread, with metrics.
+     * Relaxations count one per edge per block, since a block is relaxed as a unit.
+     *
+     * @param graph weighted CSR DAG
+     * @param sources source vertices (duplicates allowed)
+     * @param topo topological order of the DAG
+     * @param mode shortest or longest paths
+     * @param batchSize sources per topological pass
+     * @param metrics metrics collector for operation counting
+     * @return distance matrix with one row per source, in the order given
+     */
+    public static DistanceMatrix compute(CSRGraph graph, int[] sources, int[] topo, PathMode mode,
+                                         int batchSize, Metrics metrics) {
+        return run(graph, sources, topo, mode, batchSize, false, metrics);
+    }
+
+    /**
+     * Computes distances from every source in {@code sources}, relaxing the source
+     * blocks in parallel on the current ForkJoin pool.
+     *
+     * @param graph weighted CSR DAG
+     * @param sources source vertices (duplicates allowed)
+     * @param topo topological order of the DAG
+     * @param mode shortest or longest paths
+     * @return distance matrix with one row per source, in the order given
+     */
+    public static DistanceMatrix computeParallel(CSRGraph graph, int[] sources, int[] topo, PathMode mode) {
+        return run(graph, sources, topo, mode, DEFAULT_BATCH_SIZE, true, null);
+    }
+
+    /**
+     * Computes distances between all pairs of vertices of a DAG with at most
+     * {@link #DEFAULT_ALL_PAIRS_LIMIT} vertices.
+     *
+     * @param graph weighted CSR DAG
+     * @param topo topological order of the DAG
+     * @param mode shortest or longest paths
+     * @return distance matrix where row i holds the distances from vertex i
+     */
+    public static DistanceMatrix allPairs(CSRGraph graph, int[] topo, PathMode mode) {
+        return allPairs(graph, topo, mode, DEFAULT_ALL_PAIRS_LIMIT);
+    }
+
+    /**
+     * Computes distances between all pairs of vertices, relaxing the source blocks in
+     * parallel. The result holds n * n ints (longs for heavy weights), so the vertex count is capped.
+     *
+     * @param graph weighted CSR DAG
+     * @param topo topological order of the DAG
+     * @param mode shortest or longest paths
+     * @param maxVertices largest vertex count to accept
+     * @return distance matrix where row i holds the distances from vertex i
+     * @throws IllegalArgumentException if the DAG has more than {@code maxVertices} vertices
+     */
+    public static DistanceMatrix allPairs(CSRGraph graph, int[] topo, PathMode mode, int maxVertices) {
+        int n = graph.vertexCount();
+        if (n > maxVertices) {
+            throw new IllegalArgumentException(
+                "All-pairs paths limited to " + maxVertices + " vertices, graph has " + n);
+        }
+        int[] sources = new int[n];
+        for (int v = 0; v < n; v++) {
+            sources[v] = v;
+        }
+        return run(graph, sources, topo, mode, DEFAULT_BATCH_SIZE, true, null);
+    }
+
+    private static DistanceMatrix run(CSRGraph graph, int[] sources, int[] topo, PathMode mode,
+                                      int batchSize, boolean parallel, Metrics metrics) {
+        long startTime = System.nanoTime();
+        int n = graph.vertexCount();
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        if ((long) n * batchSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Distance block of " + n + " x " + batchSize + " is too large");
+        }
+        for (int s : sources) {
+            if (s < 0 || s >= n) {
+                throw new IllegalArgumentException("Source " + s + " out of range [0, " + n + ")");
+            }
+        }
+
+        int blockCount = (sources.length + batchSize - 1) / batchSize;
+        boolean compact = DistanceEngine.fitsInt(graph);
+        int[][] compactBlocks = compact ? new int[blockCount][] : null;
+        long[][] wideBlocks = compact ? null : new long[blockCount][];
+        if (parallel) {
+            ParallelLoops.parallelFor(ParallelLoops.currentPool(), blockCount, 2, b -> {
+                if (compact) {
+                    compactBlocks[b] = relaxCompactBlock(graph, topo, sources, b * batchSize, batchSize, mode, null);
+                } else {
+                    wideBlocks[b] = relaxWideBlock(graph, topo, sources, b * batchSize, batchSize, mode, null);
+                }
+            });
+        } else {
+            for (int b = 0; b < blockCount; b++) {
+                if (compact) {
+                    compactBlocks[b] = relaxCompactBlock(graph, topo, sources, b * batchSize, batchSize, mode, metrics);
+                } else {
+                    wideBlocks[b] = relaxWideBlock(graph, topo, sources, b * batchSize, batchSize, mode, metrics);
+                }
+            }
+        }
+
+        if (metrics != null) {
+            long endTime = System.nanoTime();
+            metrics.recordTime(endTime - startTime);
+        }
+        return new DistanceMatrix(sources.clone(), n, batchSize, compactBlocks, wideBlocks, mode);
+    }
+
+    /**
+     * Relaxes sources [from, from + width) together in one topological pass over int distances.
+     */
+    private static int[] relaxCompactBlock(CSRGraph graph, int[] topo, int[] sources, int from, int batchSize,
+                                           PathMode mode, Metrics metrics) {
+        int width = Math.min(batchSize, sources.length - from);
+        int unreachable = DistanceEngine.compactUnreachable(mode);
+        boolean longest = mode == PathMode.LONGEST;
+        int[] dist = new int[graph.vertexCount() * width];
+        Arrays.fill(dist, unreachable);
+        for (int k = 0; k < width; k++) {
+            dist[sources[from + k] * width + k] = 0;
+        }
+
+        long relaxations = 0;
+        for (int u : topo) {
+            int ub = u * width;
+            if (!anyReachable(dist, ub, width, unreachable)) {
+                continue;
+            }
+            int start = graph.edgeStart(u);
+            int end = graph.edgeEnd(u);
+            relaxations += end - start;
+            for (int e = start; e < end; e++) {
+                int vb = graph.target(e) * width;
+                int w = graph.weight(e);
+                KERNEL.relax(dist, ub, vb, width, w, unreachable, longest);
+            }
+        }
+        if (metrics != null) {
+            metrics.addRelaxations(relaxations);
+        }
+        return dist;
+    }
+
+    /**
+     * Relaxes sources [from, from + width) together in one topological pass over long distances.
+     */
+    private static long[] relaxWideBlock(CSRGraph graph, int[] topo, int[] sources, int from, int batchSize,
+                                         PathMode mode, Metrics metrics) {
+        int width = Math.min(batchSize, sources.length - from);
+        long unreachable = mode.getUnreachableLong();
+        boolean longest = mode == PathMode.LONGEST;
+        long[] dist = new long[graph.vertexCount() * width];
+        Arrays.fill(dist, unreachable);
+        for (int k = 0; k < width; k++) {
+            dist[sources[from + k] * width + k] = 0;
+        }
+
+        long relaxations = 0;
+        for (int u : topo) {
+            int ub = u * width;
+            if (!anyReachable(dist, ub, width, unreachable)) {
+                continue;
+            }
+            int start = graph.edgeStart(u);
+            int end = graph.edgeEnd(u);
+            relaxations += end - start;
+            for (int e = start; e < end; e++) {
+                KERNEL.relax(dist, ub, graph.target(e) * width, width, graph.weight(e), unreachable, longest);
+            }
+        }
+        if (metrics != null) {
+            metrics.addRelaxations(relaxations);
+        }
+        return dist;
+    }
+
+    private static boolean anyReachable(long[] dist, int base, int width, long unreachable) {
+        for (int k = 0; k < width; k++) {
+            if (dist[base + k] != unreachable) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean anyReachable(int[] dist, int base, int width, int unreachable) {
+        for (int k = 0; k < width; k++) {
+            if (dist[base + k] != unreachable) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,175 @@
+package graph.dagsp;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Memory-bounded LRU cache of single-source results keyed by (graph version, source, mode).
+ * A hit returns the stored {@link PathDistances} without relaxing the DAG again; when the
+ * estimated size of all entries exceeds the budget, least recently used entries are evicted.
+ * <p>
+ * Versions identify a graph snapshot: whoever changes a graph gives it a new version and
+ * calls {@link #invalidate(long)} for the old one, which also retires it: results of a
+ * retired version are never stored, even if their computation started before the
+ * invalidation. Cached results are shared between callers, so their arrays must not be
+ * modified.
+ * <p>
+ * Thread-safe. Results are computed outside the lock, so two threads missing on the same
+ * key may both compute it; the first one stored wins.
+ */
+public class PathCache {
+    /**
+     * Default memory budget: 64 MiB of distance and parent arrays.
+     */
+    public static final long DEFAULT_MAX_BYTES = 64L << 20;
+
+    private final long maxBytes;
+    private final LinkedHashMap<Key, PathDistances> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<Long> retired = new HashSet<>();
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public PathCache() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Creates a cache holding at most {@code maxBytes} of results.
+     *
+     * @param maxBytes memory budget in bytes
+     */
+    public PathCache(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive");
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the cached result for a key, computing and storing it on a miss.
+     *
+     * @param version graph version
+     * @param source source vertex
+     * @param mode shortest or longest paths
+     * @param compute computes the result on a miss
+     * @return cached or freshly computed distances
+     */
+    public PathDistances get(long version, int source, PathMode mode, Supplier<PathDistances> compute) {
+        Key key = new Key(version, source, mode);
+        synchronized (this) {
+            PathDistances cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+        }
+
+        PathDistances result = compute.get();
+        long size = result.sizeInBytes();
+        if (size > maxBytes) {
+            return result;
+        }
+        synchronized (this) {
+            if (retired.contains(version)) {
+                // Invalidated while computing: storing it would only hold budget until evicted
+                return result;
+            }
+            PathDistances existing = entries.putIfAbsent(key, result);
+            if (existing != null) {
+                return existing;
+            }
+            bytes += size;
+            Iterator<PathDistances> lru = entries.values().iterator();
+            while (bytes > maxBytes) {
+                bytes -= lru.next().sizeInBytes();
+                lru.remove();
+                evictions++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Drops every entry of a graph version and retires it, so results for it that are
+     * still being computed are not stored either.
+     *
+     * @param version graph version that is no longer current
+     * @return number of entries removed
+     */
+    public synchronized int invalidate(long version) {
+        retired.add(version);
+        int removed = 0;
+        Iterator<Map.Entry<Key, PathDistances>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Key, PathDistances> entry = it.next();
+            if (entry.getKey().version == version) {
+                bytes -= entry.getValue().sizeInBytes();
+                it.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    private static final class Key {
+        final long version;
+        final int source;
+        final PathMode mode;
+
+        Key(long version, int source, PathMode mode) {
+            this.version = version;
+            this.source = source;
+            this.mode = mode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return version == other.version && source == other.source && mode == other.mode;
+        }
+
+        @Override
+        public int hashCode() {
+            return (Long.hashCode(version) * 31 + source) * 31 + mode.hashCode();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package graph.dagsp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Single-source distances from {@link DistanceEngine}, backed either by a {@code long[]}
+ * or, when the graph's path length bound fits, by a compact {@code int[]}. Both forms
+ * read back as {@code long}, with {@link PathMode#getUnreachableLong()} for vertices
+ * the source cannot reach.
+ */
+public class PathDistances {
+    private final PathMode mode;
+    private final long[] wide;
+    private final int[] compact;
+    private final int[] parents;
+
+    PathDistances(PathMode mode, long[] wide, int[] compact, int[] parents) {
+        this.mode = mode;
+        this.wide = wide;
+        this.compact = compact;
+        this.parents = parents;
+    }
+
+    /**
+     * Returns the objective the distances were computed for.
+     *
+     * @return path mode
+     */
+    public PathMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Returns the number of vertices.
+     *
+     * @return vertex count
+     */
+    public int size() {
+        return parents.length;
+    }
+
+    /**
+     * Returns whether the distances are stored as ints.
+     *
+     * @return true for the compact int representation
+     */
+    public boolean isCompact() {
+        return compact != null;
+    }
+
+    /**
+     * Returns whether the source reaches {@code v}.
+     *
+     * @param v vertex
+     * @return true if v has a finite distance
+     */
+    public boolean isReachable(int v) {
+        if (compact != null) {
+            return compact[v] != DistanceEngine.compactUnreachable(mode);
+        }
+        return wide[v] != mode.getUnreachableLong();
+    }
+
+    /**
+     * Returns the distance from the source to {@code v}.
+     *
+     * @param v vertex
+     * @return distance, or {@link PathMode#getUnreachableLong()} if v is unreachable
+     */
+    public long get(int v) {
+        if (compact != null) {
+            return isReachable(v) ? compact[v] : mode.getUnreachableLong();
+        }
+        return wide[v];
+    }
+
+    /**
+     * Copies all distances into a long array.
+     *
+     * @return distances, unreachable vertices holding {@link PathMode#getUnreachableLong()}
+     */
+    public long[] toLongArray() {
+        if (wide != null) {
+            return wide.clone();
+        }
+        long[] result = new long[compact.length];
+        for (int v = 0; v < result.length; v++) {
+            result[v] = get(v);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the predecessor of every vertex on its best path, see {@link #pathTo(int)}.
+     *
+     * @return parent array, -1 for the source and unreachable vertices
+     */
+    public int[] getParents() {
+        return parents;
+    }
+
+    /**
+     * Returns the best path from the source to {@code v}. Unlike
+     * {@link DAGShortestPaths#reconstructPath(int[], int)}, which takes a parentless vertex
+     * other than 0 for unreachable, this decides by distance, so it also works when the
+     * source is not vertex 0 (for example a sink component under topological numbering).
+     *
+     * @param v target vertex
+     * @return vertices from the source to v, or an empty list if v is unreachable
+     */
+    public List<Integer> pathTo(int v) {
+        List<Integer> path = new ArrayList<>();
+        if (!isReachable(v)) {
+            return path;
+        }
+        for (int u = v; u != -1; u = parents[u]) {
+            path.add(u);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Estimates the heap footprint of the distance and parent arrays.
+     *
+     * @return approximate size in bytes
+     */
+    long sizeInBytes() {
+        long distanceBytes = compact != null ? 4L * compact.length : 8L * wide.length;
+        return distanceBytes + 4L * parents.length;
+    }
+
+    /**
+     * Finds the reachable vertex with the largest distance; for longest paths its
+     * distance is the critical path length.
+     *
+     * @return vertex with the maximum distance (lowest id on ties), or -1 if none is reachable
+     */
+    public int farthestVertex() {
+        int best = -1;
+        for (int v = 0; v < size(); v++) {
+            if (isReachable(v) && (best == -1 || get(v) > get(best))) {
+                best = v;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,40 @@
+package graph.dagsp;
+
+/**
+ * Objective of a DAG path computation.
+ */
+public enum PathMode {
+    /** Minimize the total weight. */
+    SHORTEST(1_000_000, Long.MAX_VALUE),
+
+    /** Maximize the total weight (critical path). */
+    LONGEST(-1_000_000, Long.MIN_VALUE);
+
+    private final int unreachable;
+    private final long unreachableLong;
+
+    PathMode(int unreachable, long unreachableLong) {
+        this.unreachable = unreachable;
+        this.unreachableLong = unreachableLong;
+    }
+
+    /**
+     * Returns the distance reported for vertices the source cannot reach.
+     *
+     * @return unreachable marker, the same value {@link DAGShortestPaths} uses
+     */
+    public int getUnreachable() {
+        return unreachable;
+    }
+
+    /**
+     * Returns the marker {@link DistanceEngine} reports for unreachable vertices:
+     * {@link Long#MAX_VALUE} for shortest and {@link Long#MIN_VALUE} for longest paths,
+     * which no real path length can reach.
+     *
+     * @return unreachable marker for long distances
+     */
+    public long getUnreachableLong() {
+        return unreachableLong;
+    }
+}
@@ -0,0 +1,227 @@
+package graph.dagsp;
+
+import graph.csr.CSRGraph;
+import graph.metrics.Metrics;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Keeps a single-source shortest or longest path result up to date while edge weights
+ * change, instead of relaxing the whole DAG again.
+ * <p>
+ * Only vertices after the earliest changed edge in topological order can be affected.
+ * Heads of changed edges are marked dirty, and dirty vertices are visited in topological
+ * order; each one re-pulls its distance from its in-edges. Only if the distance actually
+ * changed are its successors marked dirty, so the repair stops as soon as distances
+ * stabilize. Ties are broken like {@link DistanceEngine} (earliest predecessor in
+ * topological order), so distances and parents match a full recomputation.
+ * <p>
+ * The repairer owns a copy of the weights: the graph passed in supplies structure and
+ * initial weights, and {@link #applyDeltas} changes the copy. Weights stay in the int
+ * range, and a batch that would push one outside it is rejected. Distances are
+ * {@code long} with the {@link PathMode#getUnreachableLong()} markers, so like
+ * {@link DistanceEngine} they can neither overflow nor collide with a marker.
+ */
+public class PathRepair {
+    private final CSRGraph graph;
+    private final int[] topo;
+    private final int src;
+    private final PathMode mode;
+    private final int[] weights;
+    private final int[] position;
+    private final int[] inStart;
+    private final int[] inEdges;
+    private final int[] edgeSource;
+    private final long[] dist;
+    private final int[] parent;
+    private final BitSet dirty;
+    private long relaxations;
+
+    /**
+     * Computes the initial paths from scratch.
+     *
+     * @param graph weighted CSR DAG
+     * @param src source vertex
+     * @param topo topological order of the DAG
+     * @param mode shortest or longest paths
+     */
+    public PathRepair(CSRGraph graph, int src, int[] topo, PathMode mode) {
+        this(graph, src, topo, DistanceEngine.compute(graph, src, topo, mode, false, null));
+    }
+
+    /**
+     * Starts from an existing result, which must have been computed on {@code graph}'s
+     * current weights. The result's arrays are copied.
+     *
+     * @param graph weighted CSR DAG
+     * @param src source vertex
+     * @param topo topological order of the DAG
+     * @param previous distances and parents for src, with the objective they were computed for
+     */
+    public PathRepair(CSRGraph graph, int src, int[] topo, PathDistances previous) {
+        int n = graph.vertexCount();
+        int m = graph.edgeCount();
+        this.graph = graph;
+        this.topo = topo;
+        this.src = src;
+        this.mode = previous.getMode();
+        this.dist = previous.toLongArray();
+        this.parent = previous.getParents().clone();
+        this.dirty = new BitSet(topo.length);
+
+        this.weights = new int[m];
+        this.edgeSource = new int[m];
+        this.inStart = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                weights[e] = graph.weight(e);
+                edgeSource[e] = u;
+                inStart[graph.target(e) + 1]++;
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            inStart[v + 1] += inStart[v];
+        }
+        this.inEdges = new int[m];
+        int[] fill = new int[n];
+        for (int e = 0; e < m; e++) {
+            int v = graph.target(e);
+            inEdges[inStart[v] + fill[v]++] = e;
+        }
+
+        this.position = new int[n];
+        Arrays.fill(position, -1);
+        for (int p = 0; p < topo.length; p++) {
+            position[topo[p]] = p;
+        }
+    }
+
+    /**
+     * Returns the current result. The arrays are live and change with later repairs.
+     *
+     * @return distances and parents
+     */
+    public PathDistances getResult() {
+        return new PathDistances(mode, dist, null, parent);
+    }
+
+    /**
+     * Returns the current weight of an edge.
+     *
+     * @param e edge index in the CSR graph
+     * @return weight including all applied deltas
+     */
+    public int getWeight(int e) {
+        return weights[e];
+    }
+
+    /**
+     * Adds {@code deltas[i]} to the weight of edge {@code edges[i]} and repairs the paths.
+     * If any resulting weight would leave the int range, no weight is changed.
+     *
+     * @param edges CSR edge indices
+     * @param deltas weight changes, parallel to edges
+     * @return number of vertices whose distance was recomputed
+     */
+    public int applyDeltas(int[] edges, int[] deltas) {
+        return applyDeltas(edges, deltas, null);
+    }
+
+    /**
+     * Adds weight deltas and repairs the paths with metrics tracking.
+     *
+     * @param edges CSR edge indices
+     * @param deltas weight changes, parallel to edges
+     * @param metrics metrics collector for operation counting
+     * @return number of vertices whose distance was recomputed
+     * @throws IllegalArgumentException if an edge is out of range or a weight would overflow
+     */
+    public int applyDeltas(int[] edges, int[] deltas, Metrics metrics) {
+        long startTime = System.nanoTime();
+        if (edges.length != deltas.length) {
+            throw new IllegalArgumentException("edges and deltas must have the same length");
+        }
+        for (int e : edges) {
+            if (e < 0 || e >= weights.length) {
+                throw new IllegalArgumentException("Edge " + e + " out of range [0, " + weights.length + ")");
+            }
+        }
+        for (int i = 0; i < edges.length; i++) {
+            int e = edges[i];
+            try {
+                weights[e] = Math.addExact(weights[e], deltas[i]);
+            } catch (ArithmeticException overflow) {
+                // Undo this batch so the weights still match the distances
+                for (int j = i - 1; j >= 0; j--) {
+                    weights[edges[j]] -= deltas[j];
+                }
+                dirty.clear();
+                throw new IllegalArgumentException("Weight of edge " + e + " overflows int");
+            }
+            int p = position[graph.target(e)];
+            if (p >= 0 && deltas[i] != 0) {
+                dirty.set(p);
+            }
+        }
+
+        int touched = 0;
+        relaxations = 0;
+        for (int p = dirty.nextSetBit(0); p >= 0; p = dirty.nextSetBit(p + 1)) {
+            dirty.clear(p);
+            int v = topo[p];
+            if (v == src) {
+                continue;
+            }
+            touched++;
+            if (pull(v)) {
+                for (int e = graph.edgeStart(v), end = graph.edgeEnd(v); e < end; e++) {
+                    int q = position[graph.target(e)];
+                    if (q >= 0) {
+                        dirty.set(q);
+                    }
+                }
+            }
+        }
+
+        if (metrics != null) {
+            metrics.addRelaxations(relaxations);
+            long endTime = System.nanoTime();
+            metrics.recordTime(endTime - startTime);
+        }
+        return touched;
+    }
+
+    /**
+     * Recomputes v from its in-edges.
+     *
+     * @return true if the distance changed
+     */
+    private boolean pull(int v) {
+        long unreachable = mode.getUnreachableLong();
+        boolean longest = mode == PathMode.LONGEST;
+        long best = unreachable;
+        int bestParent = -1;
+        for (int i = inStart[v], end = inStart[v + 1]; i < end; i++) {
+            int e = inEdges[i];
+            int u = edgeSource[e];
+            long du = dist[u];
+            if (du == unreachable || position[u] < 0) {
+                continue;
+            }
+            relaxations++;
+            long candidate = du + weights[e];
+            boolean better = longest ? candidate > best : candidate < best;
+            if (better || candidate == best && bestParent != -1 && position[u] < position[bestParent]) {
+                best = candidate;
+                bestParent = u;
+            }
+        }
+        parent[v] = bestParent;
+        if (best == dist[v]) {
+            return false;
+        }
+        dist[v] = best;
+        return true;
+    }
+}
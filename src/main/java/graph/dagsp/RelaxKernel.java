@@ -0,0 +1,76 @@
+package graph.dagsp;
+
+/**
+ * Relaxes one edge for a whole block of sources: for every lane k in [0, width),
+ * {@code dist[vb + k]} becomes the min (or max) of itself and {@code dist[ub + k] + weight},
+ * where lanes holding the unreachable marker stay unreachable.
+ * <p>
+ * The int form is only used when {@link DistanceEngine#fitsInt} holds, with
+ * {@link Integer#MAX_VALUE}/{@link Integer#MIN_VALUE} as markers; the long form uses
+ * {@link PathMode#getUnreachableLong()}. Either way no real length can overflow or equal a marker.
+ */
+interface RelaxKernel {
+
+    /** System property that disables the SIMD kernel when set to {@code false}. */
+    String VECTOR_PROPERTY = "graph.vector";
+
+    void relax(int[] dist, int ub, int vb, int width, int weight, int unreachable, boolean longest);
+
+    void relax(long[] dist, int ub, int vb, int width, int weight, long unreachable, boolean longest);
+
+    /** Plain Java loops; the JIT may still auto-vectorize them. */
+    RelaxKernel SCALAR = new RelaxKernel() {
+        @Override
+        public void relax(int[] dist, int ub, int vb, int width, int weight, int unreachable, boolean longest) {
+            if (longest) {
+                for (int k = 0; k < width; k++) {
+                    int d = dist[ub + k];
+                    int candidate = d == unreachable ? unreachable : d + weight;
+                    dist[vb + k] = Math.max(dist[vb + k], candidate);
+                }
+            } else {
+                for (int k = 0; k < width; k++) {
+                    int d = dist[ub + k];
+                    int candidate = d == unreachable ? unreachable : d + weight;
+                    dist[vb + k] = Math.min(dist[vb + k], candidate);
+                }
+            }
+        }
+
+        @Override
+        public void relax(long[] dist, int ub, int vb, int width, int weight, long unreachable, boolean longest) {
+            if (longest) {
+                for (int k = 0; k < width; k++) {
+                    long d = dist[ub + k];
+                    long candidate = d == unreachable ? unreachable : d + weight;
+                    dist[vb + k] = Math.max(dist[vb + k], candidate);
+                }
+            } else {
+                for (int k = 0; k < width; k++) {
+                    long d = dist[ub + k];
+                    long candidate = d == unreachable ? unreachable : d + weight;
+                    dist[vb + k] = Math.min(dist[vb + k], candidate);
+                }
+            }
+        }
+    };
+
+    /**
+     * Picks the SIMD kernel when the {@code jdk.incubator.vector} module is present
+     * (run with {@code --add-modules jdk.incubator.vector}), the hardware has more than
+     * one int lane, and {@code -Dgraph.vector=false} is not set; otherwise the scalar one.
+     *
+     * @return kernel to use for this JVM
+     */
+    static RelaxKernel select() {
+        if (!Boolean.parseBoolean(System.getProperty(VECTOR_PROPERTY, "true"))
+                || ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return SCALAR;
+        }
+        try {
+            return VectorRelaxKernel.isUseful() ? new VectorRelaxKernel() : SCALAR;
+        } catch (LinkageError e) {
+            return SCALAR;
+        }
+    }
+}
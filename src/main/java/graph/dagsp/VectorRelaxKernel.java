@@ -0,0 +1,56 @@
+package graph.dagsp;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link RelaxKernel} on the incubating Vector API: each edge is relaxed for
+ * {@code SPECIES.length()} sources per instruction using lane-wise add, compare,
+ * blend and min/max. Long blocks use half as many lanes, and fall back to the scalar
+ * loop where the hardware has only one long lane. Only loaded after
+ * {@link RelaxKernel#select()} has checked that the module is present.
+ */
+final class VectorRelaxKernel implements RelaxKernel {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONG_SPECIES = LongVector.SPECIES_PREFERRED;
+
+    static boolean isUseful() {
+        return SPECIES.length() > 1;
+    }
+
+    @Override
+    public void relax(int[] dist, int ub, int vb, int width, int weight, int unreachable, boolean longest) {
+        int k = 0;
+        for (int bound = SPECIES.loopBound(width); k < bound; k += SPECIES.length()) {
+            IntVector du = IntVector.fromArray(SPECIES, dist, ub + k);
+            IntVector dv = IntVector.fromArray(SPECIES, dist, vb + k);
+            VectorMask<Integer> unreached = du.compare(VectorOperators.EQ, unreachable);
+            IntVector candidate = du.add(weight).blend(unreachable, unreached);
+            (longest ? dv.max(candidate) : dv.min(candidate)).intoArray(dist, vb + k);
+        }
+        if (k < width) {
+            SCALAR.relax(dist, ub + k, vb + k, width - k, weight, unreachable, longest);
+        }
+    }
+
+    @Override
+    public void relax(long[] dist, int ub, int vb, int width, int weight, long unreachable, boolean longest) {
+        int k = 0;
+        if (LONG_SPECIES.length() > 1) {
+            for (int bound = LONG_SPECIES.loopBound(width); k < bound; k += LONG_SPECIES.length()) {
+                LongVector du = LongVector.fromArray(LONG_SPECIES, dist, ub + k);
+                LongVector dv = LongVector.fromArray(LONG_SPECIES, dist, vb + k);
+                VectorMask<Long> unreached = du.compare(VectorOperators.EQ, unreachable);
+                LongVector candidate = du.add(weight).blend(unreachable, unreached);
+                (longest ? dv.max(candidate) : dv.min(candidate)).intoArray(dist, vb + k);
+            }
+        }
+        if (k < width) {
+            SCALAR.relax(dist, ub + k, vb + k, width - k, weight, unreachable, longest);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package graph.dynamic;
+
+/**
+ * Describes how one edge update changed the components, condensation and topological
+ * order of a {@link DynamicSCC}, so caches can invalidate only what is affected.
+ */
+public class ComponentChange {
+
+    /** Kind of update. */
+    public enum Kind {
+        /** An edge was inserted without creating a cycle between components. */
+        EDGE_INSERTED,
+        /** An edge was deleted without breaking a component apart. */
+        EDGE_DELETED,
+        /** An inserted edge closed a cycle; the components on it were merged. */
+        COMPONENTS_MERGED,
+        /** A deleted edge broke a component into several. */
+        COMPONENT_SPLIT
+    }
+
+    private final Kind kind;
+    private final long version;
+    private final int[] affected;
+    private final int[] removed;
+    private final int[] created;
+    private final int[] reordered;
+
+    ComponentChange(Kind kind, long version, int[] affected, int[] removed, int[] created, int[] reordered) {
+        this.kind = kind;
+        this.version = version;
+        this.affected = affected;
+        this.removed = removed;
+        this.created = created;
+        this.reordered = reordered;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Returns the structure's version after this change.
+     *
+     * @return version number, incremented by every update
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the live components whose members or incident condensation edges changed.
+     *
+     * @return component ids
+     */
+    public int[] getAffectedComponents() {
+        return affected;
+    }
+
+    /**
+     * Returns the ids that no longer exist because their components were merged away.
+     *
+     * @return removed component ids
+     */
+    public int[] getRemovedComponents() {
+        return removed;
+    }
+
+    /**
+     * Returns ids newly assigned to pieces of a split component.
+     *
+     * @return created component ids
+     */
+    public int[] getCreatedComponents() {
+        return created;
+    }
+
+    /**
+     * Returns the live components whose place in the topological order changed relative
+     * to other components. Merges and splits also shift the numeric positions of every
+     * later component, without changing their relative order.
+     *
+     * @return component ids
+     */
+    public int[] getReorderedComponents() {
+        return reordered;
+    }
+
+    /**
+     * Returns whether the relative topological order of components changed.
+     *
+     * @return true if any component moved
+     */
+    public boolean isOrderChanged() {
+        return reordered.length > 0;
+    }
+}
@@ -0,0 +1,16 @@
+package graph.dynamic;
+
+/**
+ * Receives a {@link ComponentChange} after every edge insertion or deletion applied
+ * to a {@link DynamicSCC}.
+ */
+@FunctionalInterface
+public interface ComponentChangeListener {
+
+    /**
+     * Called once the structure is consistent again, on the thread that made the change.
+     *
+     * @param change what changed
+     */
+    void onChange(ComponentChange change);
+}
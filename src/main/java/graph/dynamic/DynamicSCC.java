@@ -0,0 +1,877 @@
+package graph.dynamic;
+
+import graph.csr.ArrayCSRGraph;
+import graph.csr.CSRGraph;
+import graph.scc.SCCFinder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Strongly connected components, condensation DAG and topological order of components,
+ * maintained under edge insertions and deletions instead of being recomputed.
+ * <ul>
+ *   <li>Insertion between components uses Pearce-Kelly: if the edge violates the current
+ *       order, only components whose positions lie between its endpoints are searched and
+ *       reordered. If the edge closes a cycle, the components on it (those both reachable
+ *       from the head and reaching the tail) are merged into one.</li>
+ *   <li>Deletion inside a component first checks whether the tail still reaches the head
+ *       within the component; only if not is Tarjan rerun on that component's members,
+ *       and the pieces take its place in the order.</li>
+ * </ul>
+ * The graph is a multigraph over a fixed vertex set [0, n). Each condensation edge keeps
+ * the number of original edges it stands for and their minimum weight. Component ids
+ * stay in [0, n) and are reused after merges. Merges and splits shift later positions,
+ * which costs O(C) array moves; ordinary updates touch only the affected region.
+ * Listeners are notified after every update. Not thread-safe.
+ */
+public class DynamicSCC {
+
+    private final int n;
+
+    // Vertex adjacency in both directions, one growable array per vertex
+    private final int[][] outTargets;
+    private final int[][] outWeights;
+    private final int[] outDegree;
+    private final int[][] inSources;
+    private final int[][] inWeights;
+    private final int[] inDegree;
+    private int edgeCount;
+
+    private final int[] componentId;
+    private final int[][] members;
+    private final int[] memberCount;
+    private final int[] freeIds;
+    private int freeCount;
+
+    private final Map<Integer, CondensedEdge>[] condensedOut;
+    private final Map<Integer, CondensedEdge>[] condensedIn;
+
+    // order[p] is the component at topological position p, for p < componentCount
+    private final int[] order;
+    private final int[] position;
+    private int componentCount;
+
+    // Scratch space, stamped so it never needs clearing
+    private final int[] forwardMark;
+    private final int[] backwardMark;
+    private final int[] componentMark;
+    private int componentStamp;
+    private final int[] vertexMark;
+    private int vertexStamp;
+    private final int[] scratchA;
+    private final int[] scratchB;
+    private final int[] scratchC;
+    private final int[] componentStack;
+    private final int[] tarjanIndex;
+    private final int[] tarjanLow;
+    private final boolean[] onStack;
+
+    private long version;
+    private final List<ComponentChangeListener> listeners = new ArrayList<>();
+
+    /**
+     * Creates a graph with n vertices and no edges; every vertex is its own component.
+     *
+     * @param n number of vertices
+     */
+    public DynamicSCC(int n) {
+        this(n, null);
+    }
+
+    /**
+     * Creates a dynamic copy of a graph, computing its initial components with Tarjan.
+     *
+     * @param graph initial graph (weights are kept; unweighted edges get weight 1)
+     */
+    public DynamicSCC(CSRGraph graph) {
+        this(graph.vertexCount(), graph);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private DynamicSCC(int n, CSRGraph graph) {
+        this.n = n;
+        this.outTargets = new int[n][];
+        this.outWeights = new int[n][];
+        this.outDegree = new int[n];
+        this.inSources = new int[n][];
+        this.inWeights = new int[n][];
+        this.inDegree = new int[n];
+        this.componentId = new int[n];
+        this.members = new int[n][];
+        this.memberCount = new int[n];
+        this.freeIds = new int[n];
+        this.condensedOut = new Map[n];
+        this.condensedIn = new Map[n];
+        this.order = new int[n];
+        this.position = new int[n];
+        this.forwardMark = new int[n];
+        this.backwardMark = new int[n];
+        this.componentMark = new int[n];
+        this.vertexMark = new int[n];
+        this.scratchA = new int[n];
+        this.scratchB = new int[n];
+        this.scratchC = new int[n];
+        this.componentStack = new int[n];
+        this.tarjanIndex = new int[n];
+        this.tarjanLow = new int[n];
+        this.onStack = new boolean[n];
+
+        if (graph == null) {
+            for (int v = 0; v < n; v++) {
+                componentId[v] = v;
+                members[v] = new int[]{v};
+                memberCount[v] = 1;
+                order[v] = v;
+                position[v] = v;
+            }
+            componentCount = n;
+            return;
+        }
+
+        for (int u = 0; u < n; u++) {
+            for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                appendEdge(u, graph.target(e), graph.weight(e));
+            }
+        }
+
+        // Tarjan numbers components in topological order
+        SCCFinder sccFinder = new SCCFinder(graph);
+        componentCount = sccFinder.getComponentCount();
+        int[] sizes = sccFinder.getComponentSizes();
+        for (int c = 0; c < componentCount; c++) {
+            members[c] = new int[sizes[c]];
+            order[c] = c;
+            position[c] = c;
+        }
+        for (int v = 0; v < n; v++) {
+            int c = sccFinder.getComponentId(v);
+            componentId[v] = c;
+            members[c][memberCount[c]++] = v;
+        }
+        for (int c = n - 1; c >= componentCount; c--) {
+            freeIds[freeCount++] = c;
+        }
+        for (int u = 0; u < n; u++) {
+            for (int i = 0; i < outDegree[u]; i++) {
+                int v = outTargets[u][i];
+                if (componentId[u] != componentId[v]) {
+                    addCondensedEdge(componentId[u], componentId[v], outWeights[u][i]);
+                }
+            }
+        }
+    }
+
+    // -------------------- Queries --------------------
+
+    public int vertexCount() {
+        return n;
+    }
+
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    /**
+     * Returns the version, incremented by every successful update.
+     *
+     * @return current version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public int getComponentId(int vertex) {
+        checkVertex(vertex);
+        return componentId[vertex];
+    }
+
+    /**
+     * Returns the vertices of a live component.
+     *
+     * @param component component id
+     * @return copy of the member vertices, in no particular order
+     */
+    public int[] getComponentMembers(int component) {
+        return Arrays.copyOf(members[component], memberCount[component]);
+    }
+
+    /**
+     * Returns the topological position of a live component.
+     *
+     * @param component component id
+     * @return position in [0, getComponentCount())
+     */
+    public int getPosition(int component) {
+        return position[component];
+    }
+
+    /**
+     * Returns the live components in topological order.
+     *
+     * @return component ids, sources first
+     */
+    public int[] getTopologicalOrder() {
+        return Arrays.copyOf(order, componentCount);
+    }
+
+    /**
+     * Snapshots the condensation DAG. Vertex p of the result is the component at
+     * topological position p, so the identity order 0..C-1 is topological; map back
+     * with {@link #getTopologicalOrder()}.
+     *
+     * @return weighted CSR condensation, each edge carrying the minimum original weight
+     */
+    public CSRGraph toCondensationGraph() {
+        int m = 0;
+        for (int p = 0; p < componentCount; p++) {
+            m += outMap(order[p]).size();
+        }
+        int[] sources = new int[m];
+        int[] destinations = new int[m];
+        int[] weights = new int[m];
+        int k = 0;
+        for (int p = 0; p < componentCount; p++) {
+            for (Map.Entry<Integer, CondensedEdge> entry : outMap(order[p]).entrySet()) {
+                sources[k] = p;
+                destinations[k] = position[entry.getKey()];
+                weights[k] = entry.getValue().minWeight;
+                k++;
+            }
+        }
+        return ArrayCSRGraph.fromEdges(componentCount, sources, destinations, weights, m);
+    }
+
+    public void addListener(ComponentChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(ComponentChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    // -------------------- Updates --------------------
+
+    /**
+     * Inserts an edge of weight 1.
+     *
+     * @param u tail vertex
+     * @param v head vertex
+     */
+    public void addEdge(int u, int v) {
+        addEdge(u, v, 1);
+    }
+
+    /**
+     * Inserts an edge. Parallel edges are allowed.
+     *
+     * @param u tail vertex
+     * @param v head vertex
+     * @param weight edge weight
+     */
+    public void addEdge(int u, int v, int weight) {
+        checkVertex(u);
+        checkVertex(v);
+        appendEdge(u, v, weight);
+        version++;
+
+        int cu = componentId[u];
+        int cv = componentId[v];
+        if (cu == cv) {
+            fire(ComponentChange.Kind.EDGE_INSERTED, new int[]{cu}, new int[0], new int[0], new int[0]);
+            return;
+        }
+        addCondensedEdge(cu, cv, weight);
+        if (position[cu] < position[cv]) {
+            fire(ComponentChange.Kind.EDGE_INSERTED, new int[]{cu, cv}, new int[0], new int[0], new int[0]);
+            return;
+        }
+        reorder(cu, cv);
+    }
+
+    /**
+     * Deletes one edge from u to v (the most recently added one if there are several).
+     *
+     * @param u tail vertex
+     * @param v head vertex
+     * @return false if there is no such edge
+     */
+    public boolean removeEdge(int u, int v) {
+        checkVertex(u);
+        checkVertex(v);
+        int i = lastIndexOf(outTargets[u], outDegree[u], v);
+        if (i < 0) {
+            return false;
+        }
+        int weight = outWeights[u][i];
+        outDegree[u] = removeAt(outTargets[u], outWeights[u], outDegree[u], i);
+        int j = inDegree[v] - 1;
+        while (inSources[v][j] != u || inWeights[v][j] != weight) {
+            j--;
+        }
+        inDegree[v] = removeAt(inSources[v], inWeights[v], inDegree[v], j);
+        edgeCount--;
+        version++;
+
+        int cu = componentId[u];
+        int cv = componentId[v];
+        if (cu != cv) {
+            CondensedEdge edge = outMap(cu).get(cv);
+            if (--edge.count == 0) {
+                outMap(cu).remove(cv);
+                inMap(cv).remove(cu);
+            } else if (weight == edge.minWeight) {
+                edge.minWeight = minWeightBetween(cu, cv);
+            }
+            fire(ComponentChange.Kind.EDGE_DELETED, new int[]{cu, cv}, new int[0], new int[0], new int[0]);
+        } else if (reachesWithin(u, v, cu)) {
+            fire(ComponentChange.Kind.EDGE_DELETED, new int[]{cu}, new int[0], new int[0], new int[0]);
+        } else {
+            split(cu);
+        }
+        return true;
+    }
+
+    // -------------------- Insertion: Pearce-Kelly with merging --------------------
+
+    /**
+     * Restores the order after inserting cu -> cv with position[cu] > position[cv].
+     */
+    private void reorder(int cu, int cv) {
+        int lower = position[cv];
+        int upper = position[cu];
+        int stamp = ++componentStamp;
+
+        // Forward from cv and backward from cu, both confined to the window [lower, upper]
+        int[] forward = scratchA;
+        int forwardCount = search(cv, upper, true, forwardMark, stamp, forward);
+        int[] backward = scratchB;
+        int backwardCount = search(cu, lower, false, backwardMark, stamp, backward);
+        boolean cycle = forwardMark[cu] == stamp;
+
+        // Pool the positions of all visited components
+        int[] pool = scratchC;
+        int poolSize = 0;
+        for (int i = 0; i < backwardCount; i++) {
+            pool[poolSize++] = position[backward[i]];
+        }
+        for (int i = 0; i < forwardCount; i++) {
+            if (backwardMark[forward[i]] != stamp) {
+                pool[poolSize++] = position[forward[i]];
+            }
+        }
+        Arrays.sort(pool, 0, poolSize);
+
+        // Components that reach cu go first, then the merged cycle (if any), then those cv reaches
+        int[] left = positionsOf(backward, backwardCount, forwardMark, stamp);
+        int[] right = positionsOf(forward, forwardCount, backwardMark, stamp);
+        int[] cycleMembers = new int[0];
+        int survivor = -1;
+        if (cycle) {
+            cycleMembers = intersection(forward, forwardCount, backwardMark, stamp);
+            survivor = largest(cycleMembers);
+        }
+
+        int[] leftIds = new int[left.length];
+        int[] rightIds = new int[right.length];
+        for (int i = 0; i < left.length; i++) {
+            leftIds[i] = order[left[i]];
+        }
+        for (int i = 0; i < right.length; i++) {
+            rightIds[i] = order[right[i]];
+        }
+
+        int slot = 0;
+        for (int c : leftIds) {
+            place(c, pool[slot++]);
+        }
+        if (!cycle) {
+            for (int c : rightIds) {
+                place(c, pool[slot++]);
+            }
+            int[] reordered = Arrays.copyOf(leftIds, leftIds.length + rightIds.length);
+            System.arraycopy(rightIds, 0, reordered, leftIds.length, rightIds.length);
+            fire(ComponentChange.Kind.EDGE_INSERTED, new int[]{cu, cv}, new int[0], new int[0], reordered);
+            return;
+        }
+
+        // Left keeps the lowest slots and right the highest, so each only moves toward its
+        // own side; the survivor takes the next slot and the positions in between fall empty
+        place(survivor, pool[slot++]);
+        int firstHole = slot;
+        int rightStart = poolSize - rightIds.length;
+        for (int i = slot; i < rightStart; i++) {
+            order[pool[i]] = -1;
+        }
+        for (int i = 0; i < rightIds.length; i++) {
+            place(rightIds[i], pool[rightStart + i]);
+        }
+        int[] affected = merge(cycleMembers, survivor, forwardMark, backwardMark, stamp);
+        compactOrder(pool[firstHole]);
+
+        int[] removed = new int[cycleMembers.length - 1];
+        int k = 0;
+        for (int c : cycleMembers) {
+            if (c != survivor) {
+                removed[k++] = c;
+            }
+        }
+        int[] reordered = Arrays.copyOf(leftIds, leftIds.length + 1 + rightIds.length);
+        reordered[leftIds.length] = survivor;
+        System.arraycopy(rightIds, 0, reordered, leftIds.length + 1, rightIds.length);
+        fire(ComponentChange.Kind.COMPONENTS_MERGED, affected, removed, new int[0], reordered);
+    }
+
+    /**
+     * Depth-first search over condensation edges from {@code start}, visiting only
+     * components on the near side of {@code bound}.
+     *
+     * @return number of visited components, written to {@code visited}
+     */
+    private int search(int start, int bound, boolean forward, int[] mark, int stamp, int[] visited) {
+        int[] stack = componentStack;
+        int top = 0;
+        int count = 0;
+        mark[start] = stamp;
+        stack[top++] = start;
+        while (top > 0) {
+            int c = stack[--top];
+            visited[count++] = c;
+            for (int next : (forward ? outMap(c) : inMap(c)).keySet()) {
+                boolean inWindow = forward ? position[next] <= bound : position[next] >= bound;
+                if (inWindow && mark[next] != stamp) {
+                    mark[next] = stamp;
+                    stack[top++] = next;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Sorted positions of the components in {@code ids} that are not marked in {@code exclude}.
+     */
+    private int[] positionsOf(int[] ids, int count, int[] exclude, int stamp) {
+        int[] result = new int[count];
+        int k = 0;
+        for (int i = 0; i < count; i++) {
+            if (exclude[ids[i]] != stamp) {
+                result[k++] = position[ids[i]];
+            }
+        }
+        result = Arrays.copyOf(result, k);
+        Arrays.sort(result);
+        return result;
+    }
+
+    private int[] intersection(int[] ids, int count, int[] mark, int stamp) {
+        int[] result = new int[count];
+        int k = 0;
+        for (int i = 0; i < count; i++) {
+            if (mark[ids[i]] == stamp) {
+                result[k++] = ids[i];
+            }
+        }
+        return Arrays.copyOf(result, k);
+    }
+
+    private int largest(int[] components) {
+        int best = components[0];
+        for (int c : components) {
+            if (memberCount[c] > memberCount[best]) {
+                best = c;
+            }
+        }
+        return best;
+    }
+
+    private void place(int component, int p) {
+        order[p] = component;
+        position[component] = p;
+    }
+
+    /**
+     * Merges the cycle components into {@code survivor}: relabels their vertices and
+     * rewires their condensation edges, dropping the ones inside the cycle.
+     *
+     * @return survivor plus every neighbour whose condensation edges changed
+     */
+    private int[] merge(int[] cycleMembers, int survivor, int[] forward, int[] backward, int stamp) {
+        Map<Integer, CondensedEdge> outgoing = new HashMap<>();
+        Map<Integer, CondensedEdge> incoming = new HashMap<>();
+        for (int x : cycleMembers) {
+            for (Map.Entry<Integer, CondensedEdge> entry : outMap(x).entrySet()) {
+                int y = entry.getKey();
+                inMap(y).remove(x);
+                if (forward[y] != stamp || backward[y] != stamp) {
+                    outgoing.merge(y, entry.getValue(), CondensedEdge::combine);
+                }
+            }
+            for (Map.Entry<Integer, CondensedEdge> entry : inMap(x).entrySet()) {
+                int y = entry.getKey();
+                outMap(y).remove(x);
+                if (forward[y] != stamp || backward[y] != stamp) {
+                    incoming.merge(y, entry.getValue(), CondensedEdge::combine);
+                }
+            }
+            outMap(x).clear();
+            inMap(x).clear();
+        }
+        for (Map.Entry<Integer, CondensedEdge> entry : outgoing.entrySet()) {
+            outMap(survivor).put(entry.getKey(), entry.getValue());
+            inMap(entry.getKey()).put(survivor, entry.getValue());
+        }
+        for (Map.Entry<Integer, CondensedEdge> entry : incoming.entrySet()) {
+            inMap(survivor).put(entry.getKey(), entry.getValue());
+            outMap(entry.getKey()).put(survivor, entry.getValue());
+        }
+
+        for (int x : cycleMembers) {
+            if (x == survivor) {
+                continue;
+            }
+            for (int i = 0; i < memberCount[x]; i++) {
+                int v = members[x][i];
+                componentId[v] = survivor;
+                appendMember(survivor, v);
+            }
+            members[x] = null;
+            memberCount[x] = 0;
+            freeIds[freeCount++] = x;
+        }
+
+        int[] affected = new int[1 + outgoing.size() + incoming.size()];
+        int k = 0;
+        affected[k++] = survivor;
+        for (int y : outgoing.keySet()) {
+            affected[k++] = y;
+        }
+        for (int y : incoming.keySet()) {
+            if (!outgoing.containsKey(y)) {
+                affected[k++] = y;
+            }
+        }
+        return Arrays.copyOf(affected, k);
+    }
+
+    /**
+     * Closes the holes (-1 entries) in {@code order} at or after {@code from}.
+     */
+    private void compactOrder(int from) {
+        int write = from;
+        for (int p = from; p < componentCount; p++) {
+            int c = order[p];
+            if (c != -1) {
+                place(c, write++);
+            }
+        }
+        componentCount = write;
+    }
+
+    // -------------------- Deletion: localized re-split --------------------
+
+    /**
+     * Breadth-first search from {@code from} over vertices of {@code component}.
+     */
+    private boolean reachesWithin(int from, int to, int component) {
+        int stamp = ++vertexStamp;
+        int[] queue = scratchA;
+        int head = 0;
+        int tail = 0;
+        vertexMark[from] = stamp;
+        queue[tail++] = from;
+        while (head < tail) {
+            int u = queue[head++];
+            if (u == to) {
+                return true;
+            }
+            for (int i = 0; i < outDegree[u]; i++) {
+                int w = outTargets[u][i];
+                if (componentId[w] == component && vertexMark[w] != stamp) {
+                    vertexMark[w] = stamp;
+                    queue[tail++] = w;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reruns Tarjan on the members of {@code component} and replaces it by its pieces.
+     */
+    private void split(int component) {
+        List<int[]> pieces = tarjanWithin(component);
+        int k = pieces.size();
+
+        // Drop the old component's condensation edges
+        for (int y : outMap(component).keySet()) {
+            inMap(y).remove(component);
+        }
+        for (int y : inMap(component).keySet()) {
+            outMap(y).remove(component);
+        }
+        outMap(component).clear();
+        inMap(component).clear();
+
+        // Pieces come out in reverse topological order; the last one keeps the old id
+        int p = position[component];
+        System.arraycopy(order, p + 1, order, p + k, componentCount - p - 1);
+        componentCount += k - 1;
+        for (int q = p + k; q < componentCount; q++) {
+            position[order[q]] = q;
+        }
+
+        int stamp = ++componentStamp;
+        int[] ids = new int[k];
+        int[] created = new int[k - 1];
+        for (int i = 0; i < k; i++) {
+            int id = i == k - 1 ? component : freeIds[--freeCount];
+            if (id != component) {
+                created[i] = id;
+            }
+            ids[i] = id;
+            int[] piece = pieces.get(i);
+            members[id] = piece;
+            memberCount[id] = piece.length;
+            for (int v : piece) {
+                componentId[v] = id;
+            }
+            componentMark[id] = stamp;
+            place(id, p + k - 1 - i);
+        }
+
+        // Rebuild condensation edges from the members' own edges
+        List<Integer> neighbours = new ArrayList<>();
+        for (int id : ids) {
+            for (int j = 0; j < memberCount[id]; j++) {
+                int u = members[id][j];
+                for (int i = 0; i < outDegree[u]; i++) {
+                    int c = componentId[outTargets[u][i]];
+                    if (c != id) {
+                        addCondensedEdge(id, c, outWeights[u][i]);
+                        if (componentMark[c] != stamp) {
+                            neighbours.add(c);
+                        }
+                    }
+                }
+                for (int i = 0; i < inDegree[u]; i++) {
+                    int c = componentId[inSources[u][i]];
+                    if (componentMark[c] != stamp) {
+                        addCondensedEdge(c, id, inWeights[u][i]);
+                        neighbours.add(c);
+                    }
+                }
+            }
+        }
+
+        int[] affected = Arrays.copyOf(ids, k + neighbours.size());
+        int count = k;
+        for (int c : neighbours) {
+            if (componentMark[c] != stamp) {
+                componentMark[c] = stamp;
+                affected[count++] = c;
+            }
+        }
+        fire(ComponentChange.Kind.COMPONENT_SPLIT, Arrays.copyOf(affected, count), new int[0], created, ids);
+    }
+
+    /**
+     * Iterative Tarjan restricted to one component's vertices.
+     *
+     * @return the SCCs in emission (reverse topological) order
+     */
+    private List<int[]> tarjanWithin(int component) {
+        int stamp = ++vertexStamp;
+        int[] callStack = scratchA;
+        int[] cursorStack = scratchB;
+        int[] stack = scratchC;
+        int stackTop = 0;
+        int counter = 0;
+        List<int[]> pieces = new ArrayList<>();
+
+        for (int r = 0; r < memberCount[component]; r++) {
+            int root = members[component][r];
+            if (vertexMark[root] == stamp) {
+                continue;
+            }
+            int depth = 0;
+            vertexMark[root] = stamp;
+            tarjanIndex[root] = tarjanLow[root] = counter++;
+            stack[stackTop++] = root;
+            onStack[root] = true;
+            callStack[depth] = root;
+            cursorStack[depth] = 0;
+            depth++;
+
+            while (depth > 0) {
+                int at = callStack[depth - 1];
+                int cursor = cursorStack[depth - 1];
+                if (cursor < outDegree[at]) {
+                    int to = outTargets[at][cursor];
+                    cursorStack[depth - 1] = cursor + 1;
+                    if (componentId[to] != component) {
+                        continue;
+                    }
+                    if (vertexMark[to] != stamp) {
+                        vertexMark[to] = stamp;
+                        tarjanIndex[to] = tarjanLow[to] = counter++;
+                        stack[stackTop++] = to;
+                        onStack[to] = true;
+                        callStack[depth] = to;
+                        cursorStack[depth] = 0;
+                        depth++;
+                    } else if (onStack[to]) {
+                        tarjanLow[at] = Math.min(tarjanLow[at], tarjanIndex[to]);
+                    }
+                    continue;
+                }
+
+                depth--;
+                if (tarjanIndex[at] == tarjanLow[at]) {
+                    int size = 0;
+                    while (stack[stackTop - 1 - size] != at) {
+                        size++;
+                    }
+                    size++;
+                    int[] piece = Arrays.copyOfRange(stack, stackTop - size, stackTop);
+                    stackTop -= size;
+                    for (int v : piece) {
+                        onStack[v] = false;
+                    }
+                    pieces.add(piece);
+                }
+                if (depth > 0) {
+                    int caller = callStack[depth - 1];
+                    tarjanLow[caller] = Math.min(tarjanLow[caller], tarjanLow[at]);
+                }
+            }
+        }
+        return pieces;
+    }
+
+    // -------------------- Storage helpers --------------------
+
+    private void appendEdge(int u, int v, int weight) {
+        if (outTargets[u] == null || outDegree[u] == outTargets[u].length) {
+            int grown = outTargets[u] == null ? 4 : outTargets[u].length * 2;
+            outTargets[u] = outTargets[u] == null ? new int[grown] : Arrays.copyOf(outTargets[u], grown);
+            outWeights[u] = outWeights[u] == null ? new int[grown] : Arrays.copyOf(outWeights[u], grown);
+        }
+        outTargets[u][outDegree[u]] = v;
+        outWeights[u][outDegree[u]++] = weight;
+
+        if (inSources[v] == null || inDegree[v] == inSources[v].length) {
+            int grown = inSources[v] == null ? 4 : inSources[v].length * 2;
+            inSources[v] = inSources[v] == null ? new int[grown] : Arrays.copyOf(inSources[v], grown);
+            inWeights[v] = inWeights[v] == null ? new int[grown] : Arrays.copyOf(inWeights[v], grown);
+        }
+        inSources[v][inDegree[v]] = u;
+        inWeights[v][inDegree[v]++] = weight;
+        edgeCount++;
+    }
+
+    private void appendMember(int component, int v) {
+        if (memberCount[component] == members[component].length) {
+            members[component] = Arrays.copyOf(members[component], members[component].length * 2);
+        }
+        members[component][memberCount[component]++] = v;
+    }
+
+    private static int lastIndexOf(int[] values, int count, int value) {
+        for (int i = count - 1; i >= 0; i--) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Removes entry i from two parallel arrays, keeping the remaining entries in insertion order.
+     */
+    private static int removeAt(int[] a, int[] b, int count, int i) {
+        System.arraycopy(a, i + 1, a, i, count - i - 1);
+        System.arraycopy(b, i + 1, b, i, count - i - 1);
+        return count - 1;
+    }
+
+    private void addCondensedEdge(int from, int to, int weight) {
+        CondensedEdge edge = outMap(from).get(to);
+        if (edge == null) {
+            edge = new CondensedEdge(1, weight);
+            outMap(from).put(to, edge);
+            inMap(to).put(from, edge);
+        } else {
+            edge.count++;
+            edge.minWeight = Math.min(edge.minWeight, weight);
+        }
+    }
+
+    private int minWeightBetween(int from, int to) {
+        int min = Integer.MAX_VALUE;
+        for (int j = 0; j < memberCount[from]; j++) {
+            int u = members[from][j];
+            for (int i = 0; i < outDegree[u]; i++) {
+                if (componentId[outTargets[u][i]] == to) {
+                    min = Math.min(min, outWeights[u][i]);
+                }
+            }
+        }
+        return min;
+    }
+
+    private Map<Integer, CondensedEdge> outMap(int component) {
+        if (condensedOut[component] == null) {
+            condensedOut[component] = new HashMap<>();
+        }
+        return condensedOut[component];
+    }
+
+    private Map<Integer, CondensedEdge> inMap(int component) {
+        if (condensedIn[component] == null) {
+            condensedIn[component] = new HashMap<>();
+        }
+        return condensedIn[component];
+    }
+
+    private void checkVertex(int v) {
+        if (v < 0 || v >= n) {
+            throw new IllegalArgumentException("Vertex " + v + " out of range [0, " + n + ")");
+        }
+    }
+
+    private void fire(ComponentChange.Kind kind, int[] affected, int[] removed, int[] created, int[] reordered) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        ComponentChange change = new ComponentChange(kind, version, affected, removed, created, reordered);
+        for (ComponentChangeListener listener : listeners) {
+            listener.onChange(change);
+        }
+    }
+
+    /**
+     * One condensation edge: how many original edges it stands for and their minimum weight.
+     * The same instance is shared by the out-map of its tail and the in-map of its head.
+     */
+    private static final class CondensedEdge {
+        int count;
+        int minWeight;
+
+        CondensedEdge(int count, int minWeight) {
+            this.count = count;
+            this.minWeight = minWeight;
+        }
+
+        static CondensedEdge combine(CondensedEdge a, CondensedEdge b) {
+            return new CondensedEdge(a.count + b.count, Math.min(a.minWeight, b.minWeight));
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package graph.gen;
+
+/**
+ * Parameters for {@link SyntheticGraphGenerator}. Setters return {@code this} so a
+ * configuration can be written as one expression.
+ */
+public class GeneratorConfig {
+
+    /** Overall shape of the generated graph. */
+    public enum Topology {
+        /** Strongly connected clusters arranged in DAG layers. */
+        CLUSTERED,
+        /** Street grid with a mix of one-way and two-way streets. */
+        GRID
+    }
+
+    /** Distribution of SCC (cluster) sizes for {@link Topology#CLUSTERED}. */
+    public enum SizeDistribution {
+        /** Every cluster has exactly the maximum size. */
+        FIXED,
+        /** Sizes uniform in [1, max]. */
+        UNIFORM,
+        /** Many singletons and a heavy tail of large clusters, capped at max. */
+        POWER_LAW
+    }
+
+    /** Distribution of edge weights. */
+    public enum WeightDistribution {
+        /** Uniform in [minWeight, maxWeight]. */
+        UNIFORM,
+        /** Pareto-distributed, mostly near minWeight, capped at maxWeight. */
+        POWER_LAW
+    }
+
+    private int vertices = 1000;
+    private int edges = 4000;
+    private long seed = 42L;
+    private Topology topology = Topology.CLUSTERED;
+    private SizeDistribution sccSizes = SizeDistribution.POWER_LAW;
+    private int maxSccSize = 16;
+    private int dagDepth = 10;
+    private WeightDistribution weights = WeightDistribution.UNIFORM;
+    private int minWeight = 1;
+    private int maxWeight = 10;
+    private double oneWayFraction = 0.3;
+    private boolean shuffleIds = true;
+
+    public int getVertices() {
+        return vertices;
+    }
+
+    public GeneratorConfig setVertices(int vertices) {
+        if (vertices < 1) {
+            throw new IllegalArgumentException("vertices must be positive");
+        }
+        this.vertices = vertices;
+        return this;
+    }
+
+    public int getEdges() {
+        return edges;
+    }
+
+    /**
+     * Sets the target edge count. Clustered graphs reach it exactly unless the cycles
+     * that make the clusters strongly connected already need more; grid graphs derive
+     * their edge count from the street layout and ignore it.
+     *
+     * @param edges target number of edges
+     * @return this configuration
+     */
+    public GeneratorConfig setEdges(int edges) {
+        if (edges < 0) {
+            throw new IllegalArgumentException("edges must be non-negative");
+        }
+        this.edges = edges;
+        return this;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public GeneratorConfig setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public Topology getTopology() {
+        return topology;
+    }
+
+    public GeneratorConfig setTopology(Topology topology) {
+        this.topology = topology;
+        return this;
+    }
+
+    public SizeDistribution getSccSizes() {
+        return sccSizes;
+    }
+
+    public GeneratorConfig setSccSizes(SizeDistribution sccSizes) {
+        this.sccSizes = sccSizes;
+        return this;
+    }
+
+    public int getMaxSccSize() {
+        return maxSccSize;
+    }
+
+    public GeneratorConfig setMaxSccSize(int maxSccSize) {
+        if (maxSccSize < 1) {
+            throw new IllegalArgumentException("maxSccSize must be positive");
+        }
+        this.maxSccSize = maxSccSize;
+        return this;
+    }
+
+    public int getDagDepth() {
+        return dagDepth;
+    }
+
+    /**
+     * Sets the number of DAG layers the clusters are spread over. The condensation's
+     * longest path spans all layers (as long as there are enough clusters).
+     *
+     * @param dagDepth number of layers
+     * @return this configuration
+     */
+    public GeneratorConfig setDagDepth(int dagDepth) {
+        if (dagDepth < 1) {
+            throw new IllegalArgumentException("dagDepth must be positive");
+        }
+        this.dagDepth = dagDepth;
+        return this;
+    }
+
+    public WeightDistribution getWeights() {
+        return weights;
+    }
+
+    public GeneratorConfig setWeights(WeightDistribution weights) {
+        this.weights = weights;
+        return this;
+    }
+
+    public int getMinWeight() {
+        return minWeight;
+    }
+
+    public int getMaxWeight() {
+        return maxWeight;
+    }
+
+    public GeneratorConfig setWeightRange(int minWeight, int maxWeight) {
+        if (minWeight > maxWeight) {
+            throw new IllegalArgumentException("minWeight must not exceed maxWeight");
+        }
+        this.minWeight = minWeight;
+        this.maxWeight = maxWeight;
+        return this;
+    }
+
+    public double getOneWayFraction() {
+        return oneWayFraction;
+    }
+
+    /**
+     * Sets the fraction of grid streets that are one-way.
+     *
+     * @param oneWayFraction value in [0, 1]
+     * @return this configuration
+     */
+    public GeneratorConfig setOneWayFraction(double oneWayFraction) {
+        if (oneWayFraction < 0 || oneWayFraction > 1) {
+            throw new IllegalArgumentException("oneWayFraction must be in [0, 1]");
+        }
+        this.oneWayFraction = oneWayFraction;
+        return this;
+    }
+
+    public boolean isShuffleIds() {
+        return shuffleIds;
+    }
+
+    /**
+     * Sets whether vertex ids are randomly permuted, so the generated structure is
+     * not visible in the numbering.
+     *
+     * @param shuffleIds true to permute ids
+     * @return this configuration
+     */
+    public GeneratorConfig setShuffleIds(boolean shuffleIds) {
+        this.shuffleIds = shuffleIds;
+        return this;
+    }
+}
@@ -0,0 +1,249 @@
+package graph.gen;
+
+import graph.csr.ArrayCSRGraph;
+import graph.io.GraphData;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic, seeded generator of large test graphs in the planner's data model.
+ * <p>
+ * {@link GeneratorConfig.Topology#CLUSTERED} graphs partition the vertices into clusters
+ * whose sizes follow the configured distribution; each cluster is closed into a cycle
+ * (so it is exactly one SCC) and gets some random chords. Clusters are spread over
+ * {@code dagDepth} layers and all inter-cluster edges point to later layers, with a
+ * backbone chain through every layer, so the condensation is a DAG of that depth.
+ * <p>
+ * {@link GeneratorConfig.Topology#GRID} graphs model a street grid where each street
+ * is either two-way or one-way, producing realistic SCC structure from the mix.
+ */
+public class SyntheticGraphGenerator {
+
+    private static final double SIZE_EXPONENT = 2.5;
+    private static final double WEIGHT_EXPONENT = 2.0;
+    private static final double CHORD_FRACTION = 0.2;
+
+    private final GeneratorConfig config;
+    private final SplittableRandom random;
+    private int[] sources = new int[1024];
+    private int[] destinations = new int[1024];
+    private int[] weights = new int[1024];
+    private int count = 0;
+
+    private SyntheticGraphGenerator(GeneratorConfig config) {
+        this.config = config;
+        this.random = new SplittableRandom(config.getSeed());
+    }
+
+    /**
+     * Generates a graph. The same configuration always yields the same graph.
+     *
+     * @param config generator parameters
+     * @return generated dataset with source at the start of the first layer (or grid corner)
+     */
+    public static GraphData generate(GeneratorConfig config) {
+        return new SyntheticGraphGenerator(config).run();
+    }
+
+    private GraphData run() {
+        int n = config.getVertices();
+        if (config.getTopology() == GeneratorConfig.Topology.GRID) {
+            grid(n);
+        } else {
+            clustered(n);
+        }
+
+        int source = 0;
+        if (config.isShuffleIds()) {
+            int[] label = permutation(n);
+            for (int i = 0; i < count; i++) {
+                sources[i] = label[sources[i]];
+                destinations[i] = label[destinations[i]];
+            }
+            source = label[0];
+        }
+
+        ArrayCSRGraph graph = ArrayCSRGraph.fromEdges(n, sources, destinations, weights, count);
+        return new GraphData(n, graph, source, "edge", 0);
+    }
+
+    private void clustered(int n) {
+        // Partition vertices [0, n) into consecutive clusters
+        int[] clusterStart = new int[16];
+        int numClusters = 0;
+        for (int v = 0; v < n; ) {
+            if (numClusters + 1 >= clusterStart.length) {
+                clusterStart = Arrays.copyOf(clusterStart, clusterStart.length * 2);
+            }
+            clusterStart[numClusters++] = v;
+            v += Math.min(drawClusterSize(), n - v);
+        }
+        clusterStart[numClusters] = n;
+
+        int[] clusterOf = new int[n];
+        for (int c = 0; c < numClusters; c++) {
+            Arrays.fill(clusterOf, clusterStart[c], clusterStart[c + 1], c);
+        }
+
+        // Close every cluster into a cycle so it is strongly connected
+        int[] chordable = new int[numClusters];
+        int numChordable = 0;
+        for (int c = 0; c < numClusters; c++) {
+            int start = clusterStart[c];
+            int size = clusterStart[c + 1] - start;
+            if (size > 1) {
+                for (int i = 0; i < size; i++) {
+                    addEdge(start + i, start + (i + 1) % size);
+                }
+            }
+            if (size > 2) {
+                chordable[numChordable++] = c;
+            }
+        }
+
+        // Layer l holds clusters [firstCluster[l], firstCluster[l + 1])
+        int depth = Math.min(config.getDagDepth(), numClusters);
+        int[] firstCluster = new int[depth + 1];
+        for (int l = 0; l <= depth; l++) {
+            firstCluster[l] = (int) ((long) l * numClusters / depth);
+        }
+        int[] layerOf = new int[numClusters];
+        for (int l = 0; l < depth; l++) {
+            Arrays.fill(layerOf, firstCluster[l], firstCluster[l + 1], l);
+        }
+
+        // Backbone chain so the condensation really spans all layers; starts at vertex 0
+        int previous = 0;
+        for (int l = 1; l < depth; l++) {
+            int next = randomVertexInLayer(l, firstCluster, clusterStart);
+            addEdge(previous, next);
+            previous = next;
+        }
+
+        int remaining = Math.max(0, config.getEdges() - count);
+        int chords = numChordable == 0 ? 0 : depth > 1 ? (int) (remaining * CHORD_FRACTION) : remaining;
+        for (int i = 0; i < chords; i++) {
+            int c = chordable[random.nextInt(numChordable)];
+            int size = clusterStart[c + 1] - clusterStart[c];
+            addEdge(clusterStart[c] + random.nextInt(size), clusterStart[c] + random.nextInt(size));
+        }
+
+        int lastLayerStart = clusterStart[firstCluster[depth - 1]];
+        while (depth > 1 && count < config.getEdges()) {
+            int u = random.nextInt(lastLayerStart);
+            int layer = layerOf[clusterOf[u]];
+            int target = random.nextBoolean() ? layer + 1 : layer + 1 + random.nextInt(depth - 1 - layer);
+            addEdge(u, randomVertexInLayer(target, firstCluster, clusterStart));
+        }
+    }
+
+    private int randomVertexInLayer(int layer, int[] firstCluster, int[] clusterStart) {
+        int from = clusterStart[firstCluster[layer]];
+        int to = clusterStart[firstCluster[layer + 1]];
+        return from + random.nextInt(to - from);
+    }
+
+    private void grid(int n) {
+        int cols = (int) Math.ceil(Math.sqrt(n));
+        int rows = (n + cols - 1) / cols;
+
+        // Horizontal streets
+        for (int r = 0; r < rows; r++) {
+            int direction = streetDirection();
+            for (int c = 0; c + 1 < cols; c++) {
+                int a = r * cols + c;
+                int b = a + 1;
+                if (b < n) {
+                    addStreetSegment(a, b, direction);
+                }
+            }
+        }
+        // Vertical streets
+        for (int c = 0; c < cols; c++) {
+            int direction = streetDirection();
+            for (int r = 0; r + 1 < rows; r++) {
+                int a = r * cols + c;
+                int b = a + cols;
+                if (b < n) {
+                    addStreetSegment(a, b, direction);
+                }
+            }
+        }
+    }
+
+    /**
+     * Picks a street's direction: 0 for two-way, 1 for one-way forward, -1 for one-way backward.
+     */
+    private int streetDirection() {
+        if (random.nextDouble() >= config.getOneWayFraction()) {
+            return 0;
+        }
+        return random.nextBoolean() ? 1 : -1;
+    }
+
+    private void addStreetSegment(int a, int b, int direction) {
+        int w = drawWeight();
+        if (direction >= 0) {
+            addEdge(a, b, w);
+        }
+        if (direction <= 0) {
+            addEdge(b, a, w);
+        }
+    }
+
+    private int drawClusterSize() {
+        int max = config.getMaxSccSize();
+        switch (config.getSccSizes()) {
+            case FIXED:
+                return max;
+            case UNIFORM:
+                return 1 + random.nextInt(max);
+            default:
+                double size = Math.pow(1.0 - random.nextDouble(), -1.0 / (SIZE_EXPONENT - 1.0));
+                return (int) Math.min(max, Math.floor(size));
+        }
+    }
+
+    private int drawWeight() {
+        int min = config.getMinWeight();
+        int max = config.getMaxWeight();
+        if (config.getWeights() == GeneratorConfig.WeightDistribution.UNIFORM) {
+            return min + (int) random.nextLong((long) max - min + 1);
+        }
+        double spread = Math.max(1.0, (max - (double) min) / 8.0);
+        double tail = Math.pow(1.0 - random.nextDouble(), -1.0 / (WEIGHT_EXPONENT - 1.0)) - 1.0;
+        return (int) Math.min(max, min + Math.floor(tail * spread));
+    }
+
+    private int[] permutation(int n) {
+        int[] label = new int[n];
+        for (int i = 0; i < n; i++) {
+            label[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = label[i];
+            label[i] = label[j];
+            label[j] = tmp;
+        }
+        return label;
+    }
+
+    private void addEdge(int u, int v) {
+        addEdge(u, v, drawWeight());
+    }
+
+    private void addEdge(int u, int v, int w) {
+        if (count == sources.length) {
+            int grown = sources.length * 2;
+            sources = Arrays.copyOf(sources, grown);
+            destinations = Arrays.copyOf(destinations, grown);
+            weights = Arrays.copyOf(weights, grown);
+        }
+        sources[count] = u;
+        destinations[count] = v;
+        weights[count] = w;
+        count++;
+    }
+}
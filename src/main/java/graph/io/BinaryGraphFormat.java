@@ -0,0 +1,191 @@
+package graph.io;
+
+import graph.csr.CSRGraph;
+import graph.csr.MappedCSRGraph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Compact binary graph file format ({@code .sccg}) that can be memory-mapped.
+ * <p>
+ * Layout, all values little-endian 32-bit ints:
+ * <pre>
+ *   0  magic "SCCG"
+ *   4  format version
+ *   8  flags (bit 0: weighted)
+ *  12  n (vertex count)
+ *  16  m (edge count)
+ *  20  source vertex
+ *  24  weight model, 8 ASCII bytes, zero padded
+ *  32  offsets[n + 1]
+ *      targets[m]
+ *      weights[m]  (only when weighted)
+ * </pre>
+ */
+public class BinaryGraphFormat {
+
+    /** File extension used for binary graphs. */
+    public static final String EXTENSION = ".sccg";
+
+    private static final int MAGIC = 0x47434353; // "SCCG" read little-endian
+    private static final int VERSION = 1;
+    private static final int FLAG_WEIGHTED = 1;
+    private static final int WEIGHT_MODEL_BYTES = 8;
+    private static final int HEADER_BYTES = 32;
+    private static final int WRITE_CHUNK_INTS = 1 << 16;
+
+    /**
+     * Writes a dataset in the binary format.
+     *
+     * @param data dataset to write
+     * @param path destination file
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(GraphData data, Path path) throws IOException {
+        CSRGraph graph = data.getGraph();
+        int n = graph.vertexCount();
+        int m = graph.edgeCount();
+        byte[] model = data.getWeightModel().getBytes(StandardCharsets.US_ASCII);
+        if (model.length > WEIGHT_MODEL_BYTES) {
+            throw new IOException("Weight model name too long for binary format: " + data.getWeightModel());
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(graph.isWeighted() ? FLAG_WEIGHTED : 0)
+                .putInt(n)
+                .putInt(m)
+                .putInt(data.getSource())
+                .put(model);
+            header.position(HEADER_BYTES).flip();
+            writeFully(channel, header);
+
+            IntSectionWriter writer = new IntSectionWriter(channel);
+            for (int u = 0; u <= n; u++) {
+                writer.put(u == n ? m : graph.edgeStart(u));
+            }
+            for (int e = 0; e < m; e++) {
+                writer.put(graph.target(e));
+            }
+            if (graph.isWeighted()) {
+                for (int e = 0; e < m; e++) {
+                    writer.put(graph.weight(e));
+                }
+            }
+            writer.flush();
+        }
+    }
+
+    /**
+     * Opens a binary graph by memory-mapping its sections read-only. The returned
+     * graph reads directly from the page cache, so opening is independent of
+     * graph size and concurrent processes share the same physical pages.
+     * <p>
+     * The header, the source vertex and the first and last offsets are validated;
+     * the offset and target sections are not scanned, since that would cost a pass
+     * over the whole file.
+     *
+     * @param path binary graph file
+     * @return dataset backed by a {@link MappedCSRGraph}
+     * @throws IOException if the file cannot be mapped or is not a valid graph file
+     */
+    public static GraphData map(Path path) throws IOException {
+        long startTime = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException("Not a binary graph file (too short): " + path);
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a binary graph file (bad magic): " + path);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported binary graph version " + version + ": " + path);
+            }
+            boolean weighted = (header.getInt() & FLAG_WEIGHTED) != 0;
+            int n = header.getInt();
+            int m = header.getInt();
+            int source = header.getInt();
+            byte[] model = new byte[WEIGHT_MODEL_BYTES];
+            header.get(model);
+            String weightModel = new String(model, StandardCharsets.US_ASCII).trim();
+
+            long offsetsPos = HEADER_BYTES;
+            long targetsPos = offsetsPos + 4L * (n + 1);
+            long weightsPos = targetsPos + 4L * m;
+            long expectedSize = weightsPos + (weighted ? 4L * m : 0);
+            if (n < 0 || m < 0 || channel.size() != expectedSize) {
+                throw new IOException("Binary graph file is truncated or corrupt: " + path);
+            }
+
+            if (source < 0 || source >= n) {
+                throw new IOException("Source " + source + " out of range for n=" + n + ": " + path);
+            }
+
+            IntBuffer offsets = mapInts(channel, offsetsPos, n + 1);
+            if (offsets.get(0) != 0 || offsets.get(n) != m) {
+                throw new IOException("Binary graph offsets do not span [0, " + m + "]: " + path);
+            }
+            IntBuffer targets = mapInts(channel, targetsPos, m);
+            IntBuffer weights = weighted ? mapInts(channel, weightsPos, m) : null;
+
+            MappedCSRGraph graph = new MappedCSRGraph(offsets, targets, weights);
+            return new GraphData(n, graph, source, weightModel.isEmpty() ? "edge" : weightModel,
+                System.nanoTime() - startTime);
+        }
+    }
+
+    private static IntBuffer mapInts(FileChannel channel, long position, int count) throws IOException {
+        long bytes = 4L * count;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IOException("Section of " + count + " ints exceeds the 2 GB mapping limit");
+        }
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, bytes);
+        return buffer.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Buffers ints into fixed-size little-endian chunks before writing them out.
+     */
+    private static class IntSectionWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(4 * WRITE_CHUNK_INTS)
+            .order(ByteOrder.LITTLE_ENDIAN);
+
+        IntSectionWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void put(int value) throws IOException {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            buffer.putInt(value);
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            writeFully(channel, buffer);
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package graph.io;
+
+import graph.csr.CSRGraph;
+
+/**
+ * Container for a loaded dataset: the weighted graph plus the planner parameters
+ * stored alongside it, and how long loading took.
+ */
+public class GraphData {
+    private final int n;
+    private final CSRGraph graph;
+    private final int source;
+    private final String weightModel;
+    private final long loadTimeNs;
+
+    public GraphData(int n, CSRGraph graph, int source, String weightModel, long loadTimeNs) {
+        this.n = n;
+        this.graph = graph;
+        this.source = source;
+        this.weightModel = weightModel;
+        this.loadTimeNs = loadTimeNs;
+    }
+
+    public int getN() {
+        return n;
+    }
+
+    public CSRGraph getGraph() {
+        return graph;
+    }
+
+    public int getSource() {
+        return source;
+    }
+
+    public String getWeightModel() {
+        return weightModel;
+    }
+
+    public long getLoadTimeNs() {
+        return loadTimeNs;
+    }
+
+    /**
+     * Gets the load throughput.
+     *
+     * @return edges loaded per second
+     */
+    public double getEdgesPerSecond() {
+        return loadTimeNs == 0 ? 0 : graph.edgeCount() * 1_000_000_000.0 / loadTimeNs;
+    }
+}
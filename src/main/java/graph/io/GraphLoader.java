@@ -0,0 +1,25 @@
+package graph.io;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Opens a dataset in whichever format its file extension indicates:
+ * {@code .sccg} files are memory-mapped, everything else is parsed as JSON.
+ */
+public class GraphLoader {
+
+    /**
+     * Loads a dataset file.
+     *
+     * @param filename path to a JSON or binary graph file
+     * @return loaded graph data
+     * @throws IOException if the file cannot be read or is malformed
+     */
+    public static GraphData load(String filename) throws IOException {
+        if (filename.endsWith(BinaryGraphFormat.EXTENSION)) {
+            return BinaryGraphFormat.map(Path.of(filename));
+        }
+        return JsonGraphLoader.load(filename);
+    }
+}
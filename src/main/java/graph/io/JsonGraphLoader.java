@@ -0,0 +1,128 @@
+package graph.io;
+
+import com.google.gson.stream.JsonReader;
+import graph.csr.ArrayCSRGraph;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Streaming loader for the JSON dataset format.
+ * Reads {@code n}, {@code source}, {@code weight_model} and {@code edges} token by token
+ * in a single pass, appending edges straight into primitive arrays, so no JSON tree is
+ * ever materialized. Fields may appear in any order.
+ */
+public class JsonGraphLoader {
+
+    private static final int INITIAL_EDGE_CAPACITY = 1024;
+
+    private int[] sources = new int[INITIAL_EDGE_CAPACITY];
+    private int[] destinations = new int[INITIAL_EDGE_CAPACITY];
+    private int[] weights = new int[INITIAL_EDGE_CAPACITY];
+    private int edgeCount = 0;
+
+    /**
+     * Loads a dataset from a JSON file.
+     *
+     * @param filename JSON file path
+     * @return loaded graph data
+     * @throws IOException if the file cannot be read or is malformed
+     */
+    public static GraphData load(String filename) throws IOException {
+        try (Reader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(filename), StandardCharsets.UTF_8), 1 << 16)) {
+            return load(reader);
+        }
+    }
+
+    /**
+     * Loads a dataset from a JSON character stream.
+     *
+     * @param reader JSON source
+     * @return loaded graph data
+     * @throws IOException if the stream cannot be read or is malformed
+     */
+    public static GraphData load(Reader reader) throws IOException {
+        return new JsonGraphLoader().read(reader);
+    }
+
+    private GraphData read(Reader input) throws IOException {
+        long startTime = System.nanoTime();
+        int n = -1;
+        int source = -1;
+        String weightModel = "edge";
+
+        JsonReader reader = new JsonReader(input);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "n" -> n = reader.nextInt();
+                case "source" -> source = reader.nextInt();
+                case "weight_model" -> weightModel = reader.nextString();
+                case "edges" -> readEdges(reader);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (n < 0) {
+            throw new IOException("Missing vertex count 'n'");
+        }
+        if (source < 0 || source >= n) {
+            throw new IOException("Source " + source + " out of range for n=" + n);
+        }
+
+        ArrayCSRGraph graph;
+        try {
+            graph = ArrayCSRGraph.fromEdges(n, sources, destinations, weights, edgeCount);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        long loadTime = System.nanoTime() - startTime;
+        return new GraphData(n, graph, source, weightModel, loadTime);
+    }
+
+    private void readEdges(JsonReader reader) throws IOException {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            int u = -1;
+            int v = -1;
+            int w = 0;
+            boolean hasWeight = false;
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "u" -> u = reader.nextInt();
+                    case "v" -> v = reader.nextInt();
+                    case "w" -> {
+                        w = reader.nextInt();
+                        hasWeight = true;
+                    }
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            if (u < 0 || v < 0 || !hasWeight) {
+                throw new IOException("Edge " + edgeCount + " must have non-negative 'u', 'v' and a 'w'");
+            }
+            append(u, v, w);
+        }
+        reader.endArray();
+    }
+
+    private void append(int u, int v, int w) {
+        if (edgeCount == sources.length) {
+            int grown = sources.length + (sources.length >> 1);
+            sources = Arrays.copyOf(sources, grown);
+            destinations = Arrays.copyOf(destinations, grown);
+            weights = Arrays.copyOf(weights, grown);
+        }
+        sources[edgeCount] = u;
+        destinations[edgeCount] = v;
+        weights[edgeCount] = w;
+        edgeCount++;
+    }
+}
@@ -0,0 +1,60 @@
+package graph.io;
+
+import com.google.gson.stream.JsonWriter;
+import graph.csr.CSRGraph;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes a dataset in the JSON dataset format, streaming edge by edge so graphs
+ * with tens of millions of edges never need a JSON tree in memory.
+ */
+public class JsonGraphWriter {
+
+    /**
+     * Writes a dataset to a JSON file.
+     *
+     * @param data dataset to write
+     * @param path destination file
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(GraphData data, Path path) throws IOException {
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                Files.newOutputStream(path), StandardCharsets.UTF_8), 1 << 16)) {
+            write(data, out);
+        }
+    }
+
+    /**
+     * Writes a dataset as JSON to a character stream.
+     *
+     * @param data dataset to write
+     * @param out destination stream (not closed)
+     * @throws IOException if writing fails
+     */
+    public static void write(GraphData data, Writer out) throws IOException {
+        CSRGraph graph = data.getGraph();
+        JsonWriter writer = new JsonWriter(out);
+        writer.beginObject();
+        writer.name("directed").value(true);
+        writer.name("n").value(data.getN());
+        writer.name("edges").beginArray();
+        for (int u = 0; u < graph.vertexCount(); u++) {
+            for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+                writer.beginObject()
+                    .name("u").value(u)
+                    .name("v").value(graph.target(e))
+                    .name("w").value(graph.weight(e))
+                    .endObject();
+            }
+        }
+        writer.endArray();
+        writer.name("source").value(data.getSource());
+        writer.name("weight_model").value(data.getWeightModel());
+        writer.endObject();
+        writer.flush();
+    }
+}
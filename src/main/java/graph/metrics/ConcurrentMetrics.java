@@ -0,0 +1,187 @@
+package graph.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe {@link Metrics} for parallel algorithms and long-running services.
+ * <p>
+ * Counters are striped {@link LongAdder}s, so threads incrementing concurrently do not
+ * contend on one cache line, and they count in {@code long}. Unlike {@link SimpleMetrics},
+ * {@link #recordTime(long)} accumulates: {@link #getTimeNs()} is the total over all
+ * recorded runs and every run also goes into a {@link LatencyHistogram}.
+ * <p>
+ * Each instance belongs to a named phase (such as {@code scc} or {@code topo}); see
+ * {@link MetricsRegistry} for collecting and exporting several phases.
+ */
+public class ConcurrentMetrics implements Metrics {
+    private final String phase;
+    private final LongAdder dfsVisits = new LongAdder();
+    private final LongAdder edgesProcessed = new LongAdder();
+    private final LongAdder queuePops = new LongAdder();
+    private final LongAdder queuePushes = new LongAdder();
+    private final LongAdder relaxations = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    public ConcurrentMetrics() {
+        this("default");
+    }
+
+    /**
+     * Creates metrics for a named phase.
+     *
+     * @param phase phase name used as label on export
+     */
+    public ConcurrentMetrics(String phase) {
+        this.phase = phase;
+    }
+
+    public String getPhase() {
+        return phase;
+    }
+
+    @Override
+    public void reset() {
+        dfsVisits.reset();
+        edgesProcessed.reset();
+        queuePops.reset();
+        queuePushes.reset();
+        relaxations.reset();
+        latency.reset();
+    }
+
+    @Override
+    public long getDfsVisits() {
+        return dfsVisits.sum();
+    }
+
+    @Override
+    public void incrementDfsVisits() {
+        dfsVisits.increment();
+    }
+
+    @Override
+    public void addDfsVisits(long count) {
+        dfsVisits.add(count);
+    }
+
+    @Override
+    public long getEdgesProcessed() {
+        return edgesProcessed.sum();
+    }
+
+    @Override
+    public void incrementEdgesProcessed() {
+        edgesProcessed.increment();
+    }
+
+    @Override
+    public void addEdgesProcessed(long count) {
+        edgesProcessed.add(count);
+    }
+
+    @Override
+    public long getQueuePops() {
+        return queuePops.sum();
+    }
+
+    @Override
+    public void incrementQueuePops() {
+        queuePops.increment();
+    }
+
+    @Override
+    public void addQueuePops(long count) {
+        queuePops.add(count);
+    }
+
+    @Override
+    public long getQueuePushes() {
+        return queuePushes.sum();
+    }
+
+    @Override
+    public void incrementQueuePushes() {
+        queuePushes.increment();
+    }
+
+    @Override
+    public void addQueuePushes(long count) {
+        queuePushes.add(count);
+    }
+
+    @Override
+    public long getRelaxations() {
+        return relaxations.sum();
+    }
+
+    @Override
+    public void incrementRelaxations() {
+        relaxations.increment();
+    }
+
+    @Override
+    public void addRelaxations(long count) {
+        relaxations.add(count);
+    }
+
+    @Override
+    public void recordTime(long timeNs) {
+        latency.record(timeNs);
+    }
+
+    /**
+     * Returns the total of all recorded times.
+     *
+     * @return summed execution time in nanoseconds
+     */
+    @Override
+    public long getTimeNs() {
+        return latency.getSum();
+    }
+
+    /**
+     * Returns the live histogram of recorded times.
+     *
+     * @return latency histogram
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * Adds another phase's counters and recorded times to this one.
+     *
+     * @param other metrics to merge in
+     */
+    public void add(ConcurrentMetrics other) {
+        dfsVisits.add(other.getDfsVisits());
+        edgesProcessed.add(other.getEdgesProcessed());
+        queuePops.add(other.getQueuePops());
+        queuePushes.add(other.getQueuePushes());
+        relaxations.add(other.getRelaxations());
+        latency.add(other.latency);
+    }
+
+    /**
+     * Captures the current values. Counters are read one at a time, so a snapshot taken
+     * while other threads are still counting is not atomic across counters.
+     *
+     * @return immutable snapshot
+     */
+    public MetricsSnapshot snapshot() {
+        return new MetricsSnapshot(phase, getDfsVisits(), getEdgesProcessed(), getQueuePops(),
+            getQueuePushes(), getRelaxations(), latency.copy());
+    }
+
+    @Override
+    public void printMetrics() {
+        System.out.println("=== Metrics ===");
+        System.out.println("DFS visits: " + getDfsVisits());
+        System.out.println("Edges processed: " + getEdgesProcessed());
+        System.out.println("Queue pops: " + getQueuePops());
+        System.out.println("Queue pushes: " + getQueuePushes());
+        System.out.println("Relaxations: " + getRelaxations());
+        System.out.println("Time (ns): " + getTimeNs());
+        System.out.println("Time (ms): " + (getTimeNs() / 1_000_000.0));
+    }
+}
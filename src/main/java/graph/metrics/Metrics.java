@@ -3,6 +3,10 @@ package graph.metrics;
 /**
  * Interface for collecting algorithm execution metrics.
  * Provides counters for operations and timing information.
+ * <p>
+ * Algorithms count in local variables and flush them with the {@code add} methods once
+ * per run, so their inner loops make no metrics calls; pass {@code null} or
+ * {@link NoOpMetrics#INSTANCE} to collect nothing.
  */
 public interface Metrics {
     /**
@@ -15,61 +19,96 @@ public interface Metrics {
      *
      * @return count of DFS visits
      */
-    int getDfsVisits();
+    long getDfsVisits();
 
     /**
      * Increments DFS visits counter.
      */
     void incrementDfsVisits();
 
+    /**
+     * Adds to the DFS visits counter.
+     *
+     * @param count number of DFS visits to add
+     */
+    void addDfsVisits(long count);
+
     /**
      * Gets the number of edges processed.
      *
      * @return count of edges processed
      */
-    int getEdgesProcessed();
+    long getEdgesProcessed();
 
     /**
      * Increments edges processed counter.
      */
     void incrementEdgesProcessed();
 
+    /**
+     * Adds to the edges processed counter.
+     *
+     * @param count number of edges processed to add
+     */
+    void addEdgesProcessed(long count);
+
     /**
      * Gets the number of queue pops (for Kahn's algorithm).
      *
      * @return count of queue pops
      */
-    int getQueuePops();
+    long getQueuePops();
 
     /**
      * Increments queue pops counter.
      */
     void incrementQueuePops();
 
+    /**
+     * Adds to the queue pops counter.
+     *
+     * @param count number of queue pops to add
+     */
+    void addQueuePops(long count);
+
     /**
      * Gets the number of queue pushes (for Kahn's algorithm).
      *
      * @return count of queue pushes
      */
-    int getQueuePushes();
+    long getQueuePushes();
 
     /**
      * Increments queue pushes counter.
      */
     void incrementQueuePushes();
 
+    /**
+     * Adds to the queue pushes counter.
+     *
+     * @param count number of queue pushes to add
+     */
+    void addQueuePushes(long count);
+
     /**
      * Gets the number of edge relaxations (for shortest path algorithms).
      *
      * @return count of edge relaxations
      */
-    int getRelaxations();
+    long getRelaxations();
 
     /**
      * Increments edge relaxations counter.
      */
     void incrementRelaxations();
 
+    /**
+     * Adds to the edge relaxations counter.
+     *
+     * @param count number of edge relaxations to add
+     */
+    void addRelaxations(long count);
+
     /**
      * Records execution time in nanoseconds.
      *
@@ -0,0 +1,157 @@
+package graph.metrics;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToLongFunction;
+
+/**
+ * Named {@link ConcurrentMetrics} per pipeline phase, with export of all phases as JSON
+ * or in the Prometheus text exposition format.
+ */
+public class MetricsRegistry {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final String[] JSON_KEYS = {"p50Ns", "p90Ns", "p99Ns", "p999Ns"};
+    private static final String[] QUANTILE_LABELS = {"0.5", "0.9", "0.99", "0.999"};
+
+    private final Map<String, ConcurrentMetrics> phases = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the metrics of a phase, creating them on first use.
+     *
+     * @param name phase name
+     * @return shared metrics for that phase
+     */
+    public ConcurrentMetrics phase(String name) {
+        return phases.computeIfAbsent(name, ConcurrentMetrics::new);
+    }
+
+    /**
+     * Takes a snapshot of every phase.
+     *
+     * @return snapshots sorted by phase name
+     */
+    public List<MetricsSnapshot> snapshot() {
+        List<MetricsSnapshot> snapshots = new ArrayList<>();
+        for (ConcurrentMetrics metrics : phases.values()) {
+            snapshots.add(metrics.snapshot());
+        }
+        snapshots.sort((a, b) -> a.getPhase().compareTo(b.getPhase()));
+        return snapshots;
+    }
+
+    /**
+     * Renders all phases as a JSON document.
+     *
+     * @return pretty-printed JSON
+     */
+    public String toJson() {
+        JsonArray array = new JsonArray();
+        for (MetricsSnapshot s : snapshot()) {
+            JsonObject phase = new JsonObject();
+            phase.addProperty("phase", s.getPhase());
+            phase.addProperty("dfsVisits", s.getDfsVisits());
+            phase.addProperty("edgesProcessed", s.getEdgesProcessed());
+            phase.addProperty("queuePops", s.getQueuePops());
+            phase.addProperty("queuePushes", s.getQueuePushes());
+            phase.addProperty("relaxations", s.getRelaxations());
+            phase.addProperty("runs", s.getRuns());
+            phase.addProperty("timeNs", s.getTimeNs());
+
+            LatencyHistogram latency = s.getLatency();
+            JsonObject histogram = new JsonObject();
+            histogram.addProperty("minNs", latency.getMin());
+            histogram.addProperty("meanNs", latency.getMean());
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                histogram.addProperty(JSON_KEYS[i], latency.getValueAtPercentile(PERCENTILES[i]));
+            }
+            histogram.addProperty("maxNs", latency.getMax());
+            phase.add("latency", histogram);
+            array.add(phase);
+        }
+        JsonObject root = new JsonObject();
+        root.add("phases", array);
+        return new GsonBuilder().setPrettyPrinting().create().toJson(root);
+    }
+
+    /**
+     * Renders all phases in the Prometheus text format: one counter family per operation
+     * counter and a {@code graph_phase_seconds} summary, labelled by phase.
+     *
+     * @return exposition text
+     */
+    public String toPrometheus() {
+        List<MetricsSnapshot> snapshots = snapshot();
+        StringBuilder sb = new StringBuilder();
+        counter(sb, snapshots, "graph_dfs_visits_total", "DFS vertex visits", MetricsSnapshot::getDfsVisits);
+        counter(sb, snapshots, "graph_edges_processed_total", "Edges processed", MetricsSnapshot::getEdgesProcessed);
+        counter(sb, snapshots, "graph_queue_pops_total", "Queue pops", MetricsSnapshot::getQueuePops);
+        counter(sb, snapshots, "graph_queue_pushes_total", "Queue pushes", MetricsSnapshot::getQueuePushes);
+        counter(sb, snapshots, "graph_relaxations_total", "Edge relaxations", MetricsSnapshot::getRelaxations);
+
+        sb.append("# HELP graph_phase_seconds Phase latency\n");
+        sb.append("# TYPE graph_phase_seconds summary\n");
+        for (MetricsSnapshot s : snapshots) {
+            String phase = escape(s.getPhase());
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                sb.append("graph_phase_seconds{phase=\"").append(phase).append("\",quantile=\"")
+                    .append(QUANTILE_LABELS[i]).append("\"} ")
+                    .append(seconds(s.getLatency().getValueAtPercentile(PERCENTILES[i]))).append('\n');
+            }
+            sb.append("graph_phase_seconds_sum{phase=\"").append(phase).append("\"} ")
+                .append(seconds(s.getTimeNs())).append('\n');
+            sb.append("graph_phase_seconds_count{phase=\"").append(phase).append("\"} ")
+                .append(s.getRuns()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Writes {@link #toJson()} to a file.
+     *
+     * @param path output file
+     * @throws IOException if the file cannot be written
+     */
+    public void writeJson(Path path) throws IOException {
+        Files.writeString(path, toJson(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes {@link #toPrometheus()} to a file, for example for the node exporter's
+     * textfile collector.
+     *
+     * @param path output file
+     * @throws IOException if the file cannot be written
+     */
+    public void writePrometheus(Path path) throws IOException {
+        Files.writeString(path, toPrometheus(), StandardCharsets.UTF_8);
+    }
+
+    private static void counter(StringBuilder sb, List<MetricsSnapshot> snapshots, String name, String help,
+                                ToLongFunction<MetricsSnapshot> value) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(" counter\n");
+        for (MetricsSnapshot s : snapshots) {
+            sb.append(name).append("{phase=\"").append(escape(s.getPhase())).append("\"} ")
+                .append(value.applyAsLong(s)).append('\n');
+        }
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1e9);
+    }
+
+    private static String escape(String label) {
+        return label.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,77 @@
+package graph.metrics;
+
+/**
+ * Immutable copy of one phase's counters and latency histogram, as taken by
+ * {@link ConcurrentMetrics#snapshot()}.
+ */
+public class MetricsSnapshot {
+    private final String phase;
+    private final long dfsVisits;
+    private final long edgesProcessed;
+    private final long queuePops;
+    private final long queuePushes;
+    private final long relaxations;
+    private final LatencyHistogram latency;
+
+    MetricsSnapshot(String phase, long dfsVisits, long edgesProcessed, long queuePops,
+                    long queuePushes, long relaxations, LatencyHistogram latency) {
+        this.phase = phase;
+        this.dfsVisits = dfsVisits;
+        this.edgesProcessed = edgesProcessed;
+        this.queuePops = queuePops;
+        this.queuePushes = queuePushes;
+        this.relaxations = relaxations;
+        this.latency = latency;
+    }
+
+    public String getPhase() {
+        return phase;
+    }
+
+    public long getDfsVisits() {
+        return dfsVisits;
+    }
+
+    public long getEdgesProcessed() {
+        return edgesProcessed;
+    }
+
+    public long getQueuePops() {
+        return queuePops;
+    }
+
+    public long getQueuePushes() {
+        return queuePushes;
+    }
+
+    public long getRelaxations() {
+        return relaxations;
+    }
+
+    /**
+     * Returns the number of recorded runs.
+     *
+     * @return run count
+     */
+    public long getRuns() {
+        return latency.getCount();
+    }
+
+    /**
+     * Returns the total recorded time.
+     *
+     * @return summed time in nanoseconds
+     */
+    public long getTimeNs() {
+        return latency.getSum();
+    }
+
+    /**
+     * Returns the latency distribution; callers must not record into it.
+     *
+     * @return histogram copy owned by this snapshot
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+}
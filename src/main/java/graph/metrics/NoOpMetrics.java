@@ -0,0 +1,97 @@
+package graph.metrics;
+
+/**
+ * Metrics that discard everything, for callers that need a non-null {@link Metrics}
+ * but do not want to collect. All getters return 0.
+ */
+public final class NoOpMetrics implements Metrics {
+    /**
+     * Shared instance; the class is stateless.
+     */
+    public static final NoOpMetrics INSTANCE = new NoOpMetrics();
+
+    private NoOpMetrics() {
+    }
+
+    @Override
+    public void reset() {
+    }
+
+    @Override
+    public long getDfsVisits() {
+        return 0;
+    }
+
+    @Override
+    public void incrementDfsVisits() {
+    }
+
+    @Override
+    public void addDfsVisits(long count) {
+    }
+
+    @Override
+    public long getEdgesProcessed() {
+        return 0;
+    }
+
+    @Override
+    public void incrementEdgesProcessed() {
+    }
+
+    @Override
+    public void addEdgesProcessed(long count) {
+    }
+
+    @Override
+    public long getQueuePops() {
+        return 0;
+    }
+
+    @Override
+    public void incrementQueuePops() {
+    }
+
+    @Override
+    public void addQueuePops(long count) {
+    }
+
+    @Override
+    public long getQueuePushes() {
+        return 0;
+    }
+
+    @Override
+    public void incrementQueuePushes() {
+    }
+
+    @Override
+    public void addQueuePushes(long count) {
+    }
+
+    @Override
+    public long getRelaxations() {
+        return 0;
+    }
+
+    @Override
+    public void incrementRelaxations() {
+    }
+
+    @Override
+    public void addRelaxations(long count) {
+    }
+
+    @Override
+    public void recordTime(long timeNs) {
+    }
+
+    @Override
+    public long getTimeNs() {
+        return 0;
+    }
+
+    @Override
+    public void printMetrics() {
+    }
+}
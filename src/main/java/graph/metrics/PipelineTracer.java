@@ -0,0 +1,275 @@
+package graph.metrics;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Records pipeline stages as timed spans and writes them as a Chrome trace
+ * ({@code chrome://tracing}, Perfetto or speedscope can open it).
+ * <p>
+ * Each span measures wall time, CPU time of the calling thread, bytes allocated by that
+ * thread (where the JVM supports {@code com.sun.management.ThreadMXBean}) and peak heap.
+ * Spans opened on the same thread nest: a span started while another is open is its child,
+ * and must end first ({@link #unwind(Span)} ends a span and whatever is still open inside
+ * it). Peak heap is JVM-wide: the sum of the heap pools' peak usage while the span was
+ * open, so an upper bound of the true peak.
+ * <p>
+ * Spans may be started from several threads; each thread has its own nesting. The pool
+ * peaks are reset whenever any span starts or ends, so first the peak seen since the last
+ * reset is folded into every span open on any thread; a span's peak covers its whole
+ * lifetime however other threads' spans interleave with it. The pools are shared by the
+ * whole JVM, so only one tracer should record at a time.
+ */
+public class PipelineTracer {
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final long originNs = System.nanoTime();
+    private final List<Span> finished = new ArrayList<>();
+    private final Set<Span> active = new HashSet<>();
+    private final ThreadLocal<Deque<Span>> open = ThreadLocal.withInitial(ArrayDeque::new);
+
+    /**
+     * Starts a span on the calling thread.
+     *
+     * @param name stage name, e.g. {@code scc}
+     * @param category grouping shown by trace viewers, e.g. the dataset
+     * @return open span; call {@link Span#end()} when the stage is done
+     */
+    public Span start(String name, String category) {
+        Deque<Span> stack = open.get();
+        Span span = new Span(this, name, category);
+        stack.push(span);
+        return span;
+    }
+
+    /**
+     * Ends a span together with any spans still open inside it, innermost first. Use it
+     * where a stage may have thrown with its own span open, e.g. in a {@code finally}.
+     *
+     * @param span span open on the calling thread
+     * @return the ended span
+     * @throws IllegalStateException if the span is not open on the calling thread
+     */
+    public Span unwind(Span span) {
+        Deque<Span> stack = open.get();
+        if (!stack.contains(span)) {
+            throw new IllegalStateException("Span " + span.name + " is not open on this thread");
+        }
+        while (stack.peek() != span) {
+            stack.peek().end();
+        }
+        return span.end();
+    }
+
+    /**
+     * Returns the spans ended so far, in the order they ended.
+     *
+     * @return copy of the finished spans
+     */
+    public synchronized List<Span> getSpans() {
+        return new ArrayList<>(finished);
+    }
+
+    /**
+     * Writes all finished spans as complete ({@code "ph": "X"}) Chrome trace events,
+     * with the resource measurements in each event's {@code args}.
+     *
+     * @param path output file
+     * @throws IOException if the file cannot be written
+     */
+    public void writeChromeTrace(Path path) throws IOException {
+        try (Writer out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writeChromeTrace(out);
+        }
+    }
+
+    /**
+     * Writes all finished spans as a Chrome trace document.
+     *
+     * @param out destination
+     * @throws IOException if writing fails
+     */
+    public void writeChromeTrace(Writer out) throws IOException {
+        JsonArray events = new JsonArray();
+        for (Span span : getSpans()) {
+            JsonObject event = new JsonObject();
+            event.addProperty("name", span.name);
+            event.addProperty("cat", span.category);
+            event.addProperty("ph", "X");
+            event.addProperty("ts", span.startNs / 1_000.0);
+            event.addProperty("dur", span.wallNs / 1_000.0);
+            event.addProperty("pid", ProcessHandle.current().pid());
+            event.addProperty("tid", span.threadId);
+            JsonObject args = new JsonObject();
+            args.addProperty("cpuMs", span.cpuNs / 1_000_000.0);
+            args.addProperty("allocatedBytes", span.allocatedBytes);
+            args.addProperty("peakHeapBytes", span.peakHeapBytes);
+            event.add("args", args);
+            events.add(event);
+        }
+        JsonObject root = new JsonObject();
+        root.add("traceEvents", events);
+        root.addProperty("displayTimeUnit", "ms");
+        new GsonBuilder().setPrettyPrinting().create().toJson(root, out);
+    }
+
+    private synchronized void opened(Span span) {
+        foldPeakHeap();
+        active.add(span);
+    }
+
+    private synchronized void finish(Span span) {
+        foldPeakHeap();
+        active.remove(span);
+        span.peakHeapBytes = span.foldedPeakHeap;
+        finished.add(span);
+    }
+
+    /**
+     * Credits the peak since the last reset to every open span, then resets the pools.
+     */
+    private void foldPeakHeap() {
+        long peak = peakHeap();
+        for (Span span : active) {
+            span.foldedPeakHeap = Math.max(span.foldedPeakHeap, peak);
+        }
+        resetPeakHeap();
+    }
+
+    private static long cpuTime() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : -1;
+    }
+
+    private static long allocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean sun && sun.isThreadAllocatedMemorySupported()
+                && sun.isThreadAllocatedMemoryEnabled()) {
+            return sun.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    private static void resetPeakHeap() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    /**
+     * One traced stage. Measurements are available after {@link #end()}; values the JVM
+     * cannot provide are -1.
+     */
+    public static final class Span {
+        private final PipelineTracer tracer;
+        private final String name;
+        private final String category;
+        private final long threadId;
+        private final long startNs;
+        private final long startCpuNs;
+        private final long startAllocated;
+        private long foldedPeakHeap; // guarded by the tracer
+        private long wallNs = -1;
+        private long cpuNs = -1;
+        private long allocatedBytes = -1;
+        private long peakHeapBytes = -1;
+
+        private Span(PipelineTracer tracer, String name, String category) {
+            this.tracer = tracer;
+            this.name = name;
+            this.category = category;
+            this.threadId = Thread.currentThread().threadId();
+            tracer.opened(this);
+            this.startAllocated = allocatedBytes();
+            this.startCpuNs = cpuTime();
+            this.startNs = System.nanoTime() - tracer.originNs;
+        }
+
+        /**
+         * Ends the span and records its measurements.
+         *
+         * @return this span
+         * @throws IllegalStateException if a child span is still open or it already ended
+         */
+        public Span end() {
+            long endNs = System.nanoTime() - tracer.originNs;
+            long endCpu = cpuTime();
+            long endAllocated = allocatedBytes();
+            Deque<Span> stack = tracer.open.get();
+            if (stack.peek() != this) {
+                throw new IllegalStateException("Span " + name + " is not the innermost open span");
+            }
+            stack.pop();
+
+            wallNs = endNs - startNs;
+            cpuNs = startCpuNs >= 0 && endCpu >= 0 ? endCpu - startCpuNs : -1;
+            allocatedBytes = startAllocated >= 0 && endAllocated >= 0 ? endAllocated - startAllocated : -1;
+            tracer.finish(this);
+            return this;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+
+        public long getThreadId() {
+            return threadId;
+        }
+
+        /**
+         * Returns the start time relative to the tracer's creation.
+         *
+         * @return offset in nanoseconds
+         */
+        public long getStartNs() {
+            return startNs;
+        }
+
+        public long getWallNs() {
+            return wallNs;
+        }
+
+        public long getCpuNs() {
+            return cpuNs;
+        }
+
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        public long getPeakHeapBytes() {
+            return peakHeapBytes;
+        }
+    }
+}
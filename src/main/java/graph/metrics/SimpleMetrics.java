@@ -1,15 +1,16 @@
 package graph.metrics;
 
 /**
- * Simple implementation of Metrics interface.
- * Tracks operation counters and execution time.
+ * Simple single-threaded implementation of Metrics interface.
+ * Tracks operation counters and the most recent execution time; use
+ * {@link ConcurrentMetrics} when several threads record into the same instance.
  */
 public class SimpleMetrics implements Metrics {
-    private int dfsVisits = 0;
-    private int edgesProcessed = 0;
-    private int queuePops = 0;
-    private int queuePushes = 0;
-    private int relaxations = 0;
+    private long dfsVisits = 0;
+    private long edgesProcessed = 0;
+    private long queuePops = 0;
+    private long queuePushes = 0;
+    private long relaxations = 0;
     private long timeNs = 0;
 
     @Override
@@ -23,7 +24,7 @@ public class SimpleMetrics implements Metrics {
     }
 
     @Override
-    public int getDfsVisits() {
+    public long getDfsVisits() {
         return dfsVisits;
     }
 
@@ -33,7 +34,12 @@ public class SimpleMetrics implements Metrics {
     }
 
     @Override
-    public int getEdgesProcessed() {
+    public void addDfsVisits(long count) {
+        dfsVisits += count;
+    }
+
+    @Override
+    public long getEdgesProcessed() {
         return edgesProcessed;
     }
 
@@ -43,7 +49,12 @@ public class SimpleMetrics implements Metrics {
     }
 
     @Override
-    public int getQueuePops() {
+    public void addEdgesProcessed(long count) {
+        edgesProcessed += count;
+    }
+
+    @Override
+    public long getQueuePops() {
         return queuePops;
     }
 
@@ -53,7 +64,12 @@ public class SimpleMetrics implements Metrics {
     }
 
     @Override
-    public int getQueuePushes() {
+    public void addQueuePops(long count) {
+        queuePops += count;
+    }
+
+    @Override
+    public long getQueuePushes() {
         return queuePushes;
     }
 
@@ -63,7 +79,12 @@ public class SimpleMetrics implements Metrics {
     }
 
     @Override
-    public int getRelaxations() {
+    public void addQueuePushes(long count) {
+        queuePushes += count;
+    }
+
+    @Override
+    public long getRelaxations() {
         return relaxations;
     }
 
@@ -72,6 +93,11 @@ public class SimpleMetrics implements Metrics {
         relaxations++;
     }
 
+    @Override
+    public void addRelaxations(long count) {
+        relaxations += count;
+    }
+
     @Override
     public void recordTime(long timeNs) {
         this.timeNs = timeNs;
@@ -0,0 +1,64 @@
+package graph.scc;
+
+import graph.csr.ArrayCSRGraph;
+import graph.csr.CSRGraph;
+
+import java.util.List;
+
+/**
+ * Condensation DAG of a graph: one vertex per strongly connected component and one
+ * edge per distinct pair of connected components. When built from a weighted graph
+ * each edge carries the minimum weight among the original edges it replaces.
+ */
+public class Condensation {
+    private final ArrayCSRGraph graph;
+
+    Condensation(ArrayCSRGraph graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Returns the condensation DAG in CSR form.
+     *
+     * @return condensation graph, weighted if the source graph was weighted
+     */
+    public CSRGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Returns the number of components (vertices of the condensation).
+     *
+     * @return component count
+     */
+    public int getComponentCount() {
+        return graph.vertexCount();
+    }
+
+    /**
+     * Returns the number of distinct inter-component edges.
+     *
+     * @return condensation edge count
+     */
+    public int getEdgeCount() {
+        return graph.edgeCount();
+    }
+
+    /**
+     * Converts the condensation to an adjacency list.
+     *
+     * @return adjacency list of the condensation graph
+     */
+    public List<List<Integer>> toAdjacencyList() {
+        return graph.toAdjacencyList();
+    }
+
+    /**
+     * Converts the condensation to a weighted adjacency list.
+     *
+     * @return weighted adjacency list (each edge is [destination, minimum weight])
+     */
+    public List<List<int[]>> toWeightedAdjacencyList() {
+        return graph.toWeightedAdjacencyList();
+    }
+}
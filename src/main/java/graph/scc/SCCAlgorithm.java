@@ -0,0 +1,26 @@
+package graph.scc;
+
+/**
+ * Strategies available to {@link SCCFinder} for decomposing a graph into
+ * strongly connected components.
+ */
+public enum SCCAlgorithm {
+    /**
+     * Classic recursive Tarjan. Recursion depth equals the longest DFS path,
+     * so it is only suitable for small graphs.
+     */
+    RECURSIVE_TARJAN,
+
+    /**
+     * Tarjan driven by an explicit call stack and edge-cursor stack over
+     * primitive int arrays. Stack-safe for graphs of any size.
+     */
+    ITERATIVE_TARJAN,
+
+    /**
+     * Trimming plus forward-backward reachability plus coloring, with each
+     * reachability level processed on a ForkJoinPool. Component ids are dense but
+     * not in topological order, and operation counters are not recorded.
+     */
+    PARALLEL_FORWARD_BACKWARD
+}
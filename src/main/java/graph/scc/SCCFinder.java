@@ -1,22 +1,41 @@
 package graph.scc;
 
+import graph.csr.ArrayCSRGraph;
+import graph.csr.CSRGraph;
 import graph.metrics.Metrics;
+import graph.topo.TopoSort;
 import java.util.*;
 
 /**
  * Strongly Connected Components finder using Tarjan's algorithm.
  * Provides SCC detection and condensation graph construction.
+ * <p>
+ * The search runs over a {@link CSRGraph}; adjacency lists are flattened into one
+ * up front. By default the search runs iteratively with an explicit edge-cursor stack, so
+ * graphs with very long chains do not overflow the thread stack.
+ * <p>
+ * Component ids are assigned in topological order of the condensation, so the
+ * condensation needs no separate topological sort (see {@link #getTopologicalOrder()}).
  */
 public class SCCFinder {
     private final int n;
-    private final List<List<Integer>> adj;
-    private final boolean[] visited;
-    private final int[] ids;
-    private final int[] low;
-    private final int[] componentId;
+    private final CSRGraph graph;
+    private boolean[] onStack;
+    private int[] ids;
+    private int[] low;
+    private int[] stack;
+    private int[] callStack;
+    private int[] cursorStack;
+    private int stackTop = 0;
     private int id = 0;
-    private final Stack<Integer> stack = new Stack<>();
-    private final List<List<Integer>> sccs = new ArrayList<>();
+    private final int[] componentId;
+    private final int[] members;
+    private final int[] componentStart;
+    private int componentCount = 0;
+    private int memberEnd;
+    private boolean topologicalIds;
+    private int[] topologicalOrder;
+    private List<List<Integer>> sccs;
     private Metrics metrics;
 
     /**
@@ -35,75 +54,234 @@ public class SCCFinder {
      * @param metrics metrics collector for operation counting
      */
     public SCCFinder(List<List<Integer>> graph, Metrics metrics) {
-        this.n = graph.size();
-        this.adj = graph;
-        this.ids = new int[n];
-        this.low = new int[n];
+        this(graph, metrics, SCCAlgorithm.ITERATIVE_TARJAN);
+    }
+
+    /**
+     * Constructs SCCFinder with metrics tracking and an explicit algorithm.
+     *
+     * @param graph adjacency list representation of the directed graph
+     * @param metrics metrics collector for operation counting
+     * @param algorithm SCC algorithm to run
+     */
+    public SCCFinder(List<List<Integer>> graph, Metrics metrics, SCCAlgorithm algorithm) {
+        this(ArrayCSRGraph.fromAdjacencyList(graph), metrics, algorithm);
+    }
+
+    /**
+     * Constructs SCCFinder over a CSR graph.
+     *
+     * @param graph CSR representation of the directed graph
+     */
+    public SCCFinder(CSRGraph graph) {
+        this(graph, null);
+    }
+
+    /**
+     * Constructs SCCFinder over a CSR graph with metrics tracking.
+     *
+     * @param graph CSR representation of the directed graph
+     * @param metrics metrics collector for operation counting
+     */
+    public SCCFinder(CSRGraph graph, Metrics metrics) {
+        this(graph, metrics, SCCAlgorithm.ITERATIVE_TARJAN);
+    }
+
+    /**
+     * Constructs SCCFinder over a CSR graph with metrics tracking and an explicit algorithm.
+     *
+     * @param graph CSR representation of the directed graph
+     * @param metrics metrics collector for operation counting
+     * @param algorithm SCC algorithm to run
+     */
+    public SCCFinder(CSRGraph graph, Metrics metrics, SCCAlgorithm algorithm) {
+        this.n = graph.vertexCount();
+        this.graph = graph;
         this.componentId = new int[n];
-        this.visited = new boolean[n];
+        this.members = new int[n];
+        this.componentStart = new int[n + 1];
         this.metrics = metrics;
+
+        long startTime = System.nanoTime();
+
+        if (algorithm == SCCAlgorithm.PARALLEL_FORWARD_BACKWARD) {
+            componentCount = ParallelSCC.decompose(graph, componentId);
+            groupMembers();
+        } else {
+            runTarjan(algorithm);
+        }
+
+        if (metrics != null) {
+            long endTime = System.nanoTime();
+            metrics.recordTime(endTime - startTime);
+        }
+    }
+
+    private void runTarjan(SCCAlgorithm algorithm) {
+        ids = new int[n];
+        low = new int[n];
+        onStack = new boolean[n];
+        stack = new int[n];
         Arrays.fill(ids, -1);
         Arrays.fill(componentId, -1);
-        
-        long startTime = System.nanoTime();
-        
+        memberEnd = n;
+        if (algorithm != SCCAlgorithm.RECURSIVE_TARJAN) {
+            callStack = new int[n];
+            cursorStack = new int[n];
+        }
+
         for (int i = 0; i < n; i++) {
             if (ids[i] == -1) {
-                dfs(i);
+                if (algorithm == SCCAlgorithm.RECURSIVE_TARJAN) {
+                    dfs(i);
+                } else {
+                    iterativeDfs(i);
+                }
             }
         }
-        
-        assignComponentIds();
-        
+
+        renumberTopologically();
+
+        // Tarjan enters every vertex and scans every edge exactly once, so the counters
+        // are known without counting inside the DFS
         if (metrics != null) {
-            long endTime = System.nanoTime();
-            metrics.recordTime(endTime - startTime);
+            metrics.addDfsVisits(n);
+            metrics.addEdgesProcessed(graph.edgeCount());
         }
+
+        // Search state is only needed while running; release it for large graphs
+        ids = low = stack = callStack = cursorStack = null;
+        onStack = null;
     }
 
-    private void dfs(int at) {
-        if (metrics != null) {
-            metrics.incrementDfsVisits();
+    /**
+     * Fills the member/offset arrays from component ids with a counting sort,
+     * for algorithms that only produce the id of every vertex.
+     */
+    private void groupMembers() {
+        for (int v = 0; v < n; v++) {
+            componentStart[componentId[v] + 1]++;
+        }
+        for (int c = 0; c < componentCount; c++) {
+            componentStart[c + 1] += componentStart[c];
         }
-        
-        stack.push(at);
-        visited[at] = true;
+        int[] next = Arrays.copyOf(componentStart, componentCount);
+        for (int v = 0; v < n; v++) {
+            members[next[componentId[v]]++] = v;
+        }
+    }
+
+    private void dfs(int at) {
+        stack[stackTop++] = at;
+        onStack[at] = true;
         ids[at] = low[at] = id++;
 
-        for (int to : adj.get(at)) {
-            if (metrics != null) {
-                metrics.incrementEdgesProcessed();
-            }
-            
+        for (int e = graph.edgeStart(at); e < graph.edgeEnd(at); e++) {
+            int to = graph.target(e);
             if (ids[to] == -1) {
                 dfs(to);
             }
-            if (visited[to]) {
+            if (onStack[to]) {
                 low[at] = Math.min(low[at], low[to]);
             }
         }
 
         if (ids[at] == low[at]) {
-            List<Integer> component = new ArrayList<>();
-            while (true) {
-                int node = stack.pop();
-                visited[node] = false;
-                component.add(node);
-                low[node] = ids[at];
-                if (node == at) {
-                    break;
+            popComponent(at);
+        }
+    }
+
+    /**
+     * Tarjan's DFS from {@code root} without recursion. The call stack holds the
+     * vertices whose adjacency is still being scanned and the cursor stack holds
+     * the next edge index to examine for each of them.
+     */
+    private void iterativeDfs(int root) {
+        int depth = 0;
+
+        enter(root);
+        callStack[depth] = root;
+        cursorStack[depth] = graph.edgeStart(root);
+        depth++;
+
+        while (depth > 0) {
+            int at = callStack[depth - 1];
+            int cursor = cursorStack[depth - 1];
+
+            if (cursor < graph.edgeEnd(at)) {
+                int to = graph.target(cursor);
+                cursorStack[depth - 1] = cursor + 1;
+
+                if (ids[to] == -1) {
+                    enter(to);
+                    callStack[depth] = to;
+                    cursorStack[depth] = graph.edgeStart(to);
+                    depth++;
+                } else if (onStack[to]) {
+                    low[at] = Math.min(low[at], low[to]);
                 }
+                continue;
+            }
+
+            // All edges of 'at' scanned: finish it and propagate low-link to the caller
+            depth--;
+            if (ids[at] == low[at]) {
+                popComponent(at);
+            }
+            if (depth > 0 && onStack[at]) {
+                int caller = callStack[depth - 1];
+                low[caller] = Math.min(low[caller], low[at]);
             }
-            sccs.add(component);
         }
     }
 
-    private void assignComponentIds() {
-        for (int compIdx = 0; compIdx < sccs.size(); compIdx++) {
-            for (int node : sccs.get(compIdx)) {
-                componentId[node] = compIdx;
+    private void enter(int at) {
+        stack[stackTop++] = at;
+        onStack[at] = true;
+        ids[at] = low[at] = id++;
+    }
+
+    /**
+     * Pops the component rooted at {@code at}. Blocks are filled from the end of the
+     * members array, so the first component to finish (a sink) ends up last in memory.
+     * Until {@link #renumberTopologically()} runs, ids and block starts are indexed by
+     * finishing order.
+     */
+    private void popComponent(int at) {
+        int finished = componentCount++;
+        int pos = memberEnd;
+        while (true) {
+            int node = stack[--stackTop];
+            onStack[node] = false;
+            componentId[node] = finished;
+            members[--pos] = node;
+            low[node] = ids[at];
+            if (node == at) {
+                break;
             }
         }
+        componentStart[finished] = pos;
+        memberEnd = pos;
+    }
+
+    /**
+     * Tarjan finishes components in reverse topological order of the condensation, so
+     * numbering them {@code C - 1 - k} puts ids in topological order without a
+     * separate sort. The member blocks already sit in that order; only the block
+     * starts need reversing.
+     */
+    private void renumberTopologically() {
+        int last = componentCount - 1;
+        for (int v = 0; v < n; v++) {
+            componentId[v] = last - componentId[v];
+        }
+        for (int i = 0, j = last; i < j; i++, j--) {
+            int tmp = componentStart[i];
+            componentStart[i] = componentStart[j];
+            componentStart[j] = tmp;
+        }
+        componentStart[componentCount] = n;
+        topologicalIds = true;
     }
 
     /**
@@ -112,11 +290,32 @@ public class SCCFinder {
      * @return list where each element is a list of vertices in one SCC
      */
     public List<List<Integer>> getSCCs() {
+        if (sccs == null) {
+            sccs = new ArrayList<>(componentCount);
+            for (int c = 0; c < componentCount; c++) {
+                List<Integer> component = new ArrayList<>(componentStart[c + 1] - componentStart[c]);
+                for (int i = componentStart[c]; i < componentStart[c + 1]; i++) {
+                    component.add(members[i]);
+                }
+                sccs.add(component);
+            }
+        }
         return sccs;
     }
 
     /**
-     * Returns the component ID for a given vertex.
+     * Returns the number of strongly connected components.
+     *
+     * @return component count
+     */
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    /**
+     * Returns the component ID for a given vertex. With the Tarjan algorithms ids are a
+     * topological numbering of the condensation: every inter-component edge goes from a
+     * lower id to a higher one.
      *
      * @param vertex the vertex
      * @return component ID (0-indexed)
@@ -125,6 +324,38 @@ public class SCCFinder {
         return componentId[vertex];
     }
 
+    /**
+     * Returns whether component ids are in topological order of the condensation, which
+     * holds for the Tarjan algorithms but not for {@link SCCAlgorithm#PARALLEL_FORWARD_BACKWARD}.
+     *
+     * @return true if every condensation edge goes from a lower to a higher id
+     */
+    public boolean isTopologicallyNumbered() {
+        return topologicalIds;
+    }
+
+    /**
+     * Returns a topological order of the condensation. For topologically numbered
+     * components this is just {@code 0, 1, ..., C-1}, taken from the SCC numbering
+     * instead of a separate sort; otherwise the condensation is built and sorted.
+     *
+     * @return component ids in topological order; shared, must not be modified
+     */
+    public int[] getTopologicalOrder() {
+        if (topologicalOrder == null) {
+            if (topologicalIds) {
+                int[] order = new int[componentCount];
+                for (int c = 0; c < componentCount; c++) {
+                    order[c] = c;
+                }
+                topologicalOrder = order;
+            } else {
+                topologicalOrder = TopoSort.order(buildCondensation().getGraph());
+            }
+        }
+        return topologicalOrder;
+    }
+
     /**
      * Builds the condensation graph (DAG of SCCs).
      * Each SCC becomes a single vertex, edges connect different components.
@@ -132,29 +363,75 @@ public class SCCFinder {
      * @return adjacency list of the condensation graph
      */
     public List<List<Integer>> buildCondensationGraph() {
-        int numComponents = sccs.size();
-        List<List<Integer>> condensationGraph = new ArrayList<>();
-        Set<String> edgeSet = new HashSet<>();
-
-        for (int i = 0; i < numComponents; i++) {
-            condensationGraph.add(new ArrayList<>());
-        }
-
-        for (int u = 0; u < n; u++) {
-            int compU = componentId[u];
-            for (int v : adj.get(u)) {
-                int compV = componentId[v];
-                if (compU != compV) {
-                    String edge = compU + "," + compV;
-                    if (!edgeSet.contains(edge)) {
-                        edgeSet.add(edge);
-                        condensationGraph.get(compU).add(compV);
+        return buildCondensation(graph).toAdjacencyList();
+    }
+
+    /**
+     * Builds the condensation of the graph this finder was run on.
+     *
+     * @return condensation DAG, weighted if the input graph is weighted
+     */
+    public Condensation buildCondensation() {
+        return buildCondensation(graph);
+    }
+
+    /**
+     * Builds the condensation DAG using the edges and weights of {@code weightedGraph},
+     * which must have the same vertices as the graph the SCCs were computed on.
+     * Parallel inter-component edges are merged, keeping the minimum weight.
+     * <p>
+     * Works in one pass over the edges, component by component: a per-component
+     * "last seen" marker dedupes targets and remembers the slot of the first
+     * occurrence, so no hashing or per-edge allocation is needed.
+     *
+     * @param weightedGraph graph whose edges are condensed
+     * @return condensation DAG
+     */
+    public Condensation buildCondensation(CSRGraph weightedGraph) {
+        if (weightedGraph.vertexCount() != n) {
+            throw new IllegalArgumentException("Graph has " + weightedGraph.vertexCount()
+                + " vertices, expected " + n);
+        }
+        int numComponents = componentCount;
+        boolean weighted = weightedGraph.isWeighted();
+        int[] offsets = new int[numComponents + 1];
+        int[] targets = new int[weightedGraph.edgeCount()];
+        int[] weights = weighted ? new int[targets.length] : null;
+        int[] lastSeen = new int[numComponents];
+        int[] slot = new int[numComponents];
+        Arrays.fill(lastSeen, -1);
+
+        int count = 0;
+        for (int compU = 0; compU < numComponents; compU++) {
+            offsets[compU] = count;
+            for (int i = componentStart[compU]; i < componentStart[compU + 1]; i++) {
+                int u = members[i];
+                for (int e = weightedGraph.edgeStart(u), end = weightedGraph.edgeEnd(u); e < end; e++) {
+                    int compV = componentId[weightedGraph.target(e)];
+                    if (compV == compU) {
+                        continue;
+                    }
+                    if (lastSeen[compV] != compU) {
+                        lastSeen[compV] = compU;
+                        slot[compV] = count;
+                        targets[count] = compV;
+                        if (weighted) {
+                            weights[count] = weightedGraph.weight(e);
+                        }
+                        count++;
+                    } else if (weighted) {
+                        int w = weightedGraph.weight(e);
+                        if (w < weights[slot[compV]]) {
+                            weights[slot[compV]] = w;
+                        }
                     }
                 }
             }
         }
+        offsets[numComponents] = count;
 
-        return condensationGraph;
+        return new Condensation(new ArrayCSRGraph(offsets, Arrays.copyOf(targets, count),
+            weighted ? Arrays.copyOf(weights, count) : null));
     }
 
     /**
@@ -163,9 +440,9 @@ public class SCCFinder {
      * @return array where index i contains the size of component i
      */
     public int[] getComponentSizes() {
-        int[] sizes = new int[sccs.size()];
-        for (int i = 0; i < sccs.size(); i++) {
-            sizes[i] = sccs.get(i).size();
+        int[] sizes = new int[componentCount];
+        for (int i = 0; i < componentCount; i++) {
+            sizes[i] = componentStart[i + 1] - componentStart[i];
         }
         return sizes;
     }
@@ -0,0 +1,124 @@
+package graph.service;
+
+import graph.dagsp.PathCache;
+import graph.dagsp.PathDistances;
+import graph.dagsp.PathMode;
+import graph.io.GraphData;
+import graph.io.GraphLoader;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resident set of prepared graphs, keyed by name. Entries are immutable, so any number of
+ * request threads can read them while another thread loads or replaces a graph.
+ * <p>
+ * Path results are memoized in a {@link PathCache}. Every prepared graph gets a fresh
+ * version, and replacing or removing a graph invalidates the old version's results.
+ */
+public class GraphCache {
+    private final Map<String, PlannerGraph> graphs = new ConcurrentHashMap<>();
+    private final AtomicLong nextVersion = new AtomicLong();
+    private final PathCache pathCache;
+
+    public GraphCache() {
+        this(new PathCache());
+    }
+
+    /**
+     * Creates a graph cache memoizing path results in {@code pathCache}.
+     *
+     * @param pathCache result cache
+     */
+    public GraphCache(PathCache pathCache) {
+        this.pathCache = pathCache;
+    }
+
+    /**
+     * Loads a dataset file, prepares it and stores it under a name derived from the file
+     * name without extension (for example {@code large1} for {@code data/large1.json}).
+     *
+     * @param filename JSON or binary graph file
+     * @return prepared graph
+     * @throws IOException if the file cannot be read or is malformed
+     */
+    public PlannerGraph load(String filename) throws IOException {
+        String name = Path.of(filename).getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return load(dot > 0 ? name.substring(0, dot) : name, filename);
+    }
+
+    /**
+     * Loads a dataset file, prepares it and stores it under {@code name}, replacing any
+     * graph of that name.
+     *
+     * @param name graph name
+     * @param filename JSON or binary graph file
+     * @return prepared graph
+     * @throws IOException if the file cannot be read or is malformed
+     */
+    public PlannerGraph load(String name, String filename) throws IOException {
+        return put(name, GraphLoader.load(filename));
+    }
+
+    /**
+     * Prepares an already loaded dataset and stores it under {@code name}.
+     *
+     * @param name graph name
+     * @param data loaded dataset
+     * @return prepared graph
+     */
+    public PlannerGraph put(String name, GraphData data) {
+        PlannerGraph graph = PlannerGraph.prepare(name, nextVersion.incrementAndGet(), data);
+        retire(graphs.put(name, graph));
+        return graph;
+    }
+
+    /**
+     * Looks up a graph.
+     *
+     * @param name graph name
+     * @return prepared graph, or null if none is loaded under that name
+     */
+    public PlannerGraph get(String name) {
+        return graphs.get(name);
+    }
+
+    public PlannerGraph remove(String name) {
+        PlannerGraph removed = graphs.remove(name);
+        retire(removed);
+        return removed;
+    }
+
+    public Collection<PlannerGraph> getAll() {
+        return graphs.values();
+    }
+
+    public PathCache getPathCache() {
+        return pathCache;
+    }
+
+    /**
+     * Returns distances over a graph's condensation from the component of
+     * {@code sourceVertex}, from the path cache when possible.
+     *
+     * @param graph prepared graph
+     * @param sourceVertex vertex of the original graph
+     * @param mode shortest or longest paths
+     * @return distances indexed by component; shared, must not be modified
+     */
+    public PathDistances paths(PlannerGraph graph, int sourceVertex, PathMode mode) {
+        int component = graph.componentOf(sourceVertex);
+        return pathCache.get(graph.getVersion(), component, mode, () -> graph.paths(sourceVertex, mode));
+    }
+
+    private void retire(PlannerGraph graph) {
+        if (graph != null) {
+            pathCache.invalidate(graph.getVersion());
+        }
+    }
+}
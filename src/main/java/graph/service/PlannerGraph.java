@@ -0,0 +1,180 @@
+package graph.service;
+
+import graph.csr.CSRGraph;
+import graph.dagsp.CorridorQuery;
+import graph.dagsp.DistanceEngine;
+import graph.dagsp.PathDistances;
+import graph.dagsp.PathMode;
+import graph.io.GraphData;
+import graph.scc.Condensation;
+import graph.scc.SCCFinder;
+import graph.topo.ReachabilityIndex;
+
+/**
+ * A dataset prepared for queries: the graph, its SCCs, the condensation DAG and a
+ * topological order, computed once and then shared read-only by all requests.
+ */
+public class PlannerGraph {
+    private final String name;
+    private final long version;
+    private final GraphData data;
+    private final SCCFinder sccFinder;
+    private final Condensation condensation;
+    private final int[] topoOrder;
+    private final boolean compactDistances;
+    private final long prepareTimeNs;
+    private volatile CorridorQuery corridorQuery;
+    private volatile ReachabilityIndex reachability;
+
+    private PlannerGraph(String name, long version, GraphData data, SCCFinder sccFinder,
+                         Condensation condensation, int[] topoOrder, boolean compactDistances,
+                         long prepareTimeNs) {
+        this.name = name;
+        this.version = version;
+        this.data = data;
+        this.sccFinder = sccFinder;
+        this.condensation = condensation;
+        this.topoOrder = topoOrder;
+        this.compactDistances = compactDistances;
+        this.prepareTimeNs = prepareTimeNs;
+    }
+
+    /**
+     * Runs SCC detection and condensation on a loaded dataset; the topological order
+     * comes from the SCC numbering. Whether distances fit the compact int form is
+     * decided here once, so path queries do not rescan the edge weights.
+     *
+     * @param name name queries refer to the graph by
+     * @param version version that distinguishes this snapshot from earlier graphs of that name
+     * @param data loaded dataset
+     * @return prepared graph
+     */
+    public static PlannerGraph prepare(String name, long version, GraphData data) {
+        long start = System.nanoTime();
+        SCCFinder sccFinder = new SCCFinder(data.getGraph());
+        Condensation condensation = sccFinder.buildCondensation();
+        int[] topoOrder = sccFinder.getTopologicalOrder();
+        boolean compactDistances = DistanceEngine.fitsInt(condensation.getGraph());
+        return new PlannerGraph(name, version, data, sccFinder, condensation, topoOrder, compactDistances,
+            System.nanoTime() - start);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public GraphData getData() {
+        return data;
+    }
+
+    public SCCFinder getSccFinder() {
+        return sccFinder;
+    }
+
+    public Condensation getCondensation() {
+        return condensation;
+    }
+
+    public int[] getTopoOrder() {
+        return topoOrder;
+    }
+
+    /**
+     * Returns the time spent on SCCs, condensation and topological sort.
+     *
+     * @return preparation time in nanoseconds
+     */
+    public long getPrepareTimeNs() {
+        return prepareTimeNs;
+    }
+
+    /**
+     * Maps a vertex of the original graph to its component.
+     *
+     * @param vertex original vertex
+     * @return component id
+     * @throws IllegalArgumentException if the vertex does not exist
+     */
+    public int componentOf(int vertex) {
+        if (vertex < 0 || vertex >= data.getN()) {
+            throw new IllegalArgumentException("Vertex " + vertex + " out of range [0, " + data.getN() + ")");
+        }
+        return sccFinder.getComponentId(vertex);
+    }
+
+    /**
+     * Computes shortest or longest distances over the condensation DAG from the
+     * component of {@code sourceVertex}.
+     *
+     * @param sourceVertex vertex of the original graph
+     * @param mode shortest or longest paths
+     * @return distances indexed by component
+     */
+    public PathDistances paths(int sourceVertex, PathMode mode) {
+        CSRGraph dag = condensation.getGraph();
+        return DistanceEngine.compute(dag, componentOf(sourceVertex), topoOrder, mode, compactDistances, null);
+    }
+
+    /**
+     * Finds the best path between two vertices over the condensation DAG, relaxing only
+     * the corridor between their components. The reverse DAG the queries need is built
+     * on the first call.
+     *
+     * @param sourceVertex vertex of the original graph
+     * @param targetVertex vertex of the original graph
+     * @param mode shortest or longest path
+     * @return component path between the two vertices' components
+     */
+    public CorridorQuery.PairPath route(int sourceVertex, int targetVertex, PathMode mode) {
+        int source = componentOf(sourceVertex);
+        int target = componentOf(targetVertex);
+        CorridorQuery query = corridorQuery;
+        if (query == null) {
+            synchronized (this) {
+                query = corridorQuery;
+                if (query == null) {
+                    query = new CorridorQuery(condensation.getGraph(), topoOrder);
+                    corridorQuery = query;
+                }
+            }
+        }
+        return query.query(source, target, mode);
+    }
+
+    /**
+     * Returns the reachability index over the condensation, building it on the first call.
+     *
+     * @return index answering reachability between components and original vertices
+     */
+    public ReachabilityIndex getReachability() {
+        ReachabilityIndex index = reachability;
+        if (index == null) {
+            synchronized (this) {
+                index = reachability;
+                if (index == null) {
+                    index = ReachabilityIndex.build(condensation.getGraph(), topoOrder);
+                    reachability = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Returns whether one vertex of the original graph reaches another.
+     *
+     * @param fromVertex vertex of the original graph
+     * @param toVertex vertex of the original graph
+     * @return true if there is a path
+     * @throws IllegalArgumentException if either vertex does not exist
+     */
+    public boolean reaches(int fromVertex, int toVertex) {
+        int from = componentOf(fromVertex);
+        int to = componentOf(toVertex);
+        return getReachability().reaches(from, to);
+    }
+}
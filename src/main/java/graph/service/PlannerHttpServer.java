@@ -0,0 +1,424 @@
+package graph.service;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import graph.dagsp.CorridorQuery;
+import graph.dagsp.PathCache;
+import graph.dagsp.PathDistances;
+import graph.dagsp.PathMode;
+import graph.topo.ReachabilityIndex;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * HTTP front end for a {@link GraphCache}, on the JDK's built-in {@link HttpServer} with one
+ * virtual thread per request. All responses are JSON.
+ * <ul>
+ *   <li>{@code GET /health} reports loaded graphs and path cache counters</li>
+ *   <li>{@code GET /graphs} lists loaded graphs; {@code POST /graphs?file=...[&name=...]} loads one
+ *       from the data directory, if the server was given one</li>
+ *   <li>{@code GET /paths?graph=...&source=v[&mode=shortest|longest][&target=t]} returns
+ *       component distances from the source vertex's component, or the distance and
+ *       component path to one target vertex</li>
+ *   <li>{@code GET /route?graph=...&target=t[&source=v][&mode=shortest|longest]} returns the
+ *       distance and component path between two vertices, relaxing only the corridor of
+ *       components between them instead of the whole DAG</li>
+ *   <li>{@code GET /reachable?graph=...&target=t[&source=v]} tells whether the source vertex
+ *       reaches the target, from a reachability index built on first use</li>
+ *   <li>{@code GET /critical-path?graph=...[&source=v]} returns the longest path from the source</li>
+ * </ul>
+ * {@code source} defaults to the dataset's source vertex. Unreachable distances are {@code null}.
+ * Unknown graphs answer 404, malformed parameters 400 and any other failure 500, always
+ * with an {@code error} message.
+ * <p>
+ * Runtime loading only reads files under the configured data directory: the requested
+ * path is resolved against it, normalized and followed through symbolic links, and
+ * anything outside answers 403. Error messages name files relative to that directory, and
+ * only one load runs at a time; a load requested while another is running answers 503.
+ */
+public class PlannerHttpServer {
+    private final GraphCache cache;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Path dataDir; // null disables POST /graphs
+    private final Semaphore loading = new Semaphore(1);
+
+    /**
+     * Binds a server that only serves graphs already in {@code cache}; {@code POST /graphs}
+     * answers 403. Call {@link #start()} to begin serving.
+     *
+     * @param cache graphs to serve
+     * @param address address to bind, port 0 for an ephemeral port
+     * @throws IOException if the address cannot be bound
+     */
+    public PlannerHttpServer(GraphCache cache, InetSocketAddress address) throws IOException {
+        this(cache, address, null);
+    }
+
+    /**
+     * Binds the server; call {@link #start()} to begin serving.
+     *
+     * @param cache graphs to serve
+     * @param address address to bind, port 0 for an ephemeral port
+     * @param dataDir directory {@code POST /graphs} may load from, or null to disable runtime loading
+     * @throws IOException if the address cannot be bound or the data directory does not exist
+     */
+    public PlannerHttpServer(GraphCache cache, InetSocketAddress address, Path dataDir) throws IOException {
+        this.cache = cache;
+        this.dataDir = dataDir == null ? null : dataDir.toRealPath();
+        if (this.dataDir != null && !Files.isDirectory(this.dataDir)) {
+            throw new IOException("Not a directory: " + dataDir);
+        }
+        this.server = HttpServer.create(address, 0);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/health", exchange -> handle(exchange, false, this::health));
+        server.createContext("/graphs", exchange -> handle(exchange, true, this::graphs));
+        server.createContext("/paths", exchange -> handle(exchange, false, this::paths));
+        server.createContext("/route", exchange -> handle(exchange, false, this::route));
+        server.createContext("/reachable", exchange -> handle(exchange, false, this::reachable));
+        server.createContext("/critical-path", exchange -> handle(exchange, false, this::criticalPath));
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests and waits up to {@code delaySeconds} for running ones.
+     *
+     * @param delaySeconds grace period
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    // -------------------- Endpoints --------------------
+
+    private JsonObject health(HttpExchange exchange, Map<String, String> query) {
+        JsonObject body = new JsonObject();
+        body.addProperty("status", "ok");
+        body.addProperty("graphs", cache.getAll().size());
+        PathCache paths = cache.getPathCache();
+        JsonObject pathCache = new JsonObject();
+        pathCache.addProperty("entries", paths.size());
+        pathCache.addProperty("bytes", paths.getBytes());
+        pathCache.addProperty("maxBytes", paths.getMaxBytes());
+        pathCache.addProperty("hits", paths.getHits());
+        pathCache.addProperty("misses", paths.getMisses());
+        pathCache.addProperty("evictions", paths.getEvictions());
+        body.add("pathCache", pathCache);
+        return body;
+    }
+
+    private JsonObject graphs(HttpExchange exchange, Map<String, String> query) throws IOException {
+        if ("POST".equals(exchange.getRequestMethod())) {
+            return describe(load(query));
+        }
+        JsonArray list = new JsonArray();
+        for (PlannerGraph graph : cache.getAll()) {
+            list.add(describe(graph));
+        }
+        JsonObject body = new JsonObject();
+        body.add("graphs", list);
+        return body;
+    }
+
+    private JsonObject paths(HttpExchange exchange, Map<String, String> query) {
+        PlannerGraph graph = graph(query);
+        int source = source(graph, query);
+        PathMode mode = PathMode.valueOf(query.getOrDefault("mode", "shortest").toUpperCase(Locale.ROOT));
+        PathDistances distances = cache.paths(graph, source, mode);
+
+        JsonObject body = new JsonObject();
+        body.addProperty("graph", graph.getName());
+        body.addProperty("mode", mode.name().toLowerCase(Locale.ROOT));
+        body.addProperty("source", source);
+        body.addProperty("sourceComponent", graph.componentOf(source));
+        if (query.containsKey("target")) {
+            int target = parseInt(query, "target");
+            int targetComponent = graph.componentOf(target);
+            body.addProperty("target", target);
+            body.addProperty("targetComponent", targetComponent);
+            addPath(body, distances, targetComponent);
+        } else {
+            JsonArray array = new JsonArray();
+            for (int c = 0; c < distances.size(); c++) {
+                if (distances.isReachable(c)) {
+                    array.add(distances.get(c));
+                } else {
+                    array.add(JsonNull.INSTANCE);
+                }
+            }
+            body.add("distances", array);
+        }
+        return body;
+    }
+
+    private JsonObject route(HttpExchange exchange, Map<String, String> query) {
+        PlannerGraph graph = graph(query);
+        int source = source(graph, query);
+        int target = parseInt(query, "target");
+        PathMode mode = PathMode.valueOf(query.getOrDefault("mode", "shortest").toUpperCase(Locale.ROOT));
+        CorridorQuery.PairPath route = graph.route(source, target, mode);
+
+        JsonObject body = new JsonObject();
+        body.addProperty("graph", graph.getName());
+        body.addProperty("mode", mode.name().toLowerCase(Locale.ROOT));
+        body.addProperty("source", source);
+        body.addProperty("sourceComponent", route.getSource());
+        body.addProperty("target", target);
+        body.addProperty("targetComponent", route.getTarget());
+        body.addProperty("corridorSize", route.getCorridorSize());
+        if (route.isReachable()) {
+            body.addProperty("distance", route.getLength());
+        } else {
+            body.add("distance", JsonNull.INSTANCE);
+        }
+        JsonArray path = new JsonArray();
+        for (int c : route.getPath()) {
+            path.add(c);
+        }
+        body.add("path", path);
+        return body;
+    }
+
+    private JsonObject reachable(HttpExchange exchange, Map<String, String> query) {
+        PlannerGraph graph = graph(query);
+        int source = source(graph, query);
+        int target = parseInt(query, "target");
+        boolean reachable = graph.reaches(source, target);
+        ReachabilityIndex index = graph.getReachability();
+
+        JsonObject body = new JsonObject();
+        body.addProperty("graph", graph.getName());
+        body.addProperty("source", source);
+        body.addProperty("target", target);
+        body.addProperty("reachable", reachable);
+        JsonObject stats = new JsonObject();
+        stats.addProperty("strategy", index.getStrategy().name().toLowerCase(Locale.ROOT));
+        stats.addProperty("buildMs", index.getBuildTimeNs() / 1_000_000.0);
+        stats.addProperty("bytes", index.sizeInBytes());
+        body.add("index", stats);
+        return body;
+    }
+
+    private JsonObject criticalPath(HttpExchange exchange, Map<String, String> query) {
+        PlannerGraph graph = graph(query);
+        int source = source(graph, query);
+        PathDistances longest = cache.paths(graph, source, PathMode.LONGEST);
+        int target = longest.farthestVertex();
+
+        JsonObject body = new JsonObject();
+        body.addProperty("graph", graph.getName());
+        body.addProperty("source", source);
+        body.addProperty("sourceComponent", graph.componentOf(source));
+        body.addProperty("targetComponent", target);
+        addPath(body, longest, target);
+        return body;
+    }
+
+    private PlannerGraph load(Map<String, String> query) {
+        if (dataDir == null) {
+            throw new RequestException(403, "Loading graphs at runtime is disabled");
+        }
+        String file = required(query, "file");
+        Path path = resolveDataFile(file);
+        if (!loading.tryAcquire()) {
+            throw new RequestException(503, "Another graph is loading, retry later");
+        }
+        try {
+            String filename = path.toString();
+            return query.containsKey("name") ? cache.load(query.get("name"), filename) : cache.load(filename);
+        } catch (IOException | RuntimeException e) {
+            // Loader messages carry absolute paths; report the file as the caller named it
+            throw new RequestException(500, "Cannot load " + file);
+        } finally {
+            loading.release();
+        }
+    }
+
+    /**
+     * Resolves a caller-supplied file name inside the data directory.
+     *
+     * @throws RequestException 403 if the name resolves outside the data directory, 404 if
+     *         no regular file exists there
+     */
+    private Path resolveDataFile(String file) {
+        Path path;
+        try {
+            path = dataDir.resolve(file).normalize();
+        } catch (InvalidPathException e) {
+            throw new IllegalArgumentException("Invalid file name " + file);
+        }
+        if (!path.startsWith(dataDir)) {
+            throw new RequestException(403, "File " + file + " is outside the data directory");
+        }
+        if (!Files.isRegularFile(path)) {
+            throw new RequestException(404, "No data file " + file);
+        }
+        try {
+            // Follow symbolic links so a link inside the directory cannot point outside it
+            path = path.toRealPath();
+        } catch (IOException e) {
+            throw new RequestException(404, "No data file " + file);
+        }
+        if (!path.startsWith(dataDir)) {
+            throw new RequestException(403, "File " + file + " is outside the data directory");
+        }
+        return path;
+    }
+
+    private static void addPath(JsonObject body, PathDistances distances, int targetComponent) {
+        if (!distances.isReachable(targetComponent)) {
+            body.add("distance", JsonNull.INSTANCE);
+            body.add("path", new JsonArray());
+            return;
+        }
+        body.addProperty("distance", distances.get(targetComponent));
+        JsonArray path = new JsonArray();
+        for (int c : distances.pathTo(targetComponent)) {
+            path.add(c);
+        }
+        body.add("path", path);
+    }
+
+    private static JsonObject describe(PlannerGraph graph) {
+        JsonObject body = new JsonObject();
+        body.addProperty("name", graph.getName());
+        body.addProperty("version", graph.getVersion());
+        body.addProperty("vertices", graph.getData().getN());
+        body.addProperty("edges", graph.getData().getGraph().edgeCount());
+        body.addProperty("source", graph.getData().getSource());
+        body.addProperty("components", graph.getCondensation().getComponentCount());
+        body.addProperty("condensationEdges", graph.getCondensation().getEdgeCount());
+        body.addProperty("prepareMs", graph.getPrepareTimeNs() / 1_000_000.0);
+        return body;
+    }
+
+    // -------------------- Request plumbing --------------------
+
+    @FunctionalInterface
+    private interface Endpoint {
+        JsonObject respond(HttpExchange exchange, Map<String, String> query) throws IOException;
+    }
+
+    /**
+     * Thrown for a well-formed request that fails with a specific status, such as one
+     * naming something that does not exist.
+     */
+    private static class RequestException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        RequestException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    private void handle(HttpExchange exchange, boolean postAllowed, Endpoint endpoint) throws IOException {
+        int status = 200;
+        JsonObject body;
+        try {
+            String method = exchange.getRequestMethod();
+            if (!"GET".equals(method) && !(postAllowed && "POST".equals(method))) {
+                status = 405;
+                body = error("Method " + method + " not allowed");
+            } else {
+                body = endpoint.respond(exchange, parseQuery(exchange.getRequestURI().getRawQuery()));
+            }
+        } catch (RequestException e) {
+            status = e.status;
+            body = error(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            status = 400;
+            body = error(e.getMessage());
+        } catch (IOException e) {
+            status = 500;
+            body = error(e.getMessage());
+        } catch (RuntimeException e) {
+            // Anything else, e.g. an index out of range in a corrupt mapped graph
+            status = 500;
+            body = error(e.toString());
+        }
+
+        byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static JsonObject error(String message) {
+        JsonObject body = new JsonObject();
+        body.addProperty("error", message);
+        return body;
+    }
+
+    private PlannerGraph graph(Map<String, String> query) {
+        String name = required(query, "graph");
+        PlannerGraph graph = cache.get(name);
+        if (graph == null) {
+            throw new RequestException(404, "No graph named " + name);
+        }
+        return graph;
+    }
+
+    private static int source(PlannerGraph graph, Map<String, String> query) {
+        return query.containsKey("source") ? parseInt(query, "source") : graph.getData().getSource();
+    }
+
+    private static String required(Map<String, String> query, String key) {
+        String value = query.get(key);
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("Missing parameter " + key);
+        }
+        return value;
+    }
+
+    private static int parseInt(Map<String, String> query, String key) {
+        try {
+            return Integer.parseInt(required(query, key));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parameter " + key + " must be an integer");
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            query.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+}
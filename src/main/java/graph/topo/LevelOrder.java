@@ -0,0 +1,56 @@
+package graph.topo;
+
+/**
+ * Topological order grouped into levels (waves). Level 0 holds the sources; every
+ * other vertex sits one level after its deepest predecessor, so all vertices of a
+ * level are independent of each other and can be processed in parallel.
+ */
+public class LevelOrder {
+    private final int[] order;
+    private final int[] levels;
+    private final int[] levelStart;
+
+    LevelOrder(int[] order, int[] levels, int[] levelStart) {
+        this.order = order;
+        this.levels = levels;
+        this.levelStart = levelStart;
+    }
+
+    /**
+     * Returns the vertices in topological order, level by level. Vertices on a cycle
+     * are never released and are missing, as with {@link TopoSort#topoSort}.
+     *
+     * @return ordered vertices
+     */
+    public int[] getOrder() {
+        return order;
+    }
+
+    /**
+     * Returns the level (wave index) of every vertex.
+     *
+     * @return array where index v holds the level of v, or -1 if v lies on a cycle
+     */
+    public int[] getLevels() {
+        return levels;
+    }
+
+    /**
+     * Returns the number of levels.
+     *
+     * @return level count
+     */
+    public int getLevelCount() {
+        return levelStart.length - 1;
+    }
+
+    /**
+     * Returns where each level begins in {@link #getOrder()}; level l occupies
+     * {@code [levelStart[l], levelStart[l + 1])}.
+     *
+     * @return level offsets, one more entry than there are levels
+     */
+    public int[] getLevelStart() {
+        return levelStart;
+    }
+}
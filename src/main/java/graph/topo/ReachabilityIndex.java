@@ -0,0 +1,500 @@
+package graph.topo;
+
+import graph.concurrent.ScratchPool;
+import graph.csr.CSRGraph;
+import graph.scc.SCCFinder;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Answers "can u reach v" over a DAG, typically the condensation of an {@link SCCFinder},
+ * without a full graph search per query.
+ * <p>
+ * Small DAGs (up to {@link #CLOSURE_MAX_VERTICES} vertices) get a full transitive closure:
+ * one bit row per vertex, built in reverse topological order by OR-ing the rows of its
+ * successors 64 vertices at a time. Queries are a single bit test.
+ * <p>
+ * Larger DAGs get GRAIL interval labels: each of {@link #DEFAULT_LABELS} randomized
+ * depth-first traversals gives every vertex an interval [low, post], where post is its
+ * post-order rank and low the smallest rank in its subtree. If u reaches v, v's interval
+ * lies within u's in every labeling, and v is deeper (longest path from a source) and
+ * lower (longest path to a sink) than u. A pair failing any of these checks is
+ * unreachable, decided in O(1). Pairs that pass fall back to a bidirectional search that
+ * applies the same checks to every vertex it meets, so it stays inside the corridor
+ * between the two. On sparse or deep DAGs nearly every negative is decided by the labels.
+ * On shallow, densely connected DAGs, where most pairs sit in each other's label range,
+ * the search decides more of them and dominates the mean. The index takes
+ * {@code 8 * labels + 12} bytes per vertex plus 4 per edge for the reverse adjacency.
+ * <p>
+ * The index is immutable and queries may run concurrently. Searches borrow their visited
+ * stamps (8 bytes per vertex) and frontiers from a {@link ScratchPool}, so a server running
+ * each request on a new virtual thread does not allocate them per query.
+ */
+public final class ReachabilityIndex {
+    /** Largest DAG that gets a full transitive closure (8 MiB of bits). */
+    public static final int CLOSURE_MAX_VERTICES = 8192;
+    /** Number of interval labelings for larger DAGs. */
+    public static final int DEFAULT_LABELS = 3;
+
+    /**
+     * How the index answers queries.
+     */
+    public enum Strategy {
+        /** Bit matrix of the transitive closure. */
+        CLOSURE,
+        /** GRAIL interval labels with a pruned search fallback. */
+        INTERVALS
+    }
+
+    private final CSRGraph dag;
+    private final SCCFinder sccFinder;
+    private final Strategy strategy;
+    private final int n;
+    private final int words;
+    private final long[] closure;
+    private final int labelCount;
+    private final int[] labels;
+    private final int[] levels;
+    private final int[] reverseStart;
+    private final int[] reverseSources;
+    private final long buildTimeNs;
+    private final ScratchPool<Search> searches;
+
+    private ReachabilityIndex(CSRGraph dag, SCCFinder sccFinder, Strategy strategy, long[] closure,
+                              int labelCount, int[] labels, int[] levels, int[] reverseStart,
+                              int[] reverseSources, long buildTimeNs) {
+        this.dag = dag;
+        this.sccFinder = sccFinder;
+        this.strategy = strategy;
+        this.n = dag.vertexCount();
+        this.words = (n + 63) >>> 6;
+        this.closure = closure;
+        this.labelCount = labelCount;
+        this.labels = labels;
+        this.levels = levels;
+        this.reverseStart = reverseStart;
+        this.reverseSources = reverseSources;
+        this.buildTimeNs = buildTimeNs;
+        this.searches = new ScratchPool<>(() -> new Search(n));
+    }
+
+    /**
+     * Indexes the condensation of an SCC decomposition, so that queries can also be
+     * asked about original vertices with {@link #vertexReaches(int, int)}.
+     *
+     * @param sccFinder SCC decomposition of the original graph
+     * @return reachability index over its components
+     */
+    public static ReachabilityIndex build(SCCFinder sccFinder) {
+        long start = System.nanoTime();
+        CSRGraph dag = sccFinder.buildCondensation().getGraph();
+        return build(dag, sccFinder.getTopologicalOrder(), sccFinder, strategyFor(dag), DEFAULT_LABELS, 1, start);
+    }
+
+    /**
+     * Indexes a DAG, choosing the closure or the interval labels by size.
+     *
+     * @param dag directed acyclic graph
+     * @param topo topological order of the DAG
+     * @return reachability index
+     */
+    public static ReachabilityIndex build(CSRGraph dag, int[] topo) {
+        return build(dag, topo, strategyFor(dag), DEFAULT_LABELS, 1);
+    }
+
+    /**
+     * Indexes a DAG with an explicit strategy.
+     *
+     * @param dag directed acyclic graph
+     * @param topo topological order of the DAG
+     * @param strategy closure or interval labels
+     * @param labelCount number of interval labelings, ignored for the closure
+     * @param seed seed for the randomized traversals
+     * @return reachability index
+     * @throws IllegalArgumentException if labelCount is not positive
+     */
+    public static ReachabilityIndex build(CSRGraph dag, int[] topo, Strategy strategy, int labelCount, long seed) {
+        return build(dag, topo, null, strategy, labelCount, seed, System.nanoTime());
+    }
+
+    private static ReachabilityIndex build(CSRGraph dag, int[] topo, SCCFinder sccFinder, Strategy strategy,
+                                           int labelCount, long seed, long startTime) {
+        if (labelCount < 1) {
+            throw new IllegalArgumentException("labelCount must be positive");
+        }
+        if (strategy == Strategy.CLOSURE) {
+            long[] closure = buildClosure(dag, topo);
+            return new ReachabilityIndex(dag, sccFinder, strategy, closure, 0, null, null, null, null,
+                System.nanoTime() - startTime);
+        }
+        int[] labels = buildLabels(dag, labelCount, new SplittableRandom(seed));
+        int[] levels = buildLevels(dag, topo);
+        int[] reverseStart = new int[dag.vertexCount() + 1];
+        int[] reverseSources = new int[dag.edgeCount()];
+        buildReverse(dag, reverseStart, reverseSources);
+        return new ReachabilityIndex(dag, sccFinder, strategy, null, labelCount, labels, levels,
+            reverseStart, reverseSources, System.nanoTime() - startTime);
+    }
+
+    private static Strategy strategyFor(CSRGraph dag) {
+        return dag.vertexCount() <= CLOSURE_MAX_VERTICES ? Strategy.CLOSURE : Strategy.INTERVALS;
+    }
+
+    /**
+     * Builds the closure rows in reverse topological order, so every successor's row
+     * is complete before it is OR-ed in.
+     */
+    private static long[] buildClosure(CSRGraph dag, int[] topo) {
+        int words = (dag.vertexCount() + 63) >>> 6;
+        long[] closure = new long[dag.vertexCount() * words];
+        for (int i = topo.length - 1; i >= 0; i--) {
+            int u = topo[i];
+            int row = u * words;
+            closure[row + (u >>> 6)] |= 1L << u;
+            for (int e = dag.edgeStart(u), end = dag.edgeEnd(u); e < end; e++) {
+                int successor = dag.target(e) * words;
+                for (int w = 0; w < words; w++) {
+                    closure[row + w] |= closure[successor + w];
+                }
+            }
+        }
+        return closure;
+    }
+
+    /**
+     * Fills an unweighted reverse adjacency (in-edges by target) for the backward search.
+     */
+    private static void buildReverse(CSRGraph dag, int[] start, int[] sources) {
+        int n = dag.vertexCount();
+        for (int e = 0; e < dag.edgeCount(); e++) {
+            start[dag.target(e) + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            start[v + 1] += start[v];
+        }
+        int[] fill = Arrays.copyOf(start, n);
+        for (int u = 0; u < n; u++) {
+            for (int e = dag.edgeStart(u), end = dag.edgeEnd(u); e < end; e++) {
+                sources[fill[dag.target(e)]++] = u;
+            }
+        }
+    }
+
+    /**
+     * Computes every vertex's depth (longest path from a source) and height (longest path
+     * to a sink), stored as adjacent pairs. An edge raises the depth and lowers the height,
+     * so u can only reach v if u is strictly shallower and strictly higher.
+     */
+    private static int[] buildLevels(CSRGraph dag, int[] topo) {
+        int[] levels = new int[2 * dag.vertexCount()];
+        for (int u : topo) {
+            for (int e = dag.edgeStart(u), end = dag.edgeEnd(u); e < end; e++) {
+                int v = dag.target(e);
+                levels[2 * v] = Math.max(levels[2 * v], levels[2 * u] + 1);
+            }
+        }
+        for (int i = topo.length - 1; i >= 0; i--) {
+            int u = topo[i];
+            for (int e = dag.edgeStart(u), end = dag.edgeEnd(u); e < end; e++) {
+                int v = dag.target(e);
+                levels[2 * u + 1] = Math.max(levels[2 * u + 1], levels[2 * v + 1] + 1);
+            }
+        }
+        return levels;
+    }
+
+    /**
+     * Runs one randomized post-order traversal per labeling. Roots (vertices without
+     * in-edges) are visited in a random order and every vertex explores its out-edges
+     * from a random offset; already finished children still contribute their low.
+     * Labels are stored as {@code [low, post]} pairs, all labelings of a vertex adjacent.
+     */
+    private static int[] buildLabels(CSRGraph dag, int labelCount, SplittableRandom random) {
+        int n = dag.vertexCount();
+        int[] labels = new int[2 * labelCount * n];
+        boolean[] hasParent = new boolean[n];
+        for (int e = 0; e < dag.edgeCount(); e++) {
+            hasParent[dag.target(e)] = true;
+        }
+        int rootCount = 0;
+        int[] roots = new int[n];
+        for (int v = 0; v < n; v++) {
+            if (!hasParent[v]) {
+                roots[rootCount++] = v;
+            }
+        }
+
+        boolean[] visited = new boolean[n];
+        int[] stack = new int[n];
+        int[] cursor = new int[n];
+        int[] offset = new int[n];
+        for (int label = 0; label < labelCount; label++) {
+            Arrays.fill(visited, false);
+            for (int i = rootCount - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int tmp = roots[i];
+                roots[i] = roots[j];
+                roots[j] = tmp;
+            }
+            int rank = 0;
+            for (int r = 0; r < rootCount; r++) {
+                int top = 0;
+                stack[top++] = roots[r];
+                visited[roots[r]] = true;
+                start(dag, roots[r], labels, labelCount, label, cursor, offset, random);
+                while (top > 0) {
+                    int u = stack[top - 1];
+                    int degree = dag.outDegree(u);
+                    if (cursor[u] < degree) {
+                        int v = dag.target(dag.edgeStart(u) + (offset[u] + cursor[u]++) % degree);
+                        if (!visited[v]) {
+                            visited[v] = true;
+                            start(dag, v, labels, labelCount, label, cursor, offset, random);
+                            stack[top++] = v;
+                        } else {
+                            lowerLow(labels, labelCount, label, u, v);
+                        }
+                        continue;
+                    }
+                    int slot = 2 * (u * labelCount + label);
+                    labels[slot + 1] = rank;
+                    labels[slot] = Math.min(labels[slot], rank);
+                    rank++;
+                    top--;
+                    if (top > 0) {
+                        lowerLow(labels, labelCount, label, stack[top - 1], u);
+                    }
+                }
+            }
+        }
+        return labels;
+    }
+
+    private static void start(CSRGraph dag, int v, int[] labels, int labelCount, int label, int[] cursor,
+                              int[] offset, SplittableRandom random) {
+        int degree = dag.outDegree(v);
+        cursor[v] = 0;
+        offset[v] = degree > 1 ? random.nextInt(degree) : 0;
+        labels[2 * (v * labelCount + label)] = Integer.MAX_VALUE;
+    }
+
+    private static void lowerLow(int[] labels, int labelCount, int label, int parent, int child) {
+        int parentSlot = 2 * (parent * labelCount + label);
+        labels[parentSlot] = Math.min(labels[parentSlot], labels[2 * (child * labelCount + label)]);
+    }
+
+    /**
+     * Returns whether DAG vertex {@code from} reaches {@code to}. Every vertex reaches itself.
+     *
+     * @param from source vertex of the DAG
+     * @param to target vertex of the DAG
+     * @return true if there is a path
+     * @throws IllegalArgumentException if either vertex is out of range
+     */
+    public boolean reaches(int from, int to) {
+        checkVertex(from);
+        checkVertex(to);
+        if (from == to) {
+            return true;
+        }
+        if (strategy == Strategy.CLOSURE) {
+            return (closure[from * words + (to >>> 6)] & (1L << to)) != 0;
+        }
+        if (!mayReach(from, to)) {
+            return false;
+        }
+        Search search = searches.acquire();
+        try {
+            return search.run(from, to);
+        } finally {
+            searches.release(search);
+        }
+    }
+
+    /**
+     * Returns whether original vertex {@code from} reaches {@code to}, by mapping both
+     * to their components. Vertices of the same SCC reach each other.
+     *
+     * @param from vertex of the original graph
+     * @param to vertex of the original graph
+     * @return true if there is a path
+     * @throws IllegalStateException if the index was not built from an {@link SCCFinder}
+     */
+    public boolean vertexReaches(int from, int to) {
+        if (sccFinder == null) {
+            throw new IllegalStateException("Index was built over a plain DAG, not an SCC decomposition");
+        }
+        return reaches(sccFinder.getComponentId(from), sccFinder.getComponentId(to));
+    }
+
+    /**
+     * Applies the O(1) filters: depth and height, and interval containment in every
+     * labeling. False means unreachable; true means the pair needs a search.
+     */
+    private boolean mayReach(int from, int to) {
+        if (levels[2 * from] >= levels[2 * to] || levels[2 * from + 1] <= levels[2 * to + 1]) {
+            return false;
+        }
+        int a = 2 * from * labelCount;
+        int b = 2 * to * labelCount;
+        for (int i = 0; i < 2 * labelCount; i += 2) {
+            if (labels[b + i] < labels[a + i] || labels[b + i + 1] > labels[a + i + 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void checkVertex(int v) {
+        if (v < 0 || v >= n) {
+            throw new IllegalArgumentException("Vertex " + v + " out of range [0, " + n + ")");
+        }
+    }
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * Returns the number of DAG vertices indexed.
+     *
+     * @return vertex count
+     */
+    public int vertexCount() {
+        return n;
+    }
+
+    /**
+     * Returns the time taken to build the index, including the condensation when built
+     * from an {@link SCCFinder}.
+     *
+     * @return build time in nanoseconds
+     */
+    public long getBuildTimeNs() {
+        return buildTimeNs;
+    }
+
+    /**
+     * Estimates the heap footprint of the index arrays (closure bits, or labels and
+     * levels plus the reverse adjacency), excluding the DAG itself and per-thread search
+     * scratch.
+     *
+     * @return approximate size in bytes
+     */
+    public long sizeInBytes() {
+        if (strategy == Strategy.CLOSURE) {
+            return 8L * closure.length;
+        }
+        return 4L * labels.length + 4L * levels.length + 4L * reverseStart.length + 4L * reverseSources.length;
+    }
+
+    /**
+     * Bidirectional search for pairs the filters cannot decide: breadth-first layers grow
+     * forwards from the source and backwards from the target, always expanding the
+     * smaller frontier, until they meet or one side runs out. Each side only admits
+     * vertices that pass the filters against the opposite endpoint. Visited marks are
+     * generation stamps, so a search only touches the vertices it explores. Each side
+     * swaps between two frontier buffers that keep their size across searches.
+     */
+    private final class Search {
+        private final int[] forwardStamp;
+        private final int[] backwardStamp;
+        private int[] forward = new int[64];
+        private int[] forwardNext = new int[64];
+        private int[] backward = new int[64];
+        private int[] backwardNext = new int[64];
+        private int generation;
+
+        Search(int n) {
+            this.forwardStamp = new int[n];
+            this.backwardStamp = new int[n];
+        }
+
+        boolean run(int from, int to) {
+            if (++generation == Integer.MAX_VALUE) {
+                Arrays.fill(forwardStamp, 0);
+                Arrays.fill(backwardStamp, 0);
+                generation = 1;
+            }
+            forwardStamp[from] = generation;
+            backwardStamp[to] = generation;
+            forward[0] = from;
+            backward[0] = to;
+            int forwardSize = 1;
+            int backwardSize = 1;
+            while (forwardSize > 0 && backwardSize > 0) {
+                if (forwardSize <= backwardSize) {
+                    forwardSize = expandForward(forwardSize, to);
+                    if (forwardSize < 0) {
+                        return true;
+                    }
+                } else {
+                    backwardSize = expandBackward(backwardSize, from);
+                    if (backwardSize < 0) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Replaces the forward frontier with its next layer.
+         *
+         * @return new frontier size, or -1 if it met the backward search
+         */
+        private int expandForward(int size, int to) {
+            int[] next = forwardNext;
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                int u = forward[i];
+                for (int e = dag.edgeStart(u), end = dag.edgeEnd(u); e < end; e++) {
+                    int v = dag.target(e);
+                    if (backwardStamp[v] == generation) {
+                        return -1;
+                    }
+                    if (forwardStamp[v] != generation && mayReach(v, to)) {
+                        forwardStamp[v] = generation;
+                        if (count == next.length) {
+                            next = Arrays.copyOf(next, count * 2);
+                        }
+                        next[count++] = v;
+                    }
+                }
+            }
+            forwardNext = forward;
+            forward = next;
+            return count;
+        }
+
+        /**
+         * Replaces the backward frontier with its previous layer.
+         *
+         * @return new frontier size, or -1 if it met the forward search
+         */
+        private int expandBackward(int size, int from) {
+            int[] next = backwardNext;
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                int v = backward[i];
+                for (int e = reverseStart[v], end = reverseStart[v + 1]; e < end; e++) {
+                    int u = reverseSources[e];
+                    if (forwardStamp[u] == generation) {
+                        return -1;
+                    }
+                    if (backwardStamp[u] != generation && mayReach(from, u)) {
+                        backwardStamp[u] = generation;
+                        if (count == next.length) {
+                            next = Arrays.copyOf(next, count * 2);
+                        }
+                        next[count++] = u;
+                    }
+                }
+            }
+            backwardNext = backward;
+            backward = next;
+            return count;
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package graph.topo;
 
+import graph.concurrent.ParallelLoops;
+import graph.csr.CSRGraph;
 import graph.metrics.Metrics;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 /**
  * Topological sort implementation using Kahn's algorithm.
@@ -43,36 +48,31 @@ public class TopoSort {
         for (int i = 0; i < n; i++) {
             if (indeg[i] == 0) {
                 queue.add(i);
-                if (metrics != null) {
-                    metrics.incrementQueuePushes();
-                }
             }
         }
 
         List<Integer> order = new ArrayList<>();
+        long edgesProcessed = 0;
         while (!queue.isEmpty()) {
             int node = queue.poll();
-            if (metrics != null) {
-                metrics.incrementQueuePops();
-            }
             order.add(node);
             
             // Remove edges and update in-degrees
-            for (int v : graph.get(node)) {
-                if (metrics != null) {
-                    metrics.incrementEdgesProcessed();
-                }
+            List<Integer> neighbors = graph.get(node);
+            edgesProcessed += neighbors.size();
+            for (int v : neighbors) {
                 indeg[v]--;
                 if (indeg[v] == 0) {
                     queue.add(v);
-                    if (metrics != null) {
-                        metrics.incrementQueuePushes();
-                    }
                 }
             }
         }
         
         if (metrics != null) {
+            // Every vertex is pushed and popped exactly once
+            metrics.addQueuePushes(order.size());
+            metrics.addQueuePops(order.size());
+            metrics.addEdgesProcessed(edgesProcessed);
             long endTime = System.nanoTime();
             metrics.recordTime(endTime - startTime);
         }
@@ -80,6 +80,86 @@ public class TopoSort {
         return order;
     }
 
+    /**
+     * Computes topological order of a CSR graph using Kahn's algorithm.
+     * 
+     * @param graph CSR representation of the DAG
+     * @return list of vertices in topological order
+     */
+    public List<Integer> topoSort(CSRGraph graph) {
+        return topoSort(graph, null);
+    }
+
+    /**
+     * Computes topological order of a CSR graph using Kahn's algorithm with metrics tracking.
+     * 
+     * @param graph CSR representation of the DAG
+     * @param metrics metrics collector for operation counting
+     * @return list of vertices in topological order
+     */
+    public List<Integer> topoSort(CSRGraph graph, Metrics metrics) {
+        int[] order = topoOrder(graph, metrics);
+        List<Integer> list = new ArrayList<>(order.length);
+        for (int v : order) {
+            list.add(v);
+        }
+        return list;
+    }
+
+    /**
+     * Computes topological order of a CSR graph as a primitive array.
+     * The output array doubles as the Kahn queue: vertices are appended at the tail
+     * when their in-degree drops to zero and consumed from the head, so apart from
+     * the in-degree array nothing is allocated and nothing is boxed.
+     * 
+     * @param graph CSR representation of the DAG
+     * @param metrics metrics collector for operation counting
+     * @return vertices in topological order; shorter than n if the graph has a cycle
+     */
+    public int[] topoOrder(CSRGraph graph, Metrics metrics) {
+        long startTime = System.nanoTime();
+        int n = graph.vertexCount();
+        int[] indeg = new int[n];
+        
+        // Calculate in-degrees with one linear scan of the target array
+        for (int e = 0, m = graph.edgeCount(); e < m; e++) {
+            indeg[graph.target(e)]++;
+        }
+        
+        int[] order = new int[n];
+        int tail = 0;
+        for (int i = 0; i < n; i++) {
+            if (indeg[i] == 0) {
+                order[tail++] = i;
+            }
+        }
+
+        long edgesProcessed = 0;
+        for (int head = 0; head < tail; head++) {
+            int node = order[head];
+            int start = graph.edgeStart(node);
+            int end = graph.edgeEnd(node);
+            edgesProcessed += end - start;
+            for (int e = start; e < end; e++) {
+                int v = graph.target(e);
+                if (--indeg[v] == 0) {
+                    order[tail++] = v;
+                }
+            }
+        }
+        
+        if (metrics != null) {
+            // Counted outside the loops: every queued vertex is pushed and popped once
+            metrics.addQueuePushes(tail);
+            metrics.addQueuePops(tail);
+            metrics.addEdgesProcessed(edgesProcessed);
+            long endTime = System.nanoTime();
+            metrics.recordTime(endTime - startTime);
+        }
+        
+        return tail == n ? order : Arrays.copyOf(order, tail);
+    }
+
     /**
      * Static utility method for topological sorting.
      * 
@@ -102,4 +182,122 @@ public class TopoSort {
         TopoSort topoSort = new TopoSort();
         return topoSort.topoSort(graph, metrics);
     }
+
+    /**
+     * Static utility method for topological sorting of a CSR graph.
+     * 
+     * @param graph CSR representation of the DAG
+     * @return list of vertices in topological order
+     */
+    public static List<Integer> sort(CSRGraph graph) {
+        return sort(graph, null);
+    }
+
+    /**
+     * Static utility method for topological sorting of a CSR graph with metrics.
+     * 
+     * @param graph CSR representation of the DAG
+     * @param metrics metrics collector for operation counting
+     * @return list of vertices in topological order
+     */
+    public static List<Integer> sort(CSRGraph graph, Metrics metrics) {
+        TopoSort topoSort = new TopoSort();
+        return topoSort.topoSort(graph, metrics);
+    }
+
+    /**
+     * Static utility method for topological sorting of a CSR graph into a primitive array.
+     * 
+     * @param graph CSR representation of the DAG
+     * @return vertices in topological order
+     */
+    public static int[] order(CSRGraph graph) {
+        return order(graph, null);
+    }
+
+    /**
+     * Static utility method for topological sorting of a CSR graph into a primitive array with metrics.
+     * 
+     * @param graph CSR representation of the DAG
+     * @param metrics metrics collector for operation counting
+     * @return vertices in topological order
+     */
+    public static int[] order(CSRGraph graph, Metrics metrics) {
+        TopoSort topoSort = new TopoSort();
+        return topoSort.topoOrder(graph, metrics);
+    }
+
+    /**
+     * Computes a level-synchronous topological order in parallel.
+     * In-degrees are counted with atomic counters, then each frontier (level) is
+     * split across the pool; a vertex joins the next level when its last incoming
+     * edge is removed. Levels are written back to back into one order array.
+     * Within a level the order is unspecified.
+     * 
+     * @param graph CSR representation of the DAG
+     * @return order plus the level of every vertex
+     */
+    public static LevelOrder parallelLevelSort(CSRGraph graph) {
+        return parallelLevelSort(graph, ParallelLoops.currentPool(), null);
+    }
+
+    /**
+     * Computes a level-synchronous topological order in parallel with metrics.
+     * 
+     * @param graph CSR representation of the DAG
+     * @param pool pool to run the levels in
+     * @param metrics metrics collector (only the time is recorded)
+     * @return order plus the level of every vertex
+     */
+    public static LevelOrder parallelLevelSort(CSRGraph graph, ForkJoinPool pool, Metrics metrics) {
+        long startTime = System.nanoTime();
+        int n = graph.vertexCount();
+        AtomicIntegerArray indeg = new AtomicIntegerArray(n);
+        int[] levels = new int[n];
+        int[] order = new int[n];
+
+        ParallelLoops.parallelFor(pool, n, u -> {
+            levels[u] = -1;
+            for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                indeg.incrementAndGet(graph.target(e));
+            }
+        });
+
+        int size = 0;
+        for (int v = 0; v < n; v++) {
+            if (indeg.get(v) == 0) {
+                levels[v] = 0;
+                order[size++] = v;
+            }
+        }
+
+        int[] levelStart = new int[n + 2];
+        int levelCount = 0;
+        int from = 0;
+        AtomicInteger tail = new AtomicInteger(size);
+        while (from < tail.get()) {
+            int to = tail.get();
+            int level = ++levelCount;
+            levelStart[level] = to;
+            int levelFrom = from;
+            ParallelLoops.parallelFor(pool, to - from, i -> {
+                int u = order[levelFrom + i];
+                for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                    int v = graph.target(e);
+                    if (indeg.decrementAndGet(v) == 0) {
+                        levels[v] = level;
+                        order[tail.getAndIncrement()] = v;
+                    }
+                }
+            });
+            from = to;
+        }
+
+        int sorted = tail.get();
+        if (metrics != null) {
+            metrics.recordTime(System.nanoTime() - startTime);
+        }
+        return new LevelOrder(sorted == n ? order : Arrays.copyOf(order, sorted), levels,
+            Arrays.copyOf(levelStart, levelCount + 1));
+    }
 }
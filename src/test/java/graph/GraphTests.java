@@ -1,15 +1,73 @@
 package graph;
 
+import graph.csr.ArrayCSRGraph;
+import graph.csr.CSRGraph;
+import graph.csr.ReachableSubgraph;
+import graph.dagsp.CorridorQuery;
 import graph.dagsp.DAGShortestPaths;
+import graph.dagsp.DistanceEngine;
+import graph.dagsp.DistanceMatrix;
+import graph.dagsp.MultiSourcePaths;
+import graph.dagsp.PathCache;
+import graph.dagsp.PathDistances;
+import graph.dagsp.PathMode;
+import graph.dagsp.PathRepair;
+import graph.dynamic.ComponentChange;
+import graph.dynamic.DynamicSCC;
+import graph.gen.GeneratorConfig;
+import graph.gen.SyntheticGraphGenerator;
+import graph.io.BinaryGraphFormat;
+import graph.io.GraphData;
+import graph.io.JsonGraphLoader;
+import graph.scc.Condensation;
+import graph.scc.SCCAlgorithm;
 import graph.scc.SCCFinder;
+import graph.service.GraphCache;
+import graph.service.PlannerGraph;
+import graph.service.PlannerHttpServer;
+import graph.topo.LevelOrder;
+import graph.topo.ReachabilityIndex;
 import graph.topo.TopoSort;
+import graph.metrics.ConcurrentMetrics;
+import graph.metrics.LatencyHistogram;
 import graph.metrics.Metrics;
+import graph.metrics.MetricsRegistry;
+import graph.metrics.NoOpMetrics;
+import graph.metrics.PipelineTracer;
 import graph.metrics.SimpleMetrics;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
 
 public class GraphTests {
 
@@ -50,6 +108,86 @@ public class GraphTests {
         Assertions.assertEquals(3, sccs.get(0).size(), "SCC should contain all 3 vertices");
     }
 
+    @Test
+    void testIterativeSCCLongChain() {
+        // A chain this long overflows the thread stack with recursive Tarjan
+        int n = 1_000_000;
+        List<List<Integer>> graph = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) graph.add(new ArrayList<>(1));
+        for (int i = 0; i + 1 < n; i++) graph.get(i).add(i + 1);
+        graph.get(n - 1).add(0);
+
+        SCCFinder sccFinder = new SCCFinder(graph, null, SCCAlgorithm.ITERATIVE_TARJAN);
+
+        Assertions.assertEquals(1, sccFinder.getComponentCount(), "Closed chain should be one SCC");
+        Assertions.assertEquals(n, sccFinder.getComponentSizes()[0]);
+    }
+
+    @Test
+    void testIterativeSCCMatchesRecursive() {
+        Random random = new Random(42);
+        List<List<Integer>> graph = new ArrayList<>();
+        for (int i = 0; i < 200; i++) graph.add(new ArrayList<>());
+        for (int e = 0; e < 400; e++) {
+            graph.get(random.nextInt(200)).add(random.nextInt(200));
+        }
+
+        SCCFinder recursive = new SCCFinder(graph, null, SCCAlgorithm.RECURSIVE_TARJAN);
+        SCCFinder iterative = new SCCFinder(graph, null, SCCAlgorithm.ITERATIVE_TARJAN);
+
+        Assertions.assertEquals(recursive.getSCCs(), iterative.getSCCs(),
+            "Iterative Tarjan should emit the same components in the same order");
+    }
+
+    @Test
+    void testParallelSCCMatchesTarjan() {
+        List<CSRGraph> graphs = new ArrayList<>();
+        Random random = new Random(3);
+        for (int trial = 0; trial < 20; trial++) {
+            int n = 1 + random.nextInt(60);
+            List<List<Integer>> graph = new ArrayList<>();
+            for (int i = 0; i < n; i++) graph.add(new ArrayList<>());
+            for (int e = random.nextInt(3 * n); e > 0; e--) {
+                graph.get(random.nextInt(n)).add(random.nextInt(n));
+            }
+            graphs.add(ArrayCSRGraph.fromAdjacencyList(graph));
+        }
+        // Large enough for the level-synchronous passes to actually fork
+        graphs.add(SyntheticGraphGenerator.generate(new GeneratorConfig()
+            .setVertices(60_000).setEdges(200_000).setMaxSccSize(64)).getGraph());
+        graphs.add(SyntheticGraphGenerator.generate(new GeneratorConfig()
+            .setTopology(GeneratorConfig.Topology.GRID).setVertices(40_000).setOneWayFraction(0.9)).getGraph());
+
+        for (CSRGraph graph : graphs) {
+            SCCFinder tarjan = new SCCFinder(graph, null, SCCAlgorithm.ITERATIVE_TARJAN);
+            SCCFinder parallel = new SCCFinder(graph, null, SCCAlgorithm.PARALLEL_FORWARD_BACKWARD);
+
+            Assertions.assertEquals(tarjan.getComponentCount(), parallel.getComponentCount());
+            Assertions.assertArrayEquals(canonicalComponents(tarjan::getComponentId, graph.vertexCount()),
+                canonicalComponents(parallel::getComponentId, graph.vertexCount()), "Both engines should find the same partition");
+            int total = parallel.getSCCs().stream().mapToInt(List::size).sum();
+            Assertions.assertEquals(graph.vertexCount(), total);
+        }
+    }
+
+    /**
+     * Labels every vertex with the smallest vertex of its component, which is
+     * independent of how an algorithm numbers components.
+     */
+    private static int[] canonicalComponents(IntUnaryOperator componentOf, int n) {
+        int[] smallest = new int[n];
+        Arrays.fill(smallest, Integer.MAX_VALUE);
+        for (int v = 0; v < n; v++) {
+            int c = componentOf.applyAsInt(v);
+            smallest[c] = Math.min(smallest[c], v);
+        }
+        int[] labels = new int[n];
+        for (int v = 0; v < n; v++) {
+            labels[v] = smallest[componentOf.applyAsInt(v)];
+        }
+        return labels;
+    }
+
     // -------------------- Topological Sort Tests --------------------
     @Test
     void testTopoSort() {
@@ -146,6 +284,32 @@ public class GraphTests {
             "Condensation should have <= vertices than original");
     }
 
+    @Test
+    void testWeightedCondensationDedupesWithMinWeight() {
+        // Cycle {0,1} with three parallel edges into cycle {2,3}
+        List<List<int[]>> weighted = new ArrayList<>();
+        for (int i = 0; i < 4; i++) weighted.add(new ArrayList<>());
+        weighted.get(0).add(new int[]{1, 1});
+        weighted.get(1).add(new int[]{0, 1});
+        weighted.get(2).add(new int[]{3, 1});
+        weighted.get(3).add(new int[]{2, 1});
+        weighted.get(0).add(new int[]{2, 8});
+        weighted.get(1).add(new int[]{3, 4});
+        weighted.get(0).add(new int[]{3, 6});
+
+        SCCFinder sccFinder = new SCCFinder(ArrayCSRGraph.fromWeightedAdjacencyList(weighted));
+        Condensation condensation = sccFinder.buildCondensation();
+        int from = sccFinder.getComponentId(0);
+        int to = sccFinder.getComponentId(2);
+
+        Assertions.assertEquals(2, condensation.getComponentCount());
+        Assertions.assertEquals(1, condensation.getEdgeCount(), "Parallel edges should be merged");
+        List<int[]> out = condensation.toWeightedAdjacencyList().get(from);
+        Assertions.assertEquals(to, out.get(0)[0]);
+        Assertions.assertEquals(4, out.get(0)[1], "Merged edge should keep the minimum weight");
+        Assertions.assertEquals(List.of(to), sccFinder.buildCondensationGraph().get(from));
+    }
+
     // -------------------- Topological Sort on Condensation --------------------
     @Test
     void testTopoSortCondensation() {
@@ -287,4 +451,1195 @@ public class GraphTests {
         Assertions.assertEquals(comp0, comp1, "0 and 1 should be in same component");
         Assertions.assertEquals(comp1, comp2, "1 and 2 should be in same component");
     }
+
+    // -------------------- CSR Graph Tests --------------------
+    @Test
+    void testCSRGraphFromAdjacencyList() {
+        List<List<int[]>> weighted = new ArrayList<>();
+        for (int i = 0; i < 4; i++) weighted.add(new ArrayList<>());
+        weighted.get(0).add(new int[]{1, 2});
+        weighted.get(0).add(new int[]{2, 5});
+        weighted.get(2).add(new int[]{3, 1});
+
+        ArrayCSRGraph csr = ArrayCSRGraph.fromWeightedAdjacencyList(weighted);
+
+        Assertions.assertEquals(4, csr.vertexCount());
+        Assertions.assertEquals(3, csr.edgeCount());
+        Assertions.assertEquals(2, csr.outDegree(0));
+        Assertions.assertEquals(0, csr.outDegree(1));
+        Assertions.assertEquals(2, csr.target(csr.edgeStart(0) + 1));
+        Assertions.assertEquals(5, csr.weight(csr.edgeStart(0) + 1));
+        Assertions.assertEquals(List.of(List.of(1, 2), List.of(), List.of(3), List.of()), csr.toAdjacencyList());
+    }
+
+    @Test
+    void testCSROverloadsMatchListAlgorithms() {
+        List<List<int[]>> weighted = new ArrayList<>();
+        for (int i = 0; i < 6; i++) weighted.add(new ArrayList<>());
+        weighted.get(0).add(new int[]{1, 2});
+        weighted.get(1).add(new int[]{2, 3});
+        weighted.get(2).add(new int[]{0, 1}); // Cycle 0,1,2
+        weighted.get(2).add(new int[]{3, 4});
+        weighted.get(3).add(new int[]{4, 1});
+        weighted.get(0).add(new int[]{4, 9});
+        CSRGraph csr = ArrayCSRGraph.fromWeightedAdjacencyList(weighted);
+        List<List<Integer>> plain = ArrayCSRGraph.fromWeightedAdjacencyList(weighted).toAdjacencyList();
+
+        Assertions.assertEquals(new SCCFinder(plain).getSCCs(), new SCCFinder(csr).getSCCs());
+
+        List<List<int[]>> dag = new ArrayList<>();
+        for (int i = 0; i < 4; i++) dag.add(new ArrayList<>());
+        dag.get(0).add(new int[]{1, 2});
+        dag.get(0).add(new int[]{2, 5});
+        dag.get(1).add(new int[]{3, 4});
+        dag.get(2).add(new int[]{3, 1});
+        CSRGraph dagCsr = ArrayCSRGraph.fromWeightedAdjacencyList(dag);
+        List<Integer> topo = TopoSort.sort(dagCsr);
+
+        Assertions.assertEquals(List.of(0, 1, 2, 3), topo);
+        Assertions.assertArrayEquals(DAGShortestPaths.shortestPath(dag, 0, topo),
+            DAGShortestPaths.shortestPath(dagCsr, 0, topo));
+        Assertions.assertArrayEquals(DAGShortestPaths.longestPath(dag, 0, topo),
+            DAGShortestPaths.longestPath(dagCsr, 0, topo));
+    }
+
+    @Test
+    void testPrimitiveTopoOrderMatchesListOrder() {
+        GraphData data = SyntheticGraphGenerator.generate(new GeneratorConfig().setVertices(5000).setEdges(20_000));
+        SCCFinder sccFinder = new SCCFinder(data.getGraph());
+        CSRGraph dag = sccFinder.buildCondensation().getGraph();
+        int source = sccFinder.getComponentId(data.getSource());
+        List<Integer> topo = TopoSort.sort(dag);
+        int[] order = TopoSort.order(dag);
+
+        Assertions.assertArrayEquals(topo.stream().mapToInt(Integer::intValue).toArray(), order);
+        Assertions.assertArrayEquals(DAGShortestPaths.shortestPath(dag, source, topo),
+            DAGShortestPaths.shortestPath(dag, source, order));
+        Assertions.assertArrayEquals(DAGShortestPaths.longestPath(dag, source, topo),
+            DAGShortestPaths.longestPath(dag, source, order));
+
+        // A cycle is never released, so the order is shorter than n
+        CSRGraph cyclic = ArrayCSRGraph.fromAdjacencyList(List.of(List.of(1), List.of(0), List.of()));
+        Assertions.assertArrayEquals(new int[]{2}, TopoSort.order(cyclic));
+    }
+
+    // -------------------- Loader Tests --------------------
+    @Test
+    void testStreamingJsonLoader() throws IOException {
+        // Edges before 'n' and unknown fields must be handled in a single pass
+        String json = "{\"directed\": true, \"edges\": ["
+            + "{\"u\": 0, \"v\": 2, \"w\": 7}, {\"u\": 1, \"v\": 0, \"w\": 3}, {\"u\": 0, \"v\": 1, \"w\": 4}],"
+            + " \"n\": 3, \"source\": 1, \"weight_model\": \"edge\"}";
+
+        GraphData data = JsonGraphLoader.load(new StringReader(json));
+        CSRGraph graph = data.getGraph();
+
+        Assertions.assertEquals(3, data.getN());
+        Assertions.assertEquals(1, data.getSource());
+        Assertions.assertEquals("edge", data.getWeightModel());
+        Assertions.assertEquals(3, graph.edgeCount());
+        Assertions.assertEquals(2, graph.outDegree(0));
+        Assertions.assertEquals(2, graph.target(graph.edgeStart(0)), "Edges of a vertex keep input order");
+        Assertions.assertEquals(4, graph.weight(graph.edgeStart(0) + 1));
+    }
+
+    @Test
+    void testStreamingJsonLoaderRejectsOutOfRangeEdge() {
+        String json = "{\"n\": 2, \"source\": 0, \"edges\": [{\"u\": 0, \"v\": 5, \"w\": 1}]}";
+        Assertions.assertThrows(IOException.class, () -> JsonGraphLoader.load(new StringReader(json)));
+    }
+
+    @Test
+    void testBinaryGraphRoundTrip(@TempDir Path dir) throws IOException {
+        String json = "{\"n\": 4, \"source\": 2, \"weight_model\": \"edge\", \"edges\": ["
+            + "{\"u\": 0, \"v\": 1, \"w\": 2}, {\"u\": 1, \"v\": 0, \"w\": 3}, {\"u\": 2, \"v\": 3, \"w\": 9}]}";
+        GraphData original = JsonGraphLoader.load(new StringReader(json));
+        Path file = dir.resolve("graph" + BinaryGraphFormat.EXTENSION);
+
+        BinaryGraphFormat.write(original, file);
+        GraphData mapped = BinaryGraphFormat.map(file);
+
+        Assertions.assertEquals(4, mapped.getN());
+        Assertions.assertEquals(2, mapped.getSource());
+        Assertions.assertEquals("edge", mapped.getWeightModel());
+        CSRGraph a = original.getGraph();
+        CSRGraph b = mapped.getGraph();
+        Assertions.assertEquals(a.edgeCount(), b.edgeCount());
+        for (int u = 0; u < a.vertexCount(); u++) {
+            Assertions.assertEquals(a.edgeStart(u), b.edgeStart(u));
+        }
+        for (int e = 0; e < a.edgeCount(); e++) {
+            Assertions.assertEquals(a.target(e), b.target(e));
+            Assertions.assertEquals(a.weight(e), b.weight(e));
+        }
+        Assertions.assertEquals(new SCCFinder(a).getSCCs(), new SCCFinder(b).getSCCs(),
+            "Algorithms should run directly on the mapped graph");
+    }
+
+    @Test
+    void testBinaryGraphRejectsCorruptFile(@TempDir Path dir) throws IOException {
+        String json = "{\"n\": 3, \"source\": 0, \"edges\": [{\"u\": 0, \"v\": 1, \"w\": 2}, {\"u\": 1, \"v\": 2, \"w\": 3}]}";
+        Path file = dir.resolve("graph" + BinaryGraphFormat.EXTENSION);
+        BinaryGraphFormat.write(JsonGraphLoader.load(new StringReader(json)), file);
+        byte[] valid = Files.readAllBytes(file);
+
+        // Source (header offset 20) out of range
+        byte[] badSource = valid.clone();
+        ByteBuffer.wrap(badSource).order(ByteOrder.LITTLE_ENDIAN).putInt(20, 7);
+        Files.write(file, badSource);
+        Assertions.assertThrows(IOException.class, () -> BinaryGraphFormat.map(file));
+
+        // Last offset (offsets[n] at 32 + 4n) not equal to m
+        byte[] badOffsets = valid.clone();
+        ByteBuffer.wrap(badOffsets).order(ByteOrder.LITTLE_ENDIAN).putInt(32 + 4 * 3, 1);
+        Files.write(file, badOffsets);
+        Assertions.assertThrows(IOException.class, () -> BinaryGraphFormat.map(file));
+
+        Files.write(file, valid);
+        Assertions.assertEquals(2, BinaryGraphFormat.map(file).getGraph().edgeCount());
+    }
+
+    // -------------------- Generator Tests --------------------
+    @Test
+    void testGeneratorIsDeterministic() {
+        GeneratorConfig config = new GeneratorConfig().setVertices(500).setEdges(2000).setSeed(7);
+        CSRGraph a = SyntheticGraphGenerator.generate(config).getGraph();
+        CSRGraph b = SyntheticGraphGenerator.generate(config).getGraph();
+
+        Assertions.assertEquals(2000, a.edgeCount());
+        for (int e = 0; e < a.edgeCount(); e++) {
+            Assertions.assertEquals(a.target(e), b.target(e));
+            Assertions.assertEquals(a.weight(e), b.weight(e));
+        }
+    }
+
+    @Test
+    void testGeneratorFixedSccSizesAndDepth() {
+        GeneratorConfig config = new GeneratorConfig()
+            .setVertices(400).setEdges(1200)
+            .setSccSizes(GeneratorConfig.SizeDistribution.FIXED).setMaxSccSize(4)
+            .setDagDepth(5);
+        GraphData data = SyntheticGraphGenerator.generate(config);
+        SCCFinder sccFinder = new SCCFinder(data.getGraph());
+
+        Assertions.assertEquals(100, sccFinder.getComponentCount(), "Each cluster should be exactly one SCC");
+        for (int size : sccFinder.getComponentSizes()) {
+            Assertions.assertEquals(4, size);
+        }
+
+        // Backbone chain gives the source a path through all 5 layers
+        CSRGraph dag = sccFinder.buildCondensation().getGraph();
+        List<Integer> topo = TopoSort.sort(dag);
+        int[] hops = new int[dag.vertexCount()];
+        Arrays.fill(hops, -1);
+        hops[sccFinder.getComponentId(data.getSource())] = 0;
+        int deepest = 0;
+        for (int u : topo) {
+            if (hops[u] < 0) continue;
+            for (int e = dag.edgeStart(u); e < dag.edgeEnd(u); e++) {
+                hops[dag.target(e)] = Math.max(hops[dag.target(e)], hops[u] + 1);
+                deepest = Math.max(deepest, hops[dag.target(e)]);
+            }
+        }
+        Assertions.assertTrue(deepest >= 4, "Condensation should span all DAG layers");
+    }
+
+    // -------------------- Parallel Level Topological Sort Tests --------------------
+    @Test
+    void testParallelLevelSortLevels() {
+        // 0 -> 1 -> 3, 0 -> 2 -> 3, 3 -> 4, 5 isolated
+        CSRGraph dag = ArrayCSRGraph.fromAdjacencyList(List.of(
+            List.of(1, 2), List.of(3), List.of(3), List.of(4), List.of(), List.of()));
+        LevelOrder levelOrder = TopoSort.parallelLevelSort(dag);
+
+        Assertions.assertArrayEquals(new int[]{0, 1, 1, 2, 3, 0}, levelOrder.getLevels());
+        Assertions.assertEquals(4, levelOrder.getLevelCount());
+        Assertions.assertArrayEquals(new int[]{0, 2, 4, 5, 6}, levelOrder.getLevelStart());
+        Assertions.assertEquals(6, levelOrder.getOrder().length);
+    }
+
+    @Test
+    void testParallelLevelSortOnLargeDag() {
+        GraphData data = SyntheticGraphGenerator.generate(
+            new GeneratorConfig().setVertices(50_000).setEdges(200_000).setDagDepth(30));
+        CSRGraph dag = new SCCFinder(data.getGraph()).buildCondensation().getGraph();
+        LevelOrder levelOrder = TopoSort.parallelLevelSort(dag);
+
+        int[] order = levelOrder.getOrder();
+        int[] levels = levelOrder.getLevels();
+        Assertions.assertEquals(dag.vertexCount(), order.length, "A DAG should be fully ordered");
+        for (int i = 1; i < order.length; i++) {
+            Assertions.assertTrue(levels[order[i - 1]] <= levels[order[i]], "Order should go level by level");
+        }
+        for (int u = 0; u < dag.vertexCount(); u++) {
+            for (int e = dag.edgeStart(u); e < dag.edgeEnd(u); e++) {
+                Assertions.assertTrue(levels[u] < levels[dag.target(e)], "Edges should point to later levels");
+            }
+        }
+    }
+
+    @Test
+    void testParallelLevelSortSkipsCycles() {
+        // 0 -> 1 <-> 2, 3 isolated
+        CSRGraph graph = ArrayCSRGraph.fromAdjacencyList(List.of(
+            List.of(1), List.of(2), List.of(1), List.of()));
+        LevelOrder levelOrder = TopoSort.parallelLevelSort(graph);
+
+        Assertions.assertArrayEquals(new int[]{0, -1, -1, 0}, levelOrder.getLevels());
+        Assertions.assertEquals(2, levelOrder.getOrder().length);
+    }
+
+    // -------------------- Multi-Source Path Tests --------------------
+    @Test
+    void testMultiSourcePathsMatchSingleSource() {
+        GraphData data = SyntheticGraphGenerator.generate(new GeneratorConfig().setVertices(3000).setEdges(12_000));
+        CSRGraph dag = new SCCFinder(data.getGraph()).buildCondensation().getGraph();
+        int[] topo = TopoSort.order(dag);
+        Random random = new Random(3);
+        int[] sources = new int[37]; // Two full blocks plus a partial one
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = random.nextInt(dag.vertexCount());
+        }
+
+        DistanceMatrix shortest = MultiSourcePaths.compute(dag, sources, topo, PathMode.SHORTEST);
+        DistanceMatrix longest = MultiSourcePaths.computeParallel(dag, sources, topo, PathMode.LONGEST);
+        for (int i = 0; i < sources.length; i++) {
+            Assertions.assertArrayEquals(DistanceEngine.compute(dag, sources[i], topo, PathMode.SHORTEST).toLongArray(),
+                shortest.getDistances(i));
+            Assertions.assertArrayEquals(DistanceEngine.compute(dag, sources[i], topo, PathMode.LONGEST).toLongArray(),
+                longest.getDistances(i));
+        }
+    }
+
+    @Test
+    void testMultiSourceKernelHandlesPartialLanes() {
+        // Block widths that are not a multiple of the SIMD lane count exercise the scalar tail
+        GraphData data = SyntheticGraphGenerator.generate(new GeneratorConfig().setVertices(2000).setEdges(8000).setSeed(11));
+        CSRGraph dag = new SCCFinder(data.getGraph()).buildCondensation().getGraph();
+        int[] topo = TopoSort.order(dag);
+        int[] sources = new int[23];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = (i * 97) % dag.vertexCount();
+        }
+
+        for (int batchSize : new int[]{1, 5, 23}) {
+            DistanceMatrix longest = MultiSourcePaths.compute(dag, sources, topo, PathMode.LONGEST, batchSize, null);
+            for (int i = 0; i < sources.length; i++) {
+                Assertions.assertArrayEquals(DistanceEngine.compute(dag, sources[i], topo, PathMode.LONGEST).toLongArray(),
+                    longest.getDistances(i),
+                    "batchSize " + batchSize + ", vectorized " + MultiSourcePaths.isVectorized());
+            }
+        }
+    }
+
+    @Test
+    void testAllPairsPaths() {
+        // 0 -> 1 (2), 0 -> 2 (5), 1 -> 2 (1)
+        List<List<int[]>> weighted = new ArrayList<>();
+        for (int i = 0; i < 3; i++) weighted.add(new ArrayList<>());
+        weighted.get(0).add(new int[]{1, 2});
+        weighted.get(0).add(new int[]{2, 5});
+        weighted.get(1).add(new int[]{2, 1});
+        CSRGraph dag = ArrayCSRGraph.fromWeightedAdjacencyList(weighted);
+        int[] topo = TopoSort.order(dag);
+
+        DistanceMatrix shortest = MultiSourcePaths.allPairs(dag, topo, PathMode.SHORTEST);
+        Assertions.assertEquals(3, shortest.getDistance(0, 2));
+        Assertions.assertEquals(1, shortest.getDistance(1, 2));
+        Assertions.assertFalse(shortest.isReachable(2, 0));
+        Assertions.assertEquals(Long.MAX_VALUE, shortest.getDistance(2, 0));
+        Assertions.assertEquals(5, MultiSourcePaths.allPairs(dag, topo, PathMode.LONGEST).getDistance(0, 2));
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> MultiSourcePaths.allPairs(dag, topo, PathMode.SHORTEST, 2));
+    }
+
+    // -------------------- Long Distance Engine Tests --------------------
+    @Test
+    void testDistanceEngineHandlesLargeWeights() {
+        // 0 -> 1 -> 2 -> 3 with weights that overflow int, 4 unreachable
+        int big = 2_000_000_000;
+        CSRGraph chain = ArrayCSRGraph.fromEdges(5, new int[]{0, 1, 2}, new int[]{1, 2, 3}, new int[]{big, big, big}, 3);
+        int[] topo = TopoSort.order(chain);
+        Assertions.assertFalse(DistanceEngine.fitsInt(chain));
+
+        PathDistances longest = DistanceEngine.compute(chain, 0, topo, PathMode.LONGEST);
+        Assertions.assertFalse(longest.isCompact());
+        Assertions.assertEquals(3L * big, longest.get(3));
+        Assertions.assertEquals(3, longest.farthestVertex());
+        Assertions.assertFalse(longest.isReachable(4));
+        Assertions.assertEquals(Long.MIN_VALUE, longest.get(4));
+        Assertions.assertEquals(List.of(0, 1, 2, 3), DAGShortestPaths.reconstructPath(longest.getParents(), 3));
+
+        // Real lengths beyond the legacy 1_000_000 sentinel stay distinguishable
+        CSRGraph far = ArrayCSRGraph.fromEdges(3, new int[]{0}, new int[]{1}, new int[]{1_500_000}, 1);
+        PathDistances shortest = DistanceEngine.compute(far, 0, TopoSort.order(far), PathMode.SHORTEST);
+        Assertions.assertTrue(shortest.isCompact());
+        Assertions.assertEquals(1_500_000L, shortest.get(1));
+        Assertions.assertFalse(shortest.isReachable(2));
+        Assertions.assertEquals(Long.MAX_VALUE, shortest.get(2));
+    }
+
+    @Test
+    void testMultiSourcePathsHandleLargeWeights() {
+        // A real distance of 1_200_000 must not read as the legacy 1_000_000 sentinel
+        CSRGraph chain = ArrayCSRGraph.fromEdges(4, new int[]{0, 1}, new int[]{1, 2}, new int[]{600_000, 600_000}, 2);
+        DistanceMatrix compact = MultiSourcePaths.compute(chain, new int[]{0}, TopoSort.order(chain), PathMode.SHORTEST);
+        Assertions.assertTrue(compact.isCompact());
+        Assertions.assertEquals(1_200_000L, compact.getDistance(0, 2));
+        Assertions.assertTrue(compact.isReachable(0, 2));
+        Assertions.assertFalse(compact.isReachable(0, 3));
+
+        // Path lengths beyond int switch to long blocks; 19 sources in blocks of 7 leave partial lanes
+        int big = 2_000_000_000;
+        CSRGraph heavy = ArrayCSRGraph.fromEdges(5, new int[]{0, 1, 2}, new int[]{1, 2, 3}, new int[]{big, big, big}, 3);
+        int[] topo = TopoSort.order(heavy);
+        int[] sources = new int[19];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = i % heavy.vertexCount();
+        }
+        for (PathMode mode : PathMode.values()) {
+            DistanceMatrix wide = MultiSourcePaths.compute(heavy, sources, topo, mode, 7, null);
+            Assertions.assertFalse(wide.isCompact());
+            Assertions.assertEquals(3L * big, wide.getDistance(0, 3));
+            Assertions.assertFalse(wide.isReachable(0, 4));
+            for (int i = 0; i < sources.length; i++) {
+                Assertions.assertArrayEquals(DistanceEngine.compute(heavy, sources[i], topo, mode).toLongArray(),
+                    wide.getDistances(i), "vectorized " + MultiSourcePaths.isVectorized());
+            }
+        }
+    }
+
+    @Test
+    void testDistanceEngineCompactMatchesWide() {
+        GraphData data = SyntheticGraphGenerator.generate(new GeneratorConfig().setVertices(4000).setEdges(16_000));
+        SCCFinder sccFinder = new SCCFinder(data.getGraph());
+        CSRGraph dag = sccFinder.buildCondensation().getGraph();
+        int[] topo = TopoSort.order(dag);
+        int source = sccFinder.getComponentId(data.getSource());
+
+        Assertions.assertTrue(DistanceEngine.fitsInt(dag));
+        for (PathMode mode : PathMode.values()) {
+            PathDistances compact = DistanceEngine.compute(dag, source, topo, mode, true, null);
+            PathDistances wide = DistanceEngine.compute(dag, source, topo, mode, false, null);
+            Assertions.assertTrue(compact.isCompact());
+            Assertions.assertArrayEquals(wide.toLongArray(), compact.toLongArray());
+            Assertions.assertArrayEquals(wide.getParents(), compact.getParents());
+        }
+    }
+
+    // -------------------- Dynamic SCC Tests --------------------
+    @Test
+    void testDynamicSCCMergeAndSplitEvents() {
+        DynamicSCC dynamic = new DynamicSCC(4);
+        List<ComponentChange> changes = new ArrayList<>();
+        dynamic.addListener(changes::add);
+
+        dynamic.addEdge(0, 1, 5);
+        dynamic.addEdge(1, 2, 3);
+        dynamic.addEdge(2, 0, 4); // Closes the cycle 0 -> 1 -> 2 -> 0
+        Assertions.assertEquals(2, dynamic.getComponentCount());
+        Assertions.assertEquals(dynamic.getComponentId(0), dynamic.getComponentId(2));
+        Assertions.assertEquals(ComponentChange.Kind.COMPONENTS_MERGED, changes.get(2).getKind());
+        Assertions.assertEquals(2, changes.get(2).getRemovedComponents().length);
+
+        dynamic.addEdge(3, 1, 7);
+        Assertions.assertTrue(dynamic.getPosition(dynamic.getComponentId(3)) < dynamic.getPosition(dynamic.getComponentId(1)));
+
+        Assertions.assertFalse(dynamic.removeEdge(1, 0));
+        Assertions.assertTrue(dynamic.removeEdge(2, 0));
+        ComponentChange split = changes.get(changes.size() - 1);
+        Assertions.assertEquals(ComponentChange.Kind.COMPONENT_SPLIT, split.getKind());
+        Assertions.assertEquals(2, split.getCreatedComponents().length);
+        Assertions.assertEquals(4, dynamic.getComponentCount());
+        Assertions.assertEquals(dynamic.getVersion(), split.getVersion());
+
+        // Positions follow 3 -> 1 -> 2 and 0 -> 1
+        int[] topo = dynamic.getTopologicalOrder();
+        CSRGraph dag = dynamic.toCondensationGraph();
+        Assertions.assertEquals(3, dag.edgeCount());
+        for (int p = 0; p < dag.vertexCount(); p++) {
+            for (int e = dag.edgeStart(p); e < dag.edgeEnd(p); e++) {
+                Assertions.assertTrue(p < dag.target(e));
+            }
+        }
+        Assertions.assertEquals(dynamic.getComponentId(2), topo[3]);
+    }
+
+    @Test
+    void testDynamicSCCMatchesRecomputation() {
+        int n = 200;
+        Random random = new Random(5);
+        CSRGraph initial = SyntheticGraphGenerator.generate(
+            new GeneratorConfig().setVertices(n).setEdges(300).setSeed(5)).getGraph();
+        DynamicSCC dynamic = new DynamicSCC(initial);
+        List<int[]> edges = new ArrayList<>();
+        for (int u = 0; u < n; u++) {
+            for (int e = initial.edgeStart(u); e < initial.edgeEnd(u); e++) {
+                edges.add(new int[]{u, initial.target(e), initial.weight(e)});
+            }
+        }
+
+        for (int step = 0; step < 2000; step++) {
+            if (edges.isEmpty() || random.nextInt(3) > 0) {
+                int[] edge = {random.nextInt(n), random.nextInt(n), 1 + random.nextInt(10)};
+                dynamic.addEdge(edge[0], edge[1], edge[2]);
+                edges.add(edge);
+            } else {
+                // removeEdge drops the most recently added copy of the pair
+                int[] picked = edges.get(random.nextInt(edges.size()));
+                for (int i = edges.size() - 1; i >= 0; i--) {
+                    if (edges.get(i)[0] == picked[0] && edges.get(i)[1] == picked[1]) {
+                        edges.remove(i);
+                        break;
+                    }
+                }
+                Assertions.assertTrue(dynamic.removeEdge(picked[0], picked[1]));
+            }
+            if (step % 50 == 49) {
+                assertDynamicMatchesStatic(dynamic, edges);
+            }
+        }
+    }
+
+    private static void assertDynamicMatchesStatic(DynamicSCC dynamic, List<int[]> edges) {
+        int n = dynamic.vertexCount();
+        int m = edges.size();
+        int[] sources = new int[m];
+        int[] destinations = new int[m];
+        int[] weights = new int[m];
+        for (int i = 0; i < m; i++) {
+            sources[i] = edges.get(i)[0];
+            destinations[i] = edges.get(i)[1];
+            weights[i] = edges.get(i)[2];
+        }
+        CSRGraph graph = ArrayCSRGraph.fromEdges(n, sources, destinations, weights, m);
+        SCCFinder sccFinder = new SCCFinder(graph);
+        Assertions.assertEquals(m, dynamic.edgeCount());
+        Assertions.assertArrayEquals(canonicalComponents(sccFinder::getComponentId, n),
+            canonicalComponents(dynamic::getComponentId, n));
+
+        // Same condensation edges and min weights, with static components mapped to dynamic positions
+        int[] positionOf = new int[sccFinder.getComponentCount()];
+        for (int v = 0; v < n; v++) {
+            positionOf[sccFinder.getComponentId(v)] = dynamic.getPosition(dynamic.getComponentId(v));
+        }
+        CSRGraph expected = sccFinder.buildCondensation().getGraph();
+        CSRGraph actual = dynamic.toCondensationGraph();
+        Assertions.assertEquals(expected.edgeCount(), actual.edgeCount());
+        Set<String> expectedEdges = new HashSet<>();
+        for (int c = 0; c < expected.vertexCount(); c++) {
+            for (int e = expected.edgeStart(c); e < expected.edgeEnd(c); e++) {
+                expectedEdges.add(positionOf[c] + ">" + positionOf[expected.target(e)] + ":" + expected.weight(e));
+            }
+        }
+        for (int p = 0; p < actual.vertexCount(); p++) {
+            for (int e = actual.edgeStart(p); e < actual.edgeEnd(p); e++) {
+                Assertions.assertTrue(p < actual.target(e), "Condensation edges should follow the order");
+                Assertions.assertTrue(expectedEdges.contains(p + ">" + actual.target(e) + ":" + actual.weight(e)));
+            }
+        }
+    }
+
+    // -------------------- Incremental Path Repair Tests --------------------
+    @Test
+    void testPathRepairMatchesRecomputation() {
+        GraphData data = SyntheticGraphGenerator.generate(new GeneratorConfig().setVertices(3000).setEdges(12_000));
+        SCCFinder sccFinder = new SCCFinder(data.getGraph());
+        CSRGraph dag = sccFinder.buildCondensation().getGraph();
+        int[] topo = TopoSort.order(dag);
+        int source = sccFinder.getComponentId(data.getSource());
+        Random random = new Random(9);
+
+        for (PathMode mode : PathMode.values()) {
+            PathRepair repair = new PathRepair(dag, source, topo, mode);
+            for (int round = 0; round < 20; round++) {
+                int[] edges = new int[1 + random.nextInt(3)];
+                int[] deltas = new int[edges.length];
+                for (int i = 0; i < edges.length; i++) {
+                    edges[i] = random.nextInt(dag.edgeCount());
+                    deltas[i] = random.nextInt(11) - 5;
+                }
+                int touched = repair.applyDeltas(edges, deltas);
+                Assertions.assertTrue(touched <= dag.vertexCount());
+
+                CSRGraph updated = withWeights(dag, repair);
+                PathDistances expected = DistanceEngine.compute(updated, source, topo, mode, false, null);
+                Assertions.assertArrayEquals(expected.toLongArray(), repair.getResult().toLongArray());
+                Assertions.assertArrayEquals(expected.getParents(), repair.getResult().getParents());
+            }
+        }
+    }
+
+    @Test
+    void testPathRepairStopsEarly() {
+        // Chain 0 -> 1 -> 2 -> 3 -> 4 plus shortcut 0 -> 4 (weight 100)
+        CSRGraph dag = ArrayCSRGraph.fromEdges(5, new int[]{0, 0, 1, 2, 3}, new int[]{1, 4, 2, 3, 4},
+            new int[]{1, 100, 1, 1, 1}, 5);
+        int[] topo = TopoSort.order(dag);
+        PathRepair repair = new PathRepair(dag, 0, topo, PathMode.SHORTEST);
+
+        // Making the unused shortcut more expensive only revisits vertex 4
+        int shortcut = dag.edgeStart(0) + 1;
+        Assertions.assertEquals(1, repair.applyDeltas(new int[]{shortcut}, new int[]{50}));
+        Assertions.assertEquals(4, repair.getResult().get(4));
+
+        // Slowing the last chain edge leaves 1..3 untouched
+        int last = dag.edgeStart(3);
+        Assertions.assertEquals(1, repair.applyDeltas(new int[]{last}, new int[]{200}));
+        Assertions.assertEquals(150, repair.getResult().get(4));
+        Assertions.assertEquals(0, repair.getResult().getParents()[4]);
+    }
+
+    @Test
+    void testPathRepairLongDistancesAndOverflow() {
+        // 0 -> 1 -> 2 with weights that take the path past the int range
+        CSRGraph dag = ArrayCSRGraph.fromEdges(3, new int[]{0, 1}, new int[]{1, 2},
+            new int[]{Integer.MAX_VALUE - 10, 10}, 2);
+        int[] topo = TopoSort.order(dag);
+        PathRepair repair = new PathRepair(dag, 0, topo, PathMode.LONGEST);
+
+        repair.applyDeltas(new int[]{1}, new int[]{Integer.MAX_VALUE - 20});
+        Assertions.assertEquals(2L * (Integer.MAX_VALUE - 10), repair.getResult().get(2));
+
+        // A batch overflowing one weight is rejected whole
+        int[] edges = {1, 0};
+        Assertions.assertThrows(IllegalArgumentException.class, () -> repair.applyDeltas(edges, new int[]{-5, 11}));
+        Assertions.assertEquals(Integer.MAX_VALUE - 10, repair.getWeight(0));
+        Assertions.assertEquals(Integer.MAX_VALUE - 10, repair.getWeight(1));
+
+        // A real distance equal to the old int marker is still reachable
+        repair.applyDeltas(new int[]{0, 1}, new int[]{1_000_000 - Integer.MAX_VALUE + 10, -(Integer.MAX_VALUE - 10)});
+        Assertions.assertEquals(1_000_000, repair.getResult().get(2));
+        Assertions.assertTrue(repair.getResult().isReachable(2));
+    }
+
+    @Test
+    void testPlannerGraphMatchesPipeline() throws IOException {
+        GraphData data = JsonGraphLoader.load("data/medium2.json");
+        GraphCache cache = new GraphCache();
+        PlannerGraph graph = cache.put("medium2", data);
+        Assertions.assertSame(graph, cache.get("medium2"));
+
+        SCCFinder sccFinder = new SCCFinder(data.getGraph());
+        Condensation condensation = sccFinder.buildCondensation();
+        int source = sccFinder.getComponentId(data.getSource());
+        for (PathMode mode : PathMode.values()) {
+            PathDistances expected = DistanceEngine.compute(condensation.getGraph(), source,
+                TopoSort.order(condensation.getGraph()), mode);
+            Assertions.assertArrayEquals(expected.toLongArray(), graph.paths(data.getSource(), mode).toLongArray());
+        }
+        Assertions.assertThrows(IllegalArgumentException.class, () -> graph.componentOf(data.getN()));
+    }
+
+    @Test
+    void testPlannerHttpServer(@TempDir Path dir) throws Exception {
+        GraphCache cache = new GraphCache();
+        cache.load("data/small1.json");
+        PlannerHttpServer server = new PlannerHttpServer(cache, new InetSocketAddress("127.0.0.1", 0), dir);
+        server.start();
+        try {
+            HttpClient client = HttpClient.newHttpClient();
+            String base = "http://127.0.0.1:" + server.getAddress().getPort();
+
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(
+                URI.create(base + "/critical-path?graph=small1")).build(), HttpResponse.BodyHandlers.ofString());
+            Assertions.assertEquals(200, response.statusCode());
+            JsonObject body = JsonParser.parseString(response.body()).getAsJsonObject();
+            PathDistances longest = cache.get("small1").paths(0, PathMode.LONGEST);
+            Assertions.assertEquals(longest.get(longest.farthestVertex()), body.get("distance").getAsLong());
+
+            int farVertex = cache.get("small1").getSccFinder().getSCCs().get(longest.farthestVertex()).get(0);
+            response = client.send(HttpRequest.newBuilder(URI.create(base + "/route?graph=small1&mode=longest&target="
+                + farVertex)).build(), HttpResponse.BodyHandlers.ofString());
+            Assertions.assertEquals(200, response.statusCode());
+            JsonObject route = JsonParser.parseString(response.body()).getAsJsonObject();
+            Assertions.assertEquals(body.get("distance"), route.get("distance"));
+            Assertions.assertEquals(body.get("path"), route.get("path"));
+
+            response = client.send(HttpRequest.newBuilder(URI.create(base + "/reachable?graph=small1&target="
+                + farVertex)).build(), HttpResponse.BodyHandlers.ofString());
+            Assertions.assertEquals(200, response.statusCode());
+            JsonObject reachable = JsonParser.parseString(response.body()).getAsJsonObject();
+            Assertions.assertTrue(reachable.get("reachable").getAsBoolean());
+            Assertions.assertEquals("closure", reachable.getAsJsonObject("index").get("strategy").getAsString());
+            List<CompletableFuture<HttpResponse<String>>> concurrent = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                concurrent.add(client.sendAsync(HttpRequest.newBuilder(URI.create(base + "/reachable?graph=small1&target="
+                    + farVertex)).build(), HttpResponse.BodyHandlers.ofString()));
+            }
+            for (CompletableFuture<HttpResponse<String>> future : concurrent) {
+                Assertions.assertEquals(reachable.get("reachable"),
+                    JsonParser.parseString(future.get().body()).getAsJsonObject().get("reachable"));
+            }
+
+            response = client.send(HttpRequest.newBuilder(URI.create(base + "/paths?graph=missing")).build(),
+                HttpResponse.BodyHandlers.ofString());
+            Assertions.assertEquals(404, response.statusCode());
+            response = client.send(HttpRequest.newBuilder(URI.create(base + "/paths?graph=small1&source=-1")).build(),
+                HttpResponse.BodyHandlers.ofString());
+            Assertions.assertEquals(400, response.statusCode());
+
+            // A binary graph whose edge target (after the 32-byte header and 3 offsets) is out of range
+            Path corrupt = dir.resolve("corrupt" + BinaryGraphFormat.EXTENSION);
+            BinaryGraphFormat.write(JsonGraphLoader.load(new StringReader(
+                "{\"n\": 2, \"source\": 0, \"edges\": [{\"u\": 0, \"v\": 1, \"w\": 1}]}")), corrupt);
+            byte[] bytes = Files.readAllBytes(corrupt);
+            ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(32 + 4 * 3, 9);
+            Files.write(corrupt, bytes);
+            response = client.send(HttpRequest.newBuilder(URI.create(base + "/graphs?file=" + corrupt.getFileName()))
+                .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+            Assertions.assertEquals(500, response.statusCode());
+            String error = JsonParser.parseString(response.body()).getAsJsonObject().get("error").getAsString();
+            Assertions.assertFalse(error.contains(dir.toString()));
+
+            // Only files inside the data directory can be loaded
+            Files.copy(Path.of("data/small2.json"), dir.resolve("small2.json"));
+            response = client.send(HttpRequest.newBuilder(URI.create(base + "/graphs?file=small2.json&name=s2"))
+                .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+            Assertions.assertEquals(200, response.statusCode());
+            Assertions.assertNotNull(cache.get("s2"));
+            for (String outside : new String[] {"../small2.json", "sub/../../small2.json",
+                Path.of("data/small2.json").toAbsolutePath().toString()}) {
+                response = client.send(HttpRequest.newBuilder(URI.create(base + "/graphs?file="
+                    + URLEncoder.encode(outside, StandardCharsets.UTF_8)))
+                    .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+                Assertions.assertEquals(403, response.statusCode(), outside);
+            }
+            response = client.send(HttpRequest.newBuilder(URI.create(base + "/graphs?file=missing.json"))
+                .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+            Assertions.assertEquals(404, response.statusCode());
+        } finally {
+            server.stop(0);
+        }
+
+        // Without a data directory the server only serves what was loaded at startup
+        server = new PlannerHttpServer(cache, new InetSocketAddress("127.0.0.1", 0));
+        server.start();
+        try {
+            HttpResponse<String> response = HttpClient.newHttpClient().send(HttpRequest.newBuilder(
+                URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/graphs?file=small1.json"))
+                .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+            Assertions.assertEquals(403, response.statusCode());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testPathCacheHitsEvictsAndInvalidates() throws IOException {
+        GraphData data = JsonGraphLoader.load("data/large2.json");
+        Condensation condensation = new SCCFinder(data.getGraph()).buildCondensation();
+        CSRGraph dag = condensation.getGraph();
+        int[] topo = TopoSort.order(dag);
+        int[] computed = new int[1];
+        IntFunction<PathDistances> compute = source -> {
+            computed[0]++;
+            return DistanceEngine.compute(dag, source, topo, PathMode.SHORTEST);
+        };
+
+        // Room for two results of this graph
+        long entryBytes = DistanceEngine.compute(dag, 0, topo, PathMode.SHORTEST).toLongArray().length * 8L;
+        PathCache cache = new PathCache(2 * entryBytes);
+        PathDistances first = cache.get(1, 0, PathMode.SHORTEST, () -> compute.apply(0));
+        Assertions.assertSame(first, cache.get(1, 0, PathMode.SHORTEST, () -> compute.apply(0)));
+        Assertions.assertEquals(1, computed[0]);
+        Assertions.assertEquals(1, cache.getHits());
+        Assertions.assertEquals(1, cache.getMisses());
+
+        cache.get(1, 1, PathMode.SHORTEST, () -> compute.apply(1));
+        cache.get(1, 0, PathMode.SHORTEST, () -> compute.apply(0));
+        cache.get(1, 2, PathMode.SHORTEST, () -> compute.apply(2));
+        Assertions.assertEquals(1, cache.getEvictions());
+        Assertions.assertTrue(cache.getBytes() <= cache.getMaxBytes());
+        // Source 1 was least recently used
+        cache.get(1, 0, PathMode.SHORTEST, () -> compute.apply(0));
+        Assertions.assertEquals(3, computed[0]);
+        cache.get(1, 1, PathMode.SHORTEST, () -> compute.apply(1));
+        Assertions.assertEquals(4, computed[0]);
+
+        Assertions.assertEquals(2, cache.invalidate(1));
+        Assertions.assertEquals(0, cache.getBytes());
+
+        // A miss whose version is retired while it computes is returned but not stored
+        PathDistances late = cache.get(2, 0, PathMode.SHORTEST, () -> {
+            cache.invalidate(2);
+            return compute.apply(0);
+        });
+        Assertions.assertNotNull(late);
+        Assertions.assertEquals(0, cache.size());
+        Assertions.assertEquals(0, cache.getBytes());
+
+        // Replacing a graph retires its old version
+        GraphCache graphs = new GraphCache();
+        PlannerGraph old = graphs.put("large2", data);
+        graphs.paths(old, data.getSource(), PathMode.LONGEST);
+        graphs.paths(old, data.getSource(), PathMode.LONGEST);
+        Assertions.assertEquals(1, graphs.getPathCache().getHits());
+        PlannerGraph replaced = graphs.put("large2", data);
+        Assertions.assertNotEquals(old.getVersion(), replaced.getVersion());
+        Assertions.assertEquals(0, graphs.getPathCache().size());
+    }
+
+    @Test
+    void testConcurrentMetricsCountsAcrossThreads() throws InterruptedException {
+        ConcurrentMetrics metrics = new ConcurrentMetrics("relax");
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    metrics.incrementRelaxations();
+                }
+                metrics.recordTime(1_000);
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assertions.assertEquals(400_000L, metrics.getRelaxations());
+        // Times accumulate instead of overwriting
+        Assertions.assertEquals(4_000L, metrics.getTimeNs());
+        Assertions.assertEquals(4, metrics.getLatency().getCount());
+
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.phase("relax").add(metrics);
+        registry.phase("relax").add(metrics);
+        Assertions.assertEquals(800_000L, registry.snapshot().get(0).getRelaxations());
+        String prometheus = registry.toPrometheus();
+        Assertions.assertTrue(prometheus.contains("graph_relaxations_total{phase=\"relax\"} 800000\n"));
+        Assertions.assertTrue(prometheus.contains("graph_phase_seconds_count{phase=\"relax\"} 8\n"));
+        Assertions.assertTrue(registry.toJson().contains("\"relaxations\": 800000"));
+    }
+
+    @Test
+    void testLatencyHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v <= 100_000; v++) {
+            histogram.record(v * 1_000);
+        }
+        Assertions.assertEquals(1_000, histogram.getMin());
+        Assertions.assertEquals(100_000_000, histogram.getMax());
+        for (double p : new double[]{50, 90, 99, 99.9}) {
+            double exact = p / 100 * 100_000 * 1_000;
+            long reported = histogram.getValueAtPercentile(p);
+            Assertions.assertTrue(reported >= exact && reported <= exact * (1 + 1.0 / 64), p + ": " + reported);
+        }
+        Assertions.assertEquals(100_000_000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    void testMetricsFlushedOncePerRun() throws IOException {
+        GraphData data = JsonGraphLoader.load("data/large3.json");
+        CSRGraph graph = data.getGraph();
+        for (SCCAlgorithm algorithm : new SCCAlgorithm[]{SCCAlgorithm.RECURSIVE_TARJAN, SCCAlgorithm.ITERATIVE_TARJAN}) {
+            Metrics metrics = new SimpleMetrics();
+            new SCCFinder(graph, metrics, algorithm);
+            Assertions.assertEquals(graph.vertexCount(), metrics.getDfsVisits());
+            Assertions.assertEquals(graph.edgeCount(), metrics.getEdgesProcessed());
+        }
+
+        CSRGraph dag = new SCCFinder(graph).buildCondensation().getGraph();
+        Metrics topoMetrics = new SimpleMetrics();
+        int[] topo = TopoSort.order(dag, topoMetrics);
+        Assertions.assertEquals(dag.vertexCount(), topoMetrics.getQueuePops());
+        Assertions.assertEquals(dag.vertexCount(), topoMetrics.getQueuePushes());
+        Assertions.assertEquals(dag.edgeCount(), topoMetrics.getEdgesProcessed());
+
+        // One relaxation per out-edge of every reachable vertex
+        Metrics pathMetrics = new SimpleMetrics();
+        int[] dist = DAGShortestPaths.shortestPath(dag, topo[0], topo, pathMetrics);
+        long expected = 0;
+        for (int u = 0; u < dag.vertexCount(); u++) {
+            if (dist[u] != PathMode.SHORTEST.getUnreachable()) {
+                expected += dag.outDegree(u);
+            }
+        }
+        Assertions.assertEquals(expected, pathMetrics.getRelaxations());
+
+        Metrics none = NoOpMetrics.INSTANCE;
+        TopoSort.order(dag, none);
+        Assertions.assertEquals(0, none.getQueuePops());
+    }
+
+    @Test
+    void testCriticalPathFromSinkComponent() {
+        // 0 -> 1 with source 1: the source is the sink component, numbered last
+        CSRGraph graph = ArrayCSRGraph.fromEdges(2, new int[]{0}, new int[]{1}, new int[]{3}, 1);
+        SCCFinder sccFinder = new SCCFinder(graph);
+        CSRGraph dag = sccFinder.buildCondensation().getGraph();
+        int source = sccFinder.getComponentId(1);
+        Assertions.assertNotEquals(0, source);
+
+        PathDistances longest = DistanceEngine.compute(dag, source, TopoSort.order(dag), PathMode.LONGEST);
+        int target = longest.farthestVertex();
+        Assertions.assertEquals(source, target);
+        Assertions.assertEquals(List.of(source), longest.pathTo(target));
+        Assertions.assertEquals(List.of(), longest.pathTo(sccFinder.getComponentId(0)));
+    }
+
+    @Test
+    void testTarjanNumbersComponentsTopologically() {
+        GraphData data = SyntheticGraphGenerator.generate(new GeneratorConfig()
+            .setVertices(3000).setEdges(12_000).setMaxSccSize(16).setSeed(11));
+        SCCFinder sccFinder = new SCCFinder(data.getGraph());
+        Assertions.assertTrue(sccFinder.isTopologicallyNumbered());
+        CSRGraph dag = sccFinder.buildCondensation().getGraph();
+        for (int u = 0; u < dag.vertexCount(); u++) {
+            for (int e = dag.edgeStart(u); e < dag.edgeEnd(u); e++) {
+                Assertions.assertTrue(dag.target(e) > u, "Condensation edge " + u + " -> " + dag.target(e));
+            }
+        }
+        int[] order = sccFinder.getTopologicalOrder();
+        for (int i = 0; i < order.length; i++) {
+            Assertions.assertEquals(i, order[i]);
+        }
+
+        int source = sccFinder.getComponentId(data.getSource());
+        int[] kahn = TopoSort.order(dag);
+        Assertions.assertArrayEquals(DAGShortestPaths.shortestPathWithParent(dag, source, kahn, null).getDistances(),
+            DAGShortestPaths.shortestPathInIdOrder(dag, source, null).getDistances());
+        Assertions.assertArrayEquals(DAGShortestPaths.longestPathWithParent(dag, source, kahn, null).getDistances(),
+            DAGShortestPaths.longestPathInIdOrder(dag, source, null).getDistances());
+
+        SCCFinder parallel = new SCCFinder(data.getGraph(), null, SCCAlgorithm.PARALLEL_FORWARD_BACKWARD);
+        Assertions.assertFalse(parallel.isTopologicallyNumbered());
+        CSRGraph parallelDag = parallel.buildCondensation().getGraph();
+        int[] position = new int[parallelDag.vertexCount()];
+        int[] parallelOrder = parallel.getTopologicalOrder();
+        for (int i = 0; i < parallelOrder.length; i++) {
+            position[parallelOrder[i]] = i;
+        }
+        for (int u = 0; u < parallelDag.vertexCount(); u++) {
+            for (int e = parallelDag.edgeStart(u); e < parallelDag.edgeEnd(u); e++) {
+                Assertions.assertTrue(position[parallelDag.target(e)] > position[u]);
+            }
+        }
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> DAGShortestPaths.shortestPathInIdOrder(ArrayCSRGraph.fromAdjacencyList(
+                List.of(List.of(), List.of(0))), 1, null));
+    }
+
+    @Test
+    void testFusedSweepMatchesSeparatePasses() {
+        GraphData data = SyntheticGraphGenerator.generate(new GeneratorConfig()
+            .setVertices(3000).setEdges(12_000).setMaxSccSize(16).setSeed(5));
+        SCCFinder sccFinder = new SCCFinder(data.getGraph());
+        CSRGraph dag = sccFinder.buildCondensation().getGraph();
+        int[] topo = TopoSort.order(dag);
+        int source = sccFinder.getComponentId(data.getSource());
+
+        SimpleMetrics metrics = new SimpleMetrics();
+        DAGShortestPaths.SweepResult sweep = DAGShortestPaths.shortestAndLongest(dag, source, topo, true, metrics);
+        DAGShortestPaths.PathResult shortest = DAGShortestPaths.shortestPathWithParent(dag, source, topo, null);
+        DAGShortestPaths.PathResult longest = DAGShortestPaths.longestPathWithParent(dag, source, topo, null);
+        Assertions.assertArrayEquals(shortest.getDistances(), sweep.getShortest().getDistances());
+        Assertions.assertArrayEquals(shortest.getParents(), sweep.getShortest().getParents());
+        Assertions.assertArrayEquals(longest.getDistances(), sweep.getLongest().getDistances());
+        Assertions.assertArrayEquals(longest.getParents(), sweep.getLongest().getParents());
+        Assertions.assertEquals(1, sweep.getPathCounts()[source]);
+        Assertions.assertTrue(metrics.getRelaxations() <= dag.edgeCount());
+        Assertions.assertNull(DAGShortestPaths.shortestAndLongest(dag, source, topo).getPathCounts());
+
+        // Two diamonds in a row: 0 -> {1, 2} -> 3 -> {4, 5} -> 6, plus an unreachable 7
+        CSRGraph diamonds = ArrayCSRGraph.fromWeightedAdjacencyList(List.of(
+            List.of(new int[]{1, 1}, new int[]{2, 4}), List.of(new int[]{3, 1}), List.of(new int[]{3, 1}),
+            List.of(new int[]{4, 2}, new int[]{5, 5}), List.of(new int[]{6, 1}), List.of(new int[]{6, 1}),
+            List.of(), List.of(new int[]{6, 1})));
+        DAGShortestPaths.SweepResult small = DAGShortestPaths.shortestAndLongest(
+            diamonds, 0, TopoSort.order(diamonds), true, null);
+        Assertions.assertArrayEquals(new long[]{1, 1, 1, 2, 2, 2, 4, 0}, small.getPathCounts());
+        Assertions.assertEquals(5, small.getShortest().getDistances()[6]);
+        Assertions.assertEquals(11, small.getLongest().getDistances()[6]);
+        Assertions.assertEquals(List.of(0, 2, 3, 5, 6),
+            DAGShortestPaths.reconstructPath(small.getLongest().getParents(), 6));
+    }
+
+    @Test
+    void testReachableSubgraphMatchesFullPipeline() {
+        GraphData data = SyntheticGraphGenerator.generate(new GeneratorConfig()
+            .setVertices(4000).setEdges(6000).setMaxSccSize(8).setSeed(3));
+        CSRGraph graph = data.getGraph();
+        int source = data.getSource();
+        ReachableSubgraph pruned = ReachableSubgraph.of(graph, source);
+        CSRGraph sub = pruned.getGraph();
+
+        SCCFinder full = new SCCFinder(graph);
+        SCCFinder local = new SCCFinder(sub);
+        PathDistances fullLongest = DistanceEngine.compute(full.buildCondensation().getGraph(),
+            full.getComponentId(source), full.getTopologicalOrder(), PathMode.LONGEST);
+        PathDistances localLongest = DistanceEngine.compute(local.buildCondensation().getGraph(),
+            local.getComponentId(pruned.toLocal(source)), local.getTopologicalOrder(), PathMode.LONGEST);
+
+        int reachable = 0;
+        int edges = 0;
+        for (int v = 0; v < graph.vertexCount(); v++) {
+            boolean reached = fullLongest.isReachable(full.getComponentId(v));
+            Assertions.assertEquals(reached, pruned.contains(v), "vertex " + v);
+            if (!reached) {
+                Assertions.assertEquals(-1, pruned.toLocal(v));
+                continue;
+            }
+            int l = pruned.toLocal(v);
+            Assertions.assertEquals(v, pruned.toOriginal(l));
+            Assertions.assertEquals(fullLongest.get(full.getComponentId(v)), localLongest.get(local.getComponentId(l)));
+            Assertions.assertEquals(graph.outDegree(v), sub.outDegree(l));
+            for (int e = sub.edgeStart(l), k = graph.edgeStart(v); e < sub.edgeEnd(l); e++, k++) {
+                Assertions.assertEquals(graph.target(k), pruned.toOriginal(sub.target(e)));
+                Assertions.assertEquals(graph.weight(k), sub.weight(e));
+            }
+            reachable++;
+            edges += graph.outDegree(v);
+        }
+        Assertions.assertEquals(reachable, pruned.vertexCount());
+        Assertions.assertEquals(edges, sub.edgeCount());
+        Assertions.assertTrue(reachable < graph.vertexCount(), "Sparse graph should leave some vertices unreachable");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ReachableSubgraph.of(graph, -1));
+    }
+
+    @Test
+    void testCorridorQueryMatchesSingleSourcePaths() throws Exception {
+        GraphData data = SyntheticGraphGenerator.generate(new GeneratorConfig()
+            .setVertices(5000).setEdges(15_000).setMaxSccSize(8).setSeed(21));
+        SCCFinder sccFinder = new SCCFinder(data.getGraph());
+        CSRGraph dag = sccFinder.buildCondensation().getGraph();
+        int[] topo = sccFinder.getTopologicalOrder();
+        CorridorQuery corridor = new CorridorQuery(dag, topo);
+        Random random = new Random(4);
+
+        int reachablePairs = 0;
+        Set<Boolean> strategies = new HashSet<>();
+        for (int q = 0; q < 40; q++) {
+            int source = random.nextInt(dag.vertexCount());
+            for (PathMode mode : PathMode.values()) {
+                PathDistances full = DistanceEngine.compute(dag, source, topo, mode);
+                for (int t = 0; t < 10; t++) {
+                    // Half the targets are known to be reachable
+                    int target = t % 2 == 0 || full.farthestVertex() == -1
+                        ? random.nextInt(dag.vertexCount()) : randomReachable(full, random);
+                    CorridorQuery.PairPath pair = corridor.query(source, target, mode);
+                    Assertions.assertEquals(full.isReachable(target), pair.isReachable());
+                    Assertions.assertEquals(full.get(target), pair.getLength());
+                    if (!pair.isReachable()) {
+                        Assertions.assertEquals(0, pair.getPath().length);
+                        continue;
+                    }
+                    reachablePairs++;
+                    strategies.add(pair.isPruned());
+                    int[] parents = full.getParents();
+                    int[] path = pair.getPath();
+                    Assertions.assertEquals(source, path[0]);
+                    Assertions.assertEquals(target, path[path.length - 1]);
+                    for (int i = path.length - 1; i > 0; i--) {
+                        Assertions.assertEquals(parents[path[i]], path[i - 1]);
+                    }
+                    Assertions.assertTrue(pair.getCorridorSize() <= dag.vertexCount());
+                }
+            }
+        }
+        Assertions.assertTrue(reachablePairs > 0);
+        Assertions.assertEquals(Set.of(true, false), strategies, "Both corridor and whole-slice queries should occur");
+
+        CorridorQuery.PairPath self = corridor.query(3, 3, PathMode.LONGEST);
+        Assertions.assertEquals(0, self.getLength());
+        Assertions.assertArrayEquals(new int[]{3}, self.getPath());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> corridor.query(0, dag.vertexCount(), PathMode.SHORTEST));
+
+        // Concurrent queries on virtual threads share the instance without a lock
+        int[] sources = random.ints(8, 0, dag.vertexCount()).toArray();
+        List<PathDistances> expected = new ArrayList<>();
+        for (int source : sources) {
+            expected.add(DistanceEngine.compute(dag, source, topo, PathMode.LONGEST));
+        }
+        List<Future<Integer>> mismatches = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int task = 0; task < 64; task++) {
+                int seed = task;
+                mismatches.add(executor.submit(() -> {
+                    Random local = new Random(seed);
+                    int wrong = 0;
+                    for (int q = 0; q < 50; q++) {
+                        int i = local.nextInt(sources.length);
+                        int target = local.nextInt(dag.vertexCount());
+                        if (corridor.query(sources[i], target, PathMode.LONGEST).getLength()
+                                != expected.get(i).get(target)) {
+                            wrong++;
+                        }
+                    }
+                    return wrong;
+                }));
+            }
+        }
+        for (Future<Integer> future : mismatches) {
+            Assertions.assertEquals(0, future.get());
+        }
+    }
+
+    private static int randomReachable(PathDistances distances, Random random) {
+        while (true) {
+            int v = random.nextInt(distances.size());
+            if (distances.isReachable(v)) {
+                return v;
+            }
+        }
+    }
+
+    @Test
+    void testReachabilityIndexMatchesSearch() throws Exception {
+        GraphData data = SyntheticGraphGenerator.generate(new GeneratorConfig()
+            .setVertices(6000).setEdges(15_000).setMaxSccSize(4).setSeed(9));
+        SCCFinder sccFinder = new SCCFinder(data.getGraph());
+        CSRGraph dag = sccFinder.buildCondensation().getGraph();
+        int[] topo = sccFinder.getTopologicalOrder();
+        ReachabilityIndex closure = ReachabilityIndex.build(dag, topo, ReachabilityIndex.Strategy.CLOSURE, 1, 1);
+        ReachabilityIndex intervals = ReachabilityIndex.build(dag, topo, ReachabilityIndex.Strategy.INTERVALS, 2, 7);
+        Assertions.assertTrue(closure.sizeInBytes() > 0 && intervals.sizeInBytes() > 0);
+
+        Random random = new Random(2);
+        int positives = 0;
+        int[] sources = new int[60];
+        boolean[][] reachedFrom = new boolean[sources.length][];
+        for (int q = 0; q < sources.length; q++) {
+            int from = random.nextInt(dag.vertexCount());
+            boolean[] reached = new boolean[dag.vertexCount()];
+            reached[from] = true;
+            for (int u : topo) {
+                if (reached[u]) {
+                    for (int e = dag.edgeStart(u); e < dag.edgeEnd(u); e++) {
+                        reached[dag.target(e)] = true;
+                    }
+                }
+            }
+            sources[q] = from;
+            reachedFrom[q] = reached;
+            for (int to = 0; to < dag.vertexCount(); to += 7) {
+                Assertions.assertEquals(reached[to], closure.reaches(from, to), from + " -> " + to);
+                Assertions.assertEquals(reached[to], intervals.reaches(from, to), from + " -> " + to);
+                if (reached[to] && to != from) {
+                    positives++;
+                }
+            }
+        }
+        Assertions.assertTrue(positives > 0);
+
+        // Concurrent interval queries on virtual threads share pooled search scratch
+        List<Future<Integer>> mismatches = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int task = 0; task < 64; task++) {
+                int seed = task;
+                mismatches.add(executor.submit(() -> {
+                    Random local = new Random(seed);
+                    int wrong = 0;
+                    for (int q = 0; q < 200; q++) {
+                        int i = local.nextInt(sources.length);
+                        int to = local.nextInt(dag.vertexCount());
+                        if (intervals.reaches(sources[i], to) != reachedFrom[i][to]) {
+                            wrong++;
+                        }
+                    }
+                    return wrong;
+                }));
+            }
+        }
+        for (Future<Integer> future : mismatches) {
+            Assertions.assertEquals(0, future.get());
+        }
+
+        ReachabilityIndex vertices = ReachabilityIndex.build(sccFinder);
+        Assertions.assertEquals(ReachabilityIndex.Strategy.CLOSURE, vertices.getStrategy());
+        List<Integer> scc = sccFinder.getSCCs().stream().filter(c -> c.size() > 1).findFirst().orElseThrow();
+        Assertions.assertTrue(vertices.vertexReaches(scc.get(0), scc.get(1)));
+        Assertions.assertTrue(vertices.vertexReaches(scc.get(1), scc.get(0)));
+        Assertions.assertThrows(IllegalStateException.class, () -> intervals.vertexReaches(0, 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> intervals.reaches(0, dag.vertexCount()));
+    }
+
+    @Test
+    void testPipelineTracerNestsSpans() throws IOException {
+        PipelineTracer tracer = new PipelineTracer();
+        PipelineTracer.Span outer = tracer.start("dataset", "test");
+        PipelineTracer.Span inner = tracer.start("alloc", "test");
+        int[][] blocks = new int[64][];
+        for (int i = 0; i < blocks.length; i++) {
+            blocks[i] = new int[16_384];
+        }
+        Assertions.assertThrows(IllegalStateException.class, outer::end);
+        inner.end();
+        outer.end();
+        Assertions.assertEquals(64, blocks.length);
+
+        Assertions.assertEquals(List.of("alloc", "dataset"),
+            tracer.getSpans().stream().map(PipelineTracer.Span::getName).toList());
+        Assertions.assertTrue(inner.getStartNs() >= outer.getStartNs());
+        Assertions.assertTrue(inner.getWallNs() <= outer.getWallNs());
+        Assertions.assertTrue(outer.getPeakHeapBytes() >= inner.getPeakHeapBytes());
+        if (inner.getAllocatedBytes() >= 0) {
+            Assertions.assertTrue(inner.getAllocatedBytes() >= 64L * 16_384 * 4);
+        }
+
+        StringWriter out = new StringWriter();
+        tracer.writeChromeTrace(out);
+        JsonArray events = JsonParser.parseString(out.toString()).getAsJsonObject().getAsJsonArray("traceEvents");
+        Assertions.assertEquals(2, events.size());
+        Assertions.assertEquals("X", events.get(0).getAsJsonObject().get("ph").getAsString());
+    }
+
+    @Test
+    void testPipelineTracerKeepsPeakAcrossThreads() throws Exception {
+        PipelineTracer tracer = new PipelineTracer();
+        PipelineTracer.Span outer = tracer.start("dataset", "test");
+        // A span on another thread resets the pool peaks while outer is open
+        Thread other = new Thread(() -> {
+            PipelineTracer.Span span = tracer.start("worker", "test");
+            int[][] blocks = new int[64][];
+            for (int i = 0; i < blocks.length; i++) {
+                blocks[i] = new int[16_384];
+            }
+            span.end();
+            Assertions.assertEquals(64, blocks.length);
+        });
+        other.start();
+        other.join();
+        outer.end();
+
+        PipelineTracer.Span worker = tracer.getSpans().get(0);
+        Assertions.assertEquals("worker", worker.getName());
+        Assertions.assertTrue(outer.getPeakHeapBytes() >= worker.getPeakHeapBytes());
+    }
+
+    @Test
+    void testPipelineTracerUnwindsAfterFailedStage() {
+        PipelineTracer tracer = new PipelineTracer();
+        PipelineTracer.Span dataset = tracer.start("dataset", "test");
+        try {
+            tracer.start("load", "test");
+            throw new IllegalStateException("stage failed");
+        } catch (IllegalStateException e) {
+            Assertions.assertEquals("stage failed", e.getMessage());
+        } finally {
+            tracer.unwind(dataset);
+        }
+        Assertions.assertEquals(List.of("load", "dataset"),
+            tracer.getSpans().stream().map(PipelineTracer.Span::getName).toList());
+        Assertions.assertTrue(dataset.getWallNs() >= 0);
+        Assertions.assertThrows(IllegalStateException.class, () -> tracer.unwind(dataset));
+
+        // Nothing stays open: the next span is top-level and ends on its own
+        tracer.start("next", "test").end();
+        Assertions.assertEquals(3, tracer.getSpans().size());
+    }
+
+    private static CSRGraph withWeights(CSRGraph graph, PathRepair repair) {
+        int n = graph.vertexCount();
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[graph.edgeCount()];
+        int[] weights = new int[graph.edgeCount()];
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] = graph.edgeEnd(u);
+            for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+                targets[e] = graph.target(e);
+                weights[e] = repair.getWeight(e);
+            }
+        }
+        return new ArrayCSRGraph(offsets, targets, weights);
+    }
 }